@@ -0,0 +1,284 @@
+package com.microswitch.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code ShadowComparator} for every class or record annotated {@code @ShadowComparable}.
+ * <p>
+ * The generated class is named {@code <SimpleName>ShadowComparator} ({@code Outer_InnerShadowComparator} for
+ * nested types) and lives in the annotated class's package, which is where the microswitch deep comparator
+ * looks for it at runtime. It compares the same fields the reflective comparison would - declared fields of the
+ * class and its superclasses, subclass first, without static and transient ones - minus the fields listed in
+ * {@code @ShadowComparable(ignore)}. Fields are read directly when the generated class can access them,
+ * otherwise through the record accessor or a {@code getX()}/{@code isX()} getter; a field with neither is a
+ * compile error.
+ */
+@SupportedAnnotationTypes(ShadowComparableProcessor.ANNOTATION)
+public final class ShadowComparableProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.microswitch.domain.comparator.ShadowComparable";
+    static final String SUFFIX = "ShadowComparator";
+    private static final String COMPARATOR_INTERFACE = "com.microswitch.domain.comparator.ShadowComparator";
+
+    /**
+     * A compared field: its name, the {@code Fields}/{@code Hasher} method suffix and how to read it, with
+     * {@code %s} standing for the instance.
+     */
+    private record FieldRead(String name, String kind, String read) {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD
+                        || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                    error(element, "@ShadowComparable applies to concrete classes and records only");
+                    continue;
+                }
+                TypeElement type = (TypeElement) element;
+                if (!isAccessible(type)) {
+                    error(type, "@ShadowComparable class must not be private or nested in a private class");
+                    continue;
+                }
+                List<FieldRead> fields = fieldsOf(type);
+                if (fields == null) {
+                    continue;
+                }
+                try {
+                    write(type, fields);
+                } catch (IOException e) {
+                    error(type, "Failed to write the shadow comparator: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private List<FieldRead> fieldsOf(TypeElement type) {
+        Set<String> ignored = ignoredFields(type);
+        List<FieldRead> fields = new ArrayList<>();
+        boolean readable = true;
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                String name = field.getSimpleName().toString();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT) || ignored.contains(name)) {
+                    continue;
+                }
+                String read = readerOf(type, current, field);
+                if (read == null) {
+                    error(field, "Field '" + name + "' is not accessible from the generated shadow comparator; "
+                            + "add a getter, make it transient or list it in @ShadowComparable(ignore)");
+                    readable = false;
+                    continue;
+                }
+                fields.add(new FieldRead(name, kindOf(field.asType()), read));
+            }
+        }
+        return readable ? fields : null;
+    }
+
+    private Set<String> ignoredFields(TypeElement type) {
+        Set<String> ignored = new HashSet<>();
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("ignore")) {
+                    for (Object value : (List<?>) entry.getValue().getValue()) {
+                        ignored.add(String.valueOf(((AnnotationValue) value).getValue()));
+                    }
+                }
+            }
+        }
+        return ignored;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        String name = element.getQualifiedName().toString();
+        return name.equals("java.lang.Object") || name.equals("java.lang.Record") ? null : element;
+    }
+
+    /**
+     * How the generated class, in the package of {@code type}, reads {@code field} declared by {@code owner}.
+     */
+    private String readerOf(TypeElement type, TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        if (owner.getKind() == ElementKind.RECORD) {
+            return "%s." + name + "()";
+        }
+        if (isAccessibleFrom(field, type)) {
+            return "%s." + name;
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Set<String> getters = field.asType().getKind() == TypeKind.BOOLEAN
+                ? Set.of("get" + capitalized, "is" + capitalized)
+                : Set.of("get" + capitalized);
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (getters.contains(method.getSimpleName().toString())
+                    && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())
+                    && isAccessibleFrom(method, type)) {
+                return "%s." + method.getSimpleName() + "()";
+            }
+        }
+        return null;
+    }
+
+    private boolean isAccessibleFrom(Element member, TypeElement type) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (packageOf(member).equals(packageOf(type))) {
+            return true;
+        }
+        return modifiers.contains(Modifier.PUBLIC) && member.getEnclosingElement().getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    /**
+     * Mirrors the runtime comparison plan: integral primitives as {@code long}, floating point as
+     * {@code double}, strings in place and every other reference through the deep comparison.
+     */
+    private static String kindOf(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BYTE, SHORT, INT, LONG -> "Long";
+            case FLOAT, DOUBLE -> "Double";
+            case BOOLEAN -> "Boolean";
+            case CHAR -> "Char";
+            case DECLARED -> ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName()
+                    .contentEquals("java.lang.String") ? "String" : "Object";
+            default -> "Object";
+        };
+    }
+
+    private void write(TypeElement type, List<FieldRead> fields) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String qualifiedName = type.getQualifiedName().toString();
+        String nestedName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        String className = nestedName.replace('.', '_') + SUFFIX;
+        String typeName = qualifiedName + wildcards(type);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * Shadow comparator for {@link ").append(qualifiedName).append("}, generated by ")
+                .append(ShadowComparableProcessor.class.getName()).append(". Do not edit.\n")
+                .append(" */\n")
+                .append("public final class ").append(className)
+                .append(" implements ").append(COMPARATOR_INTERFACE).append('<').append(typeName).append("> {\n\n");
+
+        source.append("    private static final String[] FIELD_NAMES = {");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append('"').append(fields.get(i).name()).append('"');
+        }
+        source.append("};\n\n");
+
+        source.append("    @Override\n")
+                .append("    public String[] fieldNames() {\n")
+                .append("        return FIELD_NAMES.clone();\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public boolean compare(").append(typeName).append(" left, ").append(typeName).append(" right, ")
+                .append(COMPARATOR_INTERFACE).append(".Fields fields) {\n")
+                .append("        boolean equal = true;\n");
+        for (int i = 0; i < fields.size(); i++) {
+            FieldRead field = fields.get(i);
+            source.append("        if (!fields.skip(").append(i).append(") && !fields.compare").append(field.kind())
+                    .append('(').append(i).append(", ").append(field.read().formatted("left")).append(", ")
+                    .append(field.read().formatted("right")).append(")) {\n")
+                    .append("            equal = false;\n")
+                    .append("            if (fields.shouldStop()) {\n")
+                    .append("                return false;\n")
+                    .append("            }\n")
+                    .append("        }\n");
+        }
+        source.append("        return equal;\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public void hash(").append(typeName).append(" value, ")
+                .append(COMPARATOR_INTERFACE).append(".Hasher hasher) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            FieldRead field = fields.get(i);
+            String kind = field.kind().equals("String") ? "Object" : field.kind();
+            source.append("        if (!hasher.skip(").append(i).append(")) {\n")
+                    .append("            hasher.hash").append(kind).append('(').append(field.read().formatted("value")).append(");\n")
+                    .append("        }\n");
+        }
+        source.append("    }\n")
+                .append("}\n");
+
+        String sourceName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(sourceName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static String wildcards(TypeElement type) {
+        int parameters = type.getTypeParameters().size();
+        if (parameters == 0) {
+            return "";
+        }
+        return "<" + String.join(", ", Collections.nCopies(parameters, "?")) + ">";
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
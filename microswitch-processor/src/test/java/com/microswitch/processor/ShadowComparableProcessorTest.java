@@ -0,0 +1,168 @@
+package com.microswitch.processor;
+
+import com.microswitch.domain.util.ComparisonResult;
+import com.microswitch.domain.util.DeepObjectComparator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowComparableProcessorTest {
+
+    private static final String ORDER = """
+            package shop;
+
+            import com.microswitch.domain.comparator.ShadowComparable;
+
+            @ShadowComparable(ignore = "requestId")
+            public class Order extends Audited {
+                public long id;
+                String customer;
+                private double total;
+                private boolean paid;
+                private String requestId;
+                private transient Object cache;
+                public Line line;
+
+                public Order(long id, String customer, double total, boolean paid, String requestId, Line line) {
+                    this.id = id;
+                    this.customer = customer;
+                    this.total = total;
+                    this.paid = paid;
+                    this.requestId = requestId;
+                    this.line = line;
+                    this.createdBy = "system";
+                }
+
+                public double getTotal() {
+                    return total;
+                }
+
+                public boolean isPaid() {
+                    return paid;
+                }
+
+                @ShadowComparable
+                public record Line(String sku, Number quantity) {
+                }
+            }
+            """;
+
+    private static final String AUDITED = """
+            package shop;
+
+            public class Audited {
+                protected String createdBy;
+            }
+            """;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void shouldGenerateComparatorThatTheDeepComparatorPrefers() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(ORDER, AUDITED);
+        assertTrue(errors(diagnostics).isEmpty(), () -> "Unexpected errors: " + errors(diagnostics));
+
+        String generated = Files.readString(workDir.resolve("generated/shop/OrderShadowComparator.java"));
+        assertTrue(generated.contains("FIELD_NAMES = {\"id\", \"customer\", \"total\", \"paid\", \"line\", \"createdBy\"}"), generated);
+        assertTrue(generated.contains("fields.compareDouble(2, left.getTotal(), right.getTotal())"), generated);
+        assertTrue(generated.contains("fields.compareBoolean(3, left.isPaid(), right.isPaid())"), generated);
+        assertTrue(Files.exists(workDir.resolve("generated/shop/Order_LineShadowComparator.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{workDir.resolve("classes").toUri().toURL()},
+                getClass().getClassLoader())) {
+            Class<?> order = loader.loadClass("shop.Order");
+            Class<?> line = loader.loadClass("shop.Order$Line");
+            var newLine = line.getConstructor(String.class, Number.class);
+            var newOrder = order.getConstructor(long.class, String.class, double.class, boolean.class, String.class, line);
+
+            // requestId is ignored at build time, customer at runtime; quantity 2 vs 2L is numerically equivalent.
+            Object stable = newOrder.newInstance(1L, "alice", 10.5, true, "r-1", newLine.newInstance("A", 2));
+            Object mirror = newOrder.newInstance(1L, "bob", 10.5, true, "r-2", newLine.newInstance("A", 2L));
+            Object different = newOrder.newInstance(1L, "alice", 11.0, true, "r-1", newLine.newInstance("B", 2));
+
+            for (boolean fingerprintPreCheck : new boolean[]{true, false}) {
+                DeepObjectComparator comparator = DeepObjectComparator.builder()
+                        .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                        .withFingerprintPreCheck(fingerprintPreCheck)
+                        .ignoreFields("customer")
+                        .build();
+
+                assertTrue(comparator.areEqual(stable, mirror));
+                assertTrue(comparator.compare(stable, mirror).equal());
+                if (fingerprintPreCheck) {
+                    assertEquals(comparator.fingerprint(stable), comparator.fingerprint(mirror));
+                    assertNotEquals(comparator.fingerprint(stable), comparator.fingerprint(different));
+                }
+
+                ComparisonResult result = comparator.compare(stable, different);
+                assertFalse(result.equal());
+                assertEquals(List.of("total", "line.sku"),
+                        result.differences().stream().map(ComparisonResult.Difference::path).toList());
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectPrivateFieldWithoutGetter() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("""
+                package shop;
+
+                @com.microswitch.domain.comparator.ShadowComparable
+                public class Secret {
+                    private String value;
+                }
+                """);
+
+        List<String> errors = errors(diagnostics);
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("Field 'value' is not accessible"), errors.get(0));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String... sources) throws IOException {
+        Path sourceDir = Files.createDirectories(workDir.resolve("src"));
+        Path generatedDir = Files.createDirectories(workDir.resolve("generated"));
+        Path classesDir = Files.createDirectories(workDir.resolve("classes"));
+        List<Path> files = new ArrayList<>();
+        for (String source : sources) {
+            String name = source.substring(source.indexOf("public ") + 7).split("[ {]")[1];
+            Path file = sourceDir.resolve(name + ".java");
+            Files.writeString(file, source);
+            files.add(file);
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path"),
+                            "-d", classesDir.toString(), "-s", generatedDir.toString()),
+                    null, fileManager.getJavaFileObjectsFromPaths(files));
+            task.setProcessors(List.of(new ShadowComparableProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+
+    private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .toList();
+    }
+}
@@ -71,6 +71,18 @@ public class MicroswitchAutoConfiguration {
         return new MicroswitchDeploymentStrategyExecutor(properties, deploymentMetrics);
     }
 
+    /**
+     * Drains shadow mirrors and comparisons on context shutdown.
+     *
+     * @param strategyExecutor the deployment strategy executor holding the shadow strategy
+     * @return lifecycle bean stopping the shadow executors
+     */
+    @Bean
+    @ConditionalOnMissingBean(ShadowLifecycle.class)
+    public ShadowLifecycle shadowLifecycle(DeploymentStrategyExecutor strategyExecutor) {
+        return new ShadowLifecycle(strategyExecutor);
+    }
+
     /**
      * Creates the DeploymentManager bean if none exists.
      *
@@ -117,12 +129,14 @@ public class MicroswitchAutoConfiguration {
          * Creates the microswitch actuator endpoint bean.
          *
          * @param properties the microswitch configuration properties
+         * @param strategyExecutor the deployment strategy executor (optional), source of shadow mismatch history
          * @return configured microswitch endpoint
          */
         @Bean
         @ConditionalOnMissingBean(Endpoint.class)
-        public Endpoint microswitchEndpoint(InitializerConfiguration properties) {
-            return new Endpoint(properties);
+        public Endpoint microswitchEndpoint(InitializerConfiguration properties,
+                                            @Autowired(required = false) DeploymentStrategyExecutor strategyExecutor) {
+            return new Endpoint(properties, strategyExecutor);
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.microswitch.application.config;
+
+import com.microswitch.application.executor.DeploymentStrategyExecutor;
+import com.microswitch.domain.strategy.Shadow;
+import com.microswitch.domain.value.StrategyType;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Drains the shadow strategy's mirrors and comparisons when the application context stops.
+ *
+ * <p>Runs in a phase below the web server's graceful shutdown, so requests still in flight can finish
+ * their mirrors before the shadow executors stop accepting work.
+ *
+ * @since 1.5
+ */
+public class ShadowLifecycle implements SmartLifecycle {
+
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final DeploymentStrategyExecutor strategyExecutor;
+    private volatile boolean running;
+
+    public ShadowLifecycle(DeploymentStrategyExecutor strategyExecutor) {
+        this.strategyExecutor = strategyExecutor;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        strategyExecutor.getStrategy(StrategyType.SHADOW)
+                .filter(Shadow.class::isInstance)
+                .ifPresent(strategy -> ((Shadow) strategy).shutdown());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,54 @@
+package com.microswitch.application.executor;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Strategy interface for different deployment patterns.
+ *
+ * <p>Implementations provide specific deployment strategies such as:
+ * <ul>
+ *   <li>Canary deployment - gradual traffic shifting</li>
+ *   <li>Shadow deployment - parallel execution with comparison</li>
+ *   <li>Blue/Green deployment - complete environment switching</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+public interface DeploymentStrategy {
+
+    /**
+     * Executes the deployment strategy with two function suppliers.
+     *
+     * @param <R>        the return type of both functions
+     * @param primary    the primary/stable function supplier
+     * @param secondary  the secondary/experimental function supplier
+     * @param serviceKey the unique identifier for the service configuration
+     * @return the result from the selected function execution
+     * @throws IllegalArgumentException if serviceKey is null or empty
+     */
+    <R> R execute(Supplier<R> primary, Supplier<R> secondary, String serviceKey);
+
+    /**
+     * Executes the deployment strategy with two functions applied to the same input.
+     *
+     * <p>The default binds the input and delegates to {@link #execute(Supplier, Supplier, String)}.
+     * Strategies that need the input itself, such as shadow traffic capture, override it.
+     *
+     * @param <T>        the input type of both functions
+     * @param <R>        the return type of both functions
+     * @param primary    the primary/stable function
+     * @param secondary  the secondary/experimental function
+     * @param input      the input passed to the executed function(s)
+     * @param serviceKey the unique identifier for the service configuration
+     * @return the result from the selected function execution
+     * @throws IllegalArgumentException if serviceKey is null or empty
+     * @since 1.5
+     */
+    default <T, R> R execute(Function<T, R> primary, Function<T, R> secondary, T input, String serviceKey) {
+        return execute(
+                primary != null ? () -> primary.apply(input) : null,
+                secondary != null ? () -> secondary.apply(input) : null,
+                serviceKey);
+    }
+}
@@ -9,6 +9,7 @@ import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -29,6 +30,7 @@ public class DeploymentStrategyExecutor {
     private static final String EXPERIMENTAL = "experimental";
 
     private final Map<StrategyType, DeploymentStrategy> strategies = new EnumMap<>(StrategyType.class);
+    private final Map<StrategyType, ExecutionOutcomeListener> outcomeListeners = new EnumMap<>(StrategyType.class);
     private final DeploymentMetrics deploymentMetrics; // may be null if no MeterRegistry
     private final InitializerConfiguration properties;
 
@@ -50,34 +52,47 @@ public class DeploymentStrategyExecutor {
     }
 
     /**
-     * Register a strategy implementation for a type.
+     * Register a strategy implementation for a type. Strategies that also implement
+     * {@link ExecutionOutcomeListener} are notified about every wrapped supplier outcome.
      */
     protected void addStrategy(StrategyType type, DeploymentStrategy strategy) {
         strategies.put(Objects.requireNonNull(type, "type must not be null"),
                 Objects.requireNonNull(strategy, "strategy must not be null"));
+        if (strategy instanceof ExecutionOutcomeListener listener) {
+            outcomeListeners.put(type, listener);
+        } else {
+            outcomeListeners.remove(type);
+        }
+    }
+
+    /**
+     * The strategy registered for the given type, if any.
+     */
+    public Optional<DeploymentStrategy> getStrategy(StrategyType type) {
+        return Optional.ofNullable(strategies.get(type));
     }
 
     public <R> R executeCanary(Supplier<R> primary, Supplier<R> secondary, String serviceKey) {
         return getRequiredStrategy(StrategyType.CANARY)
                 .execute(
-                        wrap(primary, serviceKey, STABLE, StrategyType.CANARY.getValue()),
-                        wrap(secondary, serviceKey, EXPERIMENTAL, StrategyType.CANARY.getValue()),
+                        wrap(primary, serviceKey, STABLE, StrategyType.CANARY),
+                        wrap(secondary, serviceKey, EXPERIMENTAL, StrategyType.CANARY),
                         serviceKey);
     }
 
     public <R> R executeShadow(Supplier<R> primary, Supplier<R> secondary, String serviceKey) {
         return getRequiredStrategy(StrategyType.SHADOW)
                 .execute(
-                        wrap(primary, serviceKey, STABLE, StrategyType.SHADOW.getValue()),
-                        wrap(secondary, serviceKey, EXPERIMENTAL, StrategyType.SHADOW.getValue()),
+                        wrap(primary, serviceKey, STABLE, StrategyType.SHADOW),
+                        wrap(secondary, serviceKey, EXPERIMENTAL, StrategyType.SHADOW),
                         serviceKey);
     }
 
     public <R> R executeBlueGreen(Supplier<R> primary, Supplier<R> secondary, String serviceKey) {
         return getRequiredStrategy(StrategyType.BLUE_GREEN)
                 .execute(
-                        wrap(primary, serviceKey, STABLE, StrategyType.BLUE_GREEN.getValue()),
-                        wrap(secondary, serviceKey, EXPERIMENTAL, StrategyType.BLUE_GREEN.getValue()),
+                        wrap(primary, serviceKey, STABLE, StrategyType.BLUE_GREEN),
+                        wrap(secondary, serviceKey, EXPERIMENTAL, StrategyType.BLUE_GREEN),
                         serviceKey);
     }
 
@@ -104,6 +119,35 @@ public class DeploymentStrategyExecutor {
         return executeStrategyByType(strategyType, primary, secondary, serviceKey);
     }
 
+    /**
+     * Function-style variant of {@link #executeByActiveStrategy(Supplier, Supplier, String)}: both functions
+     * receive the same input, which lets strategies such as shadow capture record it.
+     *
+     * @param primary the stable/primary function
+     * @param secondary the experimental/secondary function
+     * @param input the input passed to the executed function(s)
+     * @param serviceKey the unique identifier for service configuration
+     * @return the result from the selected strategy execution
+     * @throws IllegalArgumentException if serviceKey is null, empty, or activeStrategy is not configured
+     * @throws IllegalStateException if the strategy is not registered
+     * @since 1.5
+     */
+    public <T, R> R executeByActiveStrategy(Function<T, R> primary, Function<T, R> secondary, T input, String serviceKey) {
+        validateServiceKey(serviceKey);
+
+        StrategyType strategyType = resolveActiveStrategy(serviceKey);
+        if (!isStrategyApplicable(strategyType, serviceKey)) {
+            return primary.apply(input);
+        }
+
+        return getRequiredStrategy(strategyType)
+                .execute(
+                        wrap(primary, serviceKey, STABLE, strategyType),
+                        wrap(secondary, serviceKey, EXPERIMENTAL, strategyType),
+                        input,
+                        serviceKey);
+    }
+
     /**
      * Validates the service key parameter.
      * 
@@ -156,23 +200,10 @@ public class DeploymentStrategyExecutor {
      */
     private <R> R executeStrategyByType(StrategyType strategyType, Supplier<R> primary, 
                                        Supplier<R> secondary, String serviceKey) {
-        if (!properties.isEnabled()) {
-            log.info("[MICROSWITCH-DISABLED] Microswitch is disabled globally, returning primary instance for service: '{}'", serviceKey);
+        if (!isStrategyApplicable(strategyType, serviceKey)) {
             return primary.get();
         }
         
-        if (!isServiceEnabled(serviceKey)) {
-            log.info("[MICROSWITCH-DISABLED] Service '{}' is disabled, returning primary instance", serviceKey);
-            return primary.get();
-        }
-        
-        if (isExecutionLoggingEnabled()) {
-            log.info("[MICROSWITCH-EXEC] Starting execution - Service: '{}', Strategy: '{}'", 
-                    serviceKey, strategyType.getValue());
-        } else {
-            log.debug("Executing {} strategy for service: {}", strategyType.getValue(), serviceKey);
-        }
-        
         return switch (strategyType) {
             case CANARY -> {
                 log.trace("Delegating to canary strategy execution for service: {}", serviceKey);
@@ -189,6 +220,30 @@ public class DeploymentStrategyExecutor {
         };
     }
     
+    /**
+     * Whether the strategy should run for the service. Returns false, after logging why, when the library
+     * or the service is disabled and the primary implementation must be used directly.
+     */
+    private boolean isStrategyApplicable(StrategyType strategyType, String serviceKey) {
+        if (!properties.isEnabled()) {
+            log.info("[MICROSWITCH-DISABLED] Microswitch is disabled globally, returning primary instance for service: '{}'", serviceKey);
+            return false;
+        }
+        
+        if (!isServiceEnabled(serviceKey)) {
+            log.info("[MICROSWITCH-DISABLED] Service '{}' is disabled, returning primary instance", serviceKey);
+            return false;
+        }
+        
+        if (isExecutionLoggingEnabled()) {
+            log.info("[MICROSWITCH-EXEC] Starting execution - Service: '{}', Strategy: '{}'", 
+                    serviceKey, strategyType.getValue());
+        } else {
+            log.debug("Executing {} strategy for service: {}", strategyType.getValue(), serviceKey);
+        }
+        return true;
+    }
+
     /**
      * Retrieves the active strategy configuration value for the given service key.
      *
@@ -257,11 +312,13 @@ public class DeploymentStrategyExecutor {
 
     /**
      * Decorate a supplier to record success/error metrics with tags when invoked.
-     * If deploymentMetrics is null (no MeterRegistry), returns the original supplier.
-     * Also provides detailed execution logging when enabled.
+     * If deploymentMetrics is null (no MeterRegistry) and the strategy does not listen to outcomes,
+     * returns the original supplier. Also provides detailed execution logging when enabled.
      */
-    private <R> Supplier<R> wrap(Supplier<R> original, String serviceKey, String version, String strategy) {
-        if (deploymentMetrics == null || original == null) {
+    private <R> Supplier<R> wrap(Supplier<R> original, String serviceKey, String version, StrategyType strategyType) {
+        String strategy = strategyType.getValue();
+        ExecutionOutcomeListener outcomeListener = outcomeListeners.get(strategyType);
+        if ((deploymentMetrics == null && outcomeListener == null) || original == null) {
             // If no metrics, but logging is enabled, still wrap for logging
             if (isExecutionLoggingEnabled() && original != null) {
                 return () -> {
@@ -275,21 +332,29 @@ public class DeploymentStrategyExecutor {
             }
             return original;
         }
+        boolean experimental = EXPERIMENTAL.equals(version);
         return () -> {
+            long startedAtNanos = System.nanoTime();
             try {
                 if (isExecutionLoggingEnabled()) {
                     log.info("[MICROSWITCH-EXEC] Executing - Service: '{}', Strategy: '{}', Method: '{}'",
                             serviceKey, strategy, version);
                 }
                 R result = original.get();
-                deploymentMetrics.recordSuccess(serviceKey, version, strategy);
+                if (deploymentMetrics != null) {
+                    deploymentMetrics.recordSuccess(serviceKey, version, strategy);
+                }
+                notifyOutcome(outcomeListener, serviceKey, experimental, true, startedAtNanos);
                 if (isExecutionLoggingEnabled()) {
                     log.info("[MICROSWITCH-EXEC] Completed - Service: '{}', Strategy: '{}', Method: '{}' (Success)",
                             serviceKey, strategy, version);
                 }
                 return result;
             } catch (RuntimeException e) {
-                deploymentMetrics.recordError(serviceKey, version, strategy);
+                if (deploymentMetrics != null) {
+                    deploymentMetrics.recordError(serviceKey, version, strategy);
+                }
+                notifyOutcome(outcomeListener, serviceKey, experimental, false, startedAtNanos);
                 if (isExecutionLoggingEnabled()) {
                     log.error("[MICROSWITCH-EXEC] Failed - Service: '{}', Strategy: '{}', Method: '{}' - Error: {}",
                             serviceKey, strategy, version, e.getMessage());
@@ -298,4 +363,31 @@ public class DeploymentStrategyExecutor {
             }
         };
     }
+
+    /**
+     * Function counterpart of {@link #wrap(Supplier, String, String, StrategyType)}: each application is
+     * recorded exactly like a supplier invocation.
+     */
+    private <T, R> Function<T, R> wrap(Function<T, R> original, String serviceKey, String version, StrategyType strategyType) {
+        if (original == null) {
+            return null;
+        }
+        return input -> wrap(() -> original.apply(input), serviceKey, version, strategyType).get();
+    }
+
+    /**
+     * Forward a supplier outcome to the strategy listener, if any. Listener failures are logged and
+     * swallowed so they can never change the caller's result.
+     */
+    private void notifyOutcome(ExecutionOutcomeListener listener, String serviceKey, boolean experimental,
+                               boolean success, long startedAtNanos) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onOutcome(serviceKey, experimental, success, System.nanoTime() - startedAtNanos);
+        } catch (RuntimeException e) {
+            log.warn("[MICROSWITCH-EXEC] Outcome listener failed for service '{}': {}", serviceKey, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.microswitch.application.executor;
+
+/**
+ * Optional callback for strategies that react to the outcome of the suppliers they route to.
+ *
+ * <p>Strategies registered through {@link DeploymentStrategyExecutor} that also implement this
+ * interface are notified after every wrapped supplier invocation, on the thread that ran it.
+ * Implementations must be cheap and must not throw; the executor swallows listener failures so
+ * that the caller's result is never affected.
+ *
+ * @since 1.5
+ */
+public interface ExecutionOutcomeListener {
+
+    /**
+     * Called once per supplier invocation.
+     *
+     * @param serviceKey   the service configuration key the call belongs to
+     * @param experimental true for the secondary/experimental supplier, false for the primary/stable one
+     * @param success      false if the supplier threw a {@link RuntimeException}
+     * @param latencyNanos wall-clock duration of the supplier call in nanoseconds
+     */
+    void onOutcome(String serviceKey, boolean experimental, boolean success, long latencyNanos);
+}
@@ -30,7 +30,7 @@ public class MicroswitchDeploymentStrategyExecutor extends DeploymentStrategyExe
     protected void initializeStrategies(InitializerConfiguration properties, DeploymentMetrics deploymentMetrics) {
         // Register all available deployment strategies
         addStrategy(StrategyType.CANARY, new Canary(properties));
-        addStrategy(StrategyType.SHADOW, new Shadow(properties));
+        addStrategy(StrategyType.SHADOW, new Shadow(properties, deploymentMetrics));
         addStrategy(StrategyType.BLUE_GREEN, new BlueGreen(properties));
     }
 }
@@ -1,10 +1,15 @@
 package com.microswitch.application.metric;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 @Slf4j
 public class DeploymentMetrics {
@@ -12,6 +17,10 @@ public class DeploymentMetrics {
     private final MeterRegistry meterRegistry;
     private final ConcurrentHashMap<String, Counter> successCounters = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> shadowDroppedCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> shadowMismatchCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> shadowInconclusiveCounters = new ConcurrentHashMap<>();
+    private volatile Timer shadowComparisonLag;
 
     public DeploymentMetrics(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -43,6 +52,75 @@ public class DeploymentMetrics {
         log.debug("Error recorded for service: {}, version: {}, strategy: {}", serviceKey, version, strategy);
     }
 
+    /**
+     * Count a mirror that was dropped instead of executed, e.g. because a concurrency cap was reached.
+     */
+    public void recordShadowDropped(String serviceKey, String reason) {
+        Counter counter = shadowDroppedCounters.computeIfAbsent(serviceKey + ":" + reason, k ->
+            Counter.builder("microswitch.shadow.dropped")
+                .tag("service", serviceKey)
+                .tag("reason", reason)
+                .register(meterRegistry)
+        );
+        counter.increment();
+        log.debug("Shadow mirror dropped for service: {}, reason: {}", serviceKey, reason);
+    }
+
+    /**
+     * Count a shadow mismatch under its normalized path signature, e.g. {@code order.items[*].price}.
+     */
+    public void recordShadowMismatch(String serviceKey, String signature) {
+        Counter counter = shadowMismatchCounters.computeIfAbsent(serviceKey + ":" + signature, k ->
+            Counter.builder("microswitch.shadow.mismatch")
+                .tag("service", serviceKey)
+                .tag("signature", signature)
+                .register(meterRegistry)
+        );
+        counter.increment();
+    }
+
+    /**
+     * Count a shadow comparison that exhausted its budget ({@code TIME} or {@code NODES}) before finding a difference.
+     */
+    public void recordShadowInconclusive(String serviceKey, String budget) {
+        Counter counter = shadowInconclusiveCounters.computeIfAbsent(serviceKey + ":" + budget, k ->
+            Counter.builder("microswitch.shadow.comparison.inconclusive")
+                .tag("service", serviceKey)
+                .tag("budget", budget)
+                .register(meterRegistry)
+        );
+        counter.increment();
+    }
+
+    /**
+     * Expose the number of shadow comparisons waiting to be processed.
+     */
+    public void registerShadowComparisonQueue(Collection<?> queue) {
+        Gauge.builder("microswitch.shadow.comparison.queue.depth", queue, Collection::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record how long a shadow comparison waited in the queue before a worker picked it up.
+     */
+    public void recordShadowComparisonLag(long lagNanos) {
+        Timer timer = shadowComparisonLag;
+        if (timer == null) {
+            timer = Timer.builder("microswitch.shadow.comparison.lag").register(meterRegistry);
+            shadowComparisonLag = timer;
+        }
+        timer.record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Expose the mirror percentage a shadowed service is effectively running at.
+     */
+    public <T> void registerShadowMirrorRate(String serviceKey, T source, ToDoubleFunction<T> percentage) {
+        Gauge.builder("microswitch.shadow.mirror.rate", source, percentage)
+            .tag("service", serviceKey)
+            .register(meterRegistry);
+    }
+
     public double calculateAccuracyRate(String serviceKey, String strategy) {
         String stableKey = createMetricKey(serviceKey, "stable", strategy);
         String experimentalKey = createMetricKey(serviceKey, "experimental", strategy);
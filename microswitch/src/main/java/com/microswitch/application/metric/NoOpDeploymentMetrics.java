@@ -2,6 +2,9 @@ package com.microswitch.application.metric;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
+import java.util.function.ToDoubleFunction;
+
 /**
  * No-operation implementation of DeploymentMetrics.
  * Used when no MeterRegistry is available to prevent null pointer exceptions
@@ -30,6 +33,37 @@ public class NoOpDeploymentMetrics extends DeploymentMetrics {
                 serviceKey, version, strategy);
     }
 
+    @Override
+    public void recordShadowDropped(String serviceKey, String reason) {
+        // No-op: metrics recording disabled
+        log.trace("NoOp recordShadowDropped called for service: {}, reason: {}", serviceKey, reason);
+    }
+
+    @Override
+    public void recordShadowMismatch(String serviceKey, String signature) {
+        // No-op: metrics recording disabled
+    }
+
+    @Override
+    public void recordShadowInconclusive(String serviceKey, String budget) {
+        // No-op: metrics recording disabled
+    }
+
+    @Override
+    public void registerShadowComparisonQueue(Collection<?> queue) {
+        // No-op: metrics recording disabled
+    }
+
+    @Override
+    public void recordShadowComparisonLag(long lagNanos) {
+        // No-op: metrics recording disabled
+    }
+
+    @Override
+    public <T> void registerShadowMirrorRate(String serviceKey, T source, ToDoubleFunction<T> percentage) {
+        // No-op: metrics recording disabled
+    }
+
     @Override
     public double calculateAccuracyRate(String serviceKey, String strategy) {
         // No-op: return neutral value
@@ -0,0 +1,444 @@
+package com.microswitch.domain;
+
+import com.microswitch.domain.value.MethodType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.AccessLevel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "microswitch")
+@Getter
+@Setter
+public class InitializerConfiguration {
+
+    private Boolean enabled = true;
+    private String logger = "disable"; // Default: disable execution logging
+    private Map<String, DeployableServices> services = new HashMap<>();
+    // Process-wide shadow settings shared by all services under 'microswitch.shadow.*'
+    private ShadowLimits shadow = new ShadowLimits();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setShadow(ShadowLimits shadow) {
+        this.shadow = shadow != null ? shadow : new ShadowLimits();
+    }
+
+    /**
+     * Limits applied across every shadowed service of this application.
+     */
+    @Getter
+    @Setter
+    public static class ShadowLimits {
+        /** Maximum number of mirrors in flight across all services. 0 disables the global cap. */
+        private Integer maxConcurrentMirrors = 0;
+        /** Upper bound in milliseconds for draining mirrors and queued comparisons when the application stops. */
+        private Long shutdownTimeoutMillis = 5_000L;
+        // Off-request-thread comparison queue under 'microswitch.shadow.comparison.*'
+        private ComparisonQueue comparison = new ComparisonQueue();
+
+        public void setComparison(ComparisonQueue comparison) {
+            this.comparison = comparison != null ? comparison : new ComparisonQueue();
+        }
+
+        /**
+         * Bounded queue and worker pool that run shadow comparisons away from the request thread.
+         */
+        @Getter
+        @Setter
+        public static class ComparisonQueue {
+            /** Maximum number of comparisons waiting for a worker. */
+            private Integer queueCapacity = 1024;
+            /** Number of dedicated comparison worker threads. */
+            private Integer workers = 1;
+            /** Maximum number of comparisons a worker takes from the queue at once. */
+            private Integer batchSize = 32;
+            /** What to discard when the queue is full: "dropNewest" (default) or "dropOldest". */
+            private String overflow = "dropNewest";
+            /** Priority (1-10) of the comparison worker threads; lower it to keep CPU-heavy diffs behind request work. */
+            private Integer priority = Thread.NORM_PRIORITY;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class DeployableServices {
+        private Boolean enabled = true;
+        private String activeStrategy = "canary";
+        private Canary canary = new Canary();
+        private BlueGreen blueGreen = new BlueGreen();
+        private Shadow shadow = new Shadow();
+
+        public Boolean isEnabled() {
+            return enabled;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Canary {
+        private String percentage = "1/99";
+        private String algorithm = "sequential";
+    }
+
+    @Getter
+    @Setter
+    public static class BlueGreen {
+        private String weight = "1/0";
+        // Use wrapper to allow null during binding when value is empty string
+        private Integer ttl = 0;
+        // Automatic failback to blue when green breaches error/latency thresholds under 'blueGreen.failback.*'
+        private Failback failback = new Failback();
+
+        public void setFailback(Failback failback) {
+            this.failback = failback != null ? failback : new Failback();
+        }
+
+        // Support numeric binding via wrapper to allow null (empty string maps to null safely)
+        public void setTtl(Long ttl) {
+            if (ttl == null) {
+                return; // keep current/default value when source is empty string
+            }
+            this.ttl = ttl.intValue();
+        }
+
+        // Gracefully handle empty string values from configuration sources
+        public void setTtl(String ttl) {
+            if (ttl == null || ttl.isBlank()) {
+                // keep current/default value
+                return;
+            }
+            try {
+                this.ttl = Integer.parseInt(ttl.trim());
+            } catch (NumberFormatException ignored) {
+                // leave as-is if unparsable; Spring will surface validation elsewhere if needed
+            }
+        }
+
+        /**
+         * Thresholds watched over a sliding window of green (experimental) outcomes. When breached,
+         * traffic is flipped back to blue for the cooldown period.
+         */
+        @Getter
+        @Setter
+        public static class Failback {
+            /** When true, green errors and latency are tracked and may trigger an automatic failback. */
+            private Boolean enabled = false;
+            /** Length of the sliding window in seconds. */
+            private Integer windowSeconds = 10;
+            /** Minimum number of green calls inside the window before thresholds are evaluated. */
+            private Integer minRequests = 20;
+            /** Error rate in percent (0-100) at or above which green is considered failing. */
+            private Integer errorRateThreshold = 50;
+            /** Average green latency in milliseconds at or above which green is considered failing. 0 disables the check. */
+            private Long latencyThresholdMillis = 0L;
+            /** Seconds to stay on blue after a failback before green is re-admitted with a fresh window. */
+            private Long cooldownSeconds = 60L;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Shadow {
+        /** Share of calls to mirror, in percent (0-100). Fractions such as 0.5 or 12.5 are honored exactly. */
+        private Double percentage = 20.0;
+        private MethodType stable = MethodType.PRIMARY;
+        private MethodType mirror = MethodType.SECONDARY;
+        /**
+         * Mirror execution mode: "blocking" waits for the mirror before returning the stable result,
+         * "async" returns the stable result immediately and finishes mirror and comparison in the background,
+         * "capture" runs only the stable function and records sampled inputs and outputs for offline replay.
+         */
+        private String mode = "blocking";
+        /** Deadline for a single mirror call in milliseconds. On expiry the mirror is cancelled and interrupted. */
+        private Long mirrorTimeoutMillis = 30_000L;
+        /**
+         * Maximum number of mirrors of this service in flight at once. Mirrors beyond the cap are dropped,
+         * never queued, and the stable call proceeds as usual. 0 disables the cap.
+         */
+        private Integer maxConcurrentMirrors = 100;
+        /**
+         * Upper bound on mirrors of this service per second, applied to the calls {@code percentage} selects.
+         * Set {@code percentage} to 100 to mirror at this rate alone. 0 disables the bound.
+         */
+        private Double maxMirrorsPerSecond = 0.0;
+        /**
+         * Mirrors {@code maxMirrorsPerSecond} lets through at once, so calls that pass {@code percentage} in
+         * clumps are not dropped while their average rate is below the bound. At least 1.
+         */
+        private Integer maxMirrorsBurst = 1;
+        // Load-adaptive mirror rate under 'shadow.adaptive.*'
+        private Adaptive adaptive = new Adaptive();
+        // Traffic capture log used by mode "capture" under 'shadow.capture.*'
+        private Capture capture = new Capture();
+        // Threads this service's mirrors run on under 'shadow.executor.*'
+        private Executor executor = new Executor();
+        // Legacy simple toggle kept for backward compatibility. Prefer using nested 'comparator.mode'.
+        @Deprecated
+        private String comparatorMode = "disable"; // Default: disable deep comparison
+
+        // New comparator configuration object under 'shadow.comparator.*'
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        private Comparator comparator = new Comparator();
+
+        public void setPercentage(Double percentage) {
+            this.percentage = percentage != null ? percentage : 20.0;
+        }
+
+        // Legacy methods for backward compatibility with Shadow strategy (whole percentages only)
+        public Integer getMirrorPercentage() {
+            return percentage != null ? (int) Math.round(percentage) : null;
+        }
+
+        public void setMirrorPercentage(Integer mirrorPercentage) {
+            this.percentage = mirrorPercentage != null ? mirrorPercentage.doubleValue() : 20.0;
+        }
+
+        public void setMirrorPercentage(short mirrorPercentage) {
+            this.percentage = (double) mirrorPercentage;
+        }
+
+        public void setMirrorPercentage(Short mirrorPercentage) {
+            this.percentage = mirrorPercentage != null ? mirrorPercentage.doubleValue() : 20.0;
+        }
+
+        public void setAdaptive(Adaptive adaptive) {
+            this.adaptive = adaptive != null ? adaptive : new Adaptive();
+        }
+
+        public void setCapture(Capture capture) {
+            this.capture = capture != null ? capture : new Capture();
+        }
+
+        public void setExecutor(Executor executor) {
+            this.executor = executor != null ? executor : new Executor();
+        }
+
+        public void setStable(MethodType stable) {
+            this.stable = stable != null ? stable : MethodType.PRIMARY;
+        }
+
+        public void setMirror(MethodType mirror) {
+            this.mirror = mirror != null ? mirror : MethodType.SECONDARY;
+        }
+
+        // --- Compatibility and new configuration accessors ---
+
+        /**
+         * Backward compatible getter for the comparator mode string.
+         */
+        public String getComparatorMode() {
+            return (this.comparator != null ? this.comparator.getMode() : this.comparatorMode);
+        }
+
+        /**
+         * Backward compatible setter. Maps legacy string to new comparator.mode as well.
+         */
+        public void setComparator(String mode) {
+            this.comparatorMode = (mode != null ? mode : "disable");
+            if (this.comparator == null) {
+                this.comparator = new Comparator();
+            }
+            this.comparator.setMode(this.comparatorMode);
+        }
+
+        /**
+         * Getter for the comparator configuration object (enables Spring binding at 'shadow.comparator.*').
+         */
+        public Comparator getComparator() {
+            return this.comparator;
+        }
+
+        /**
+         * New-style setter for the comparator configuration object (for Spring binding at 'shadow.comparator.*').
+         * Also keeps legacy comparatorMode in sync for compatibility with older consumers.
+         */
+        public void setComparator(Comparator comparator) {
+            this.comparator = (comparator != null ? comparator : new Comparator());
+            this.comparatorMode = this.comparator.getMode();
+        }
+
+        /**
+         * Scales the mirror rate down while the stable variant is slow or the process CPU is busy and back
+         * up to {@code percentage} when headroom returns.
+         */
+        @Getter
+        @Setter
+        public static class Adaptive {
+            /** When true, the effective mirror rate adapts to stable latency and process CPU load. */
+            private Boolean enabled = false;
+            /** Lowest mirror percentage the rate may be reduced to. */
+            private Double minPercentage = 0.0;
+            /** Average stable latency in milliseconds at or above which the rate is reduced. 0 disables the check. */
+            private Long latencyThresholdMillis = 0L;
+            /** Process CPU load in percent (0-100) at or above which the rate is reduced. 0 disables the check. */
+            private Double cpuThresholdPercent = 0.0;
+            /** Factor applied to the rate on each overloaded evaluation, in (0, 1). */
+            private Double decreaseFactor = 0.5;
+            /** Percentage points added to the rate on each evaluation with headroom. */
+            private Double increaseStep = 5.0;
+            /** How often the rate is re-evaluated, also the length of the stable latency window. */
+            private Long evaluationIntervalMillis = 1_000L;
+        }
+
+        /**
+         * The service's own mirror executor, isolated from every other service so a slow mirror cannot starve them.
+         */
+        @Getter
+        @Setter
+        public static class Executor {
+            /** "virtual" (default) runs each mirror on a new virtual thread, "platform" on a bounded pool. */
+            private String type = "virtual";
+            /** Number of platform threads; only used by type "platform". */
+            private Integer poolSize = 4;
+            /** Mirrors waiting for a platform thread; beyond it mirrors are dropped. Only used by type "platform". */
+            private Integer queueCapacity = 64;
+            /** Priority (1-10) of the platform threads; only used by type "platform". */
+            private Integer priority = Thread.NORM_PRIORITY;
+        }
+
+        /**
+         * Where and how much captured traffic is kept. Each service writes to its own sub-directory.
+         */
+        @Getter
+        @Setter
+        public static class Capture {
+            /** Root directory of the capture logs; the service key is appended as a sub-directory. */
+            private String directory = System.getProperty("java.io.tmpdir") + "/microswitch-capture";
+            /** Size of one memory-mapped segment file in bytes. */
+            private Long segmentSizeBytes = 64L * 1024 * 1024;
+            /** Upper bound for all segments of the service; the oldest segments are deleted beyond it. */
+            private Long maxTotalBytes = 1024L * 1024 * 1024;
+
+            public void setDirectory(String directory) {
+                if (directory != null && !directory.isBlank()) {
+                    this.directory = directory;
+                }
+            }
+        }
+
+        @Getter
+        @Setter
+        public static class Comparator {
+            /**
+             * enable/disable deep comparison. Values: "enable" or "disable" (case-insensitive).
+             */
+            private String mode = "disable";
+            /**
+             * Time budget in milliseconds for a comparison run. Exceeding it should short-circuit.
+             */
+            private Long maxCompareTimeMillis = 200L;
+            /**
+             * Deterministic budget in visited nodes (objects, collections and their elements) for a comparison run,
+             * independent of GC pauses and scheduling. 0 disables.
+             */
+            private Long maxNodesVisited = 0L;
+            /**
+             * Sampling configuration for very large collections. New nested structure.
+             * Backward compatibility: legacy flat fields are still accepted via delegating setters.
+             */
+            private SamplingOnHuge samplingOnHuge = new SamplingOnHuge();
+            /**
+             * Exhaustive parallel comparison of very large lists and arrays; takes precedence over sampling.
+             */
+            private ParallelOnHuge parallelOnHuge = new ParallelOnHuge();
+            /**
+             * Maximum number of reflected fields per class to consider during deep comparison.
+             * Prevents excessive work on pathological or generated classes.
+             */
+            private Integer maxFieldsPerClass = 100; // Hard max enforced
+            /**
+             * Field names skipped during deep comparison of this service's results.
+             */
+            private List<String> ignoreFields = new ArrayList<>(List.of("timestamp", "requestId", "traceId"));
+            /**
+             * Fingerprint both results in a single pass first and only run the full diff when the fingerprints differ.
+             */
+            private Boolean fingerprint = true;
+            /**
+             * Compare lists as multisets, for results whose order carries no meaning.
+             */
+            private Boolean unorderedLists = false;
+            /**
+             * Number of differing paths reported per mismatch.
+             */
+            private Integer maxReportedDifferences = 10;
+            /**
+             * Number of recent mismatches kept in memory per service for the actuator view. 0 disables the history.
+             */
+            private Integer mismatchHistorySize = 20;
+            /**
+             * Serve the stable and mirror values of recorded mismatches at the actuator endpoint. Off by default,
+             * since they are production data: only the signatures of the differing paths are served and the
+             * values are replaced by {@code <masked>}.
+             */
+            private Boolean exposeValues = false;
+            /**
+             * Distinct mismatch path signatures counted per service; further ones are counted as {@code <other>}.
+             */
+            private Integer maxMismatchSignatures = 100;
+            /**
+             * Minimum interval in milliseconds between two logged mismatch samples of a service. 0 logs every mismatch.
+             */
+            private Long mismatchLogIntervalMillis = 10_000L;
+
+            public void setIgnoreFields(List<String> ignoreFields) {
+                this.ignoreFields = ignoreFields != null ? ignoreFields : new ArrayList<>();
+            }
+
+            // Enforce absolute upper bound of 100 regardless of provided value
+            public void setMaxFieldsPerClass(int maxFieldsPerClass) {
+                var sanitized = Math.max(1, maxFieldsPerClass);
+                this.maxFieldsPerClass = Math.min(100, sanitized);
+            }
+
+            /**
+             * Nested config holding sampling toggles and parameters for huge collections.
+             */
+            @Getter
+            @Setter
+            public static class SamplingOnHuge {
+                /** When true and threshold exceeded, comparator switches to sampling instead of full scan. */
+                private Boolean enable = false;
+                /**
+                 * Upper threshold to switch from full element-wise comparison to sampling.
+                 */
+                private Integer maxCollectionElements = 1000;
+                /**
+                 * Ignored: sampling draws stratified random positions sized by confidence and differenceRate.
+                 *
+                 * @deprecated kept so existing configuration still binds
+                 */
+                @Deprecated(since = "1.5.0")
+                private Integer stride = 10;
+                /** Probability of sampling at least one differing element of a huge collection. */
+                private Double confidence = 0.99;
+                /** Smallest fraction of differing elements to be detected with that confidence. */
+                private Double differenceRate = 0.001;
+                /** Fixed sampling seed, to replay a reported mismatch; a new seed per comparison when unset. */
+                private Long seed;
+            }
+
+            /**
+             * Nested config for comparing huge lists and arrays in chunks on a shared fork/join pool.
+             */
+            @Getter
+            @Setter
+            public static class ParallelOnHuge {
+                /** When true, lists and arrays of at least minElements are compared in full, in parallel. */
+                private Boolean enable = false;
+                /** Size from which a list or array is compared in parallel. */
+                private Integer minElements = 10_000;
+                /** Elements compared by one fork/join task. */
+                private Integer chunkSize = 2048;
+            }
+        }
+    }
+}
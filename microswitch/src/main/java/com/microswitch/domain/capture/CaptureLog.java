@@ -0,0 +1,334 @@
+package com.microswitch.domain.capture;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of captured shadow traffic for one service, kept in memory-mapped segment files.
+ * <p>
+ * Each segment is a pre-sized file {@code segment-<sequence>.log} mapped read-write. Records are laid out as
+ * {@code [int length][long capturedAtMillis][int inputLength][input JSON][output JSON]}; the length is written
+ * last, so a record only becomes visible once its body is complete and a zero length marks the end of a
+ * segment. Serialization happens outside the append lock, so concurrent callers only serialize on the buffer
+ * copy.
+ * <p>
+ * The next segment is created and mapped ahead of time by a background thread of the log. When a record does
+ * not fit, the appending caller only swaps in that spare buffer; flushing and closing the full segment, deleting
+ * the oldest segments once they exceed {@code maxTotalBytes} and mapping the following spare all happen on the
+ * background thread. The spare is empty until it is swapped in and does not count against the cap. Only when no
+ * spare is ready yet, e.g. for the very first record, does the caller map a segment itself.
+ */
+@Slf4j
+public final class CaptureLog implements AutoCloseable {
+
+    static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long CLOSE_TIMEOUT_SECONDS = 30L;
+
+    /**
+     * One captured call as stored in the log.
+     *
+     * @param capturedAtMillis wall-clock time of the capture
+     * @param input            the JSON-serialized input
+     * @param output           the JSON-serialized stable output
+     */
+    record CapturedRecord(long capturedAtMillis, byte[] input, byte[] output) {
+    }
+
+    /**
+     * A mapped segment file.
+     */
+    private record Segment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final long maxTotalBytes;
+    private final ThreadPoolExecutor maintenance;
+    // Segments holding records, oldest first, including the active one
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private long nextSequence;
+    private Segment active;
+    private Segment spare;
+    private boolean closed;
+
+    public CaptureLog(Path directory, long segmentSizeBytes, long maxTotalBytes) {
+        if (segmentSizeBytes <= HEADER_BYTES || segmentSizeBytes > Integer.MAX_VALUE) {
+            log.error("[MICROSWITCH-EXCEPTION] - Invalid capture segment size: {} bytes", segmentSizeBytes);
+            throw new IllegalArgumentException("Capture segment size must be between " + (HEADER_BYTES + 1)
+                    + " and " + Integer.MAX_VALUE + " bytes, got: " + segmentSizeBytes);
+        }
+        if (maxTotalBytes < segmentSizeBytes) {
+            log.error("[MICROSWITCH-EXCEPTION] - Invalid capture size cap: {} bytes, smaller than one segment", maxTotalBytes);
+            throw new IllegalArgumentException("Capture size cap must hold at least one segment, got: " + maxTotalBytes);
+        }
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        try {
+            Files.createDirectories(directory);
+            // Earlier runs' segments count against the cap and are never appended to again.
+            for (Path existing : listSegments(directory)) {
+                segments.addLast(existing);
+                nextSequence = Math.max(nextSequence, sequenceOf(existing) + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open capture directory " + directory, e);
+        }
+        this.maintenance = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("shadow-capture-", 0).daemon(true).factory());
+        this.maintenance.allowCoreThreadTimeOut(true);
+        maintenance.execute(this::prepareSpare);
+    }
+
+    /**
+     * Serialize and append one call. Returns false when the record was not written, e.g. because it is
+     * larger than a segment or the log is closed.
+     */
+    public boolean append(Object input, Object output) throws JsonProcessingException {
+        byte[] inputBytes = MAPPER.writeValueAsBytes(input);
+        byte[] outputBytes = MAPPER.writeValueAsBytes(output);
+        int length = HEADER_BYTES + inputBytes.length + outputBytes.length;
+        if (length > segmentSizeBytes) {
+            log.warn("[MICROSWITCH-SHADOW] - Captured call of {} bytes exceeds the segment size of {} bytes, dropped",
+                    length, segmentSizeBytes);
+            return false;
+        }
+        long capturedAt = System.currentTimeMillis();
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (active == null || active.buffer().remaining() < length) {
+                rollSegment();
+            }
+            MappedByteBuffer buffer = active.buffer();
+            int start = buffer.position();
+            buffer.position(start + Integer.BYTES);
+            buffer.putLong(capturedAt);
+            buffer.putInt(inputBytes.length);
+            buffer.put(inputBytes);
+            buffer.put(outputBytes);
+            buffer.putInt(start, length);
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting records and flush the active segment to disk, waiting for the background thread to finish.
+     */
+    @Override
+    public void close() {
+        Segment last;
+        Segment unused;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = active;
+            unused = spare;
+            active = null;
+            spare = null;
+        }
+        maintenance.execute(() -> {
+            retire(last);
+            discard(unused);
+        });
+        maintenance.shutdown();
+        try {
+            if (!maintenance.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("[MICROSWITCH-SHADOW] - Capture log {} not flushed within {} seconds", directory, CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Swap in the next segment. Called with the append lock held; everything but the swap is handed to the
+     * background thread unless no spare has been mapped yet.
+     */
+    private void rollSegment() {
+        Segment full = active;
+        if (spare != null) {
+            active = spare;
+            spare = null;
+        } else {
+            active = mapSegment(nextSequence++);
+        }
+        segments.addLast(active.path());
+        maintenance.execute(() -> {
+            retire(full);
+            deleteBeyondCap();
+            prepareSpare();
+        });
+    }
+
+    /**
+     * Map the next segment as the spare, unless one is ready. Runs on the background thread.
+     */
+    private void prepareSpare() {
+        long sequence;
+        synchronized (this) {
+            if (closed || spare != null) {
+                return;
+            }
+            sequence = nextSequence++;
+        }
+        Segment prepared;
+        try {
+            prepared = mapSegment(sequence);
+        } catch (UncheckedIOException e) {
+            log.warn("[MICROSWITCH-SHADOW] - Failed to prepare capture segment in {}: {}", directory, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            // A caller mapped a later segment itself in the meantime: this one would be read back out of order.
+            boolean stale = active != null && active.sequence() > sequence;
+            if (!closed && !stale) {
+                spare = prepared;
+                return;
+            }
+        }
+        discard(prepared);
+        prepareSpare();
+    }
+
+    private void deleteBeyondCap() {
+        while (true) {
+            Path oldest;
+            synchronized (this) {
+                if (segments.size() <= 1 || segments.size() * segmentSizeBytes <= maxTotalBytes) {
+                    return;
+                }
+                oldest = segments.removeFirst();
+            }
+            try {
+                Files.deleteIfExists(oldest);
+                log.debug("[MICROSWITCH-SHADOW] - Capture size cap reached, deleted segment {}", oldest);
+            } catch (IOException e) {
+                log.warn("[MICROSWITCH-SHADOW] - Failed to delete capture segment {}: {}", oldest, e.getMessage());
+            }
+        }
+    }
+
+    private Segment mapSegment(long sequence) {
+        Path segment = directory.resolve(String.format("segment-%020d.log", sequence));
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(segment, sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes));
+        } catch (IOException e) {
+            if (channel != null) {
+                closeQuietly(channel, segment);
+            }
+            throw new UncheckedIOException("Failed to create capture segment " + segment, e);
+        }
+    }
+
+    /**
+     * Flush a full or last segment to disk and close it.
+     */
+    private void retire(Segment segment) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.buffer().force();
+        } catch (UncheckedIOException e) {
+            log.warn("[MICROSWITCH-SHADOW] - Failed to flush capture segment {}: {}", segment.path(), e.getMessage());
+        }
+        closeQuietly(segment.channel(), segment.path());
+    }
+
+    /**
+     * Close and delete a spare segment that never received a record.
+     */
+    private void discard(Segment segment) {
+        if (segment == null) {
+            return;
+        }
+        closeQuietly(segment.channel(), segment.path());
+        try {
+            Files.deleteIfExists(segment.path());
+        } catch (IOException e) {
+            log.warn("[MICROSWITCH-SHADOW] - Failed to delete unused capture segment {}: {}", segment.path(), e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel, Path segment) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("[MICROSWITCH-SHADOW] - Failed to close capture segment {}: {}", segment, e.getMessage());
+        }
+    }
+
+    /**
+     * Read every complete record of a capture directory, oldest segment first.
+     */
+    static void read(Path directory, Consumer<CapturedRecord> consumer) throws IOException {
+        for (Path segment : listSegments(directory)) {
+            try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer segmentBuffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                while (segmentBuffer.remaining() >= HEADER_BYTES) {
+                    int start = segmentBuffer.position();
+                    int length = segmentBuffer.getInt();
+                    if (length < HEADER_BYTES || length > segmentBuffer.limit() - start) {
+                        break;
+                    }
+                    long capturedAt = segmentBuffer.getLong();
+                    int inputLength = segmentBuffer.getInt();
+                    if (inputLength < 0 || inputLength > length - HEADER_BYTES) {
+                        break;
+                    }
+                    byte[] input = new byte[inputLength];
+                    segmentBuffer.get(input);
+                    byte[] output = new byte[length - HEADER_BYTES - input.length];
+                    segmentBuffer.get(output);
+                    consumer.accept(new CapturedRecord(capturedAt, input, output));
+                }
+            }
+        }
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Path> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches()).forEach(result::add);
+        }
+        result.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+        return result;
+    }
+
+    private static long sequenceOf(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1L;
+    }
+}
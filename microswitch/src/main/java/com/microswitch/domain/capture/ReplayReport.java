@@ -0,0 +1,24 @@
+package com.microswitch.domain.capture;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of replaying a capture directory with {@link ShadowReplayRunner}.
+ *
+ * @param replayed         number of captured calls handed to the experimental implementation
+ * @param matched          replays whose result deep-equals the captured stable output
+ * @param mismatched       replays whose result differs from the captured stable output
+ * @param failed           replays that threw or whose record could not be deserialized
+ * @param sampleMismatches the first mismatches with their differing paths
+ */
+public record ReplayReport(long replayed, long matched, long mismatched, long failed,
+                           List<ReplayMismatch> sampleMismatches) {
+
+    /**
+     * @param capturedAt  when the replayed call was captured
+     * @param differences the differing paths with stable and replayed values
+     */
+    public record ReplayMismatch(Instant capturedAt, List<String> differences) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.microswitch.domain.capture;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microswitch.domain.util.ComparisonResult;
+import com.microswitch.domain.util.DeepObjectComparator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Replays traffic captured in shadow {@code capture} mode against an experimental implementation offline.
+ * <p>
+ * Every record of a service's capture directory is deserialized, handed to the experimental function on a
+ * pool of {@code parallelism} worker threads and its result deep-compared with the captured stable output.
+ * At most twice {@code parallelism} records are held in memory at once, so arbitrarily large captures can be
+ * replayed.
+ *
+ * <pre>{@code
+ * ReplayReport report = ShadowReplayRunner.builder()
+ *         .parallelism(8)
+ *         .ignoreFields("timestamp")
+ *         .build()
+ *         .replay(Path.of("/var/microswitch-capture/payment-service"),
+ *                 PaymentRequest.class, PaymentResponse.class, newImpl::pay);
+ * }</pre>
+ */
+@Slf4j
+public final class ShadowReplayRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final int parallelism;
+    private final int maxSampleMismatches;
+    private final DeepObjectComparator comparator;
+
+    private ShadowReplayRunner(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.maxSampleMismatches = builder.maxSampleMismatches;
+        this.comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.HYBRID)
+                .withMaxDepth(10)
+                .compareNullsAsEqual(false)
+                .ignoreFields(builder.ignoreFields)
+                .withMaxCompareTimeMillis(builder.maxCompareTimeMillis)
+                .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Replay every captured call in {@code directory} through {@code experimental}.
+     *
+     * @param directory    the capture directory of one service ({@code shadow.capture.directory/<serviceKey>})
+     * @param inputType    type the captured inputs are deserialized to
+     * @param outputType   type the captured stable outputs are deserialized to
+     * @param experimental the implementation under test
+     * @return counts of matching, mismatching and failed replays plus the first mismatches
+     */
+    public <T, R> ReplayReport replay(Path directory, Class<T> inputType, Class<R> outputType,
+                                      Function<T, R> experimental) {
+        AtomicLong replayed = new AtomicLong();
+        AtomicLong matched = new AtomicLong();
+        AtomicLong mismatched = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<ReplayReport.ReplayMismatch> samples = Collections.synchronizedList(new ArrayList<>());
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("shadow-replay-", 0).daemon(true).factory());
+        try {
+            CaptureLog.read(directory, captured -> {
+                inFlight.acquireUninterruptibly();
+                workers.execute(() -> {
+                    try {
+                        replayed.incrementAndGet();
+                        T input = MAPPER.readValue(captured.input(), inputType);
+                        R expected = MAPPER.readValue(captured.output(), outputType);
+                        ComparisonResult result = comparator.compare(expected, experimental.apply(input));
+                        if (result.equal()) {
+                            matched.incrementAndGet();
+                        } else if (mismatched.incrementAndGet() <= maxSampleMismatches) {
+                            samples.add(new ReplayReport.ReplayMismatch(
+                                    Instant.ofEpochMilli(captured.capturedAtMillis()),
+                                    result.differences().stream().map(ComparisonResult.Difference::toString).toList()));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.debug("[MICROSWITCH-SHADOW] - Replay of call captured at {} failed: {}",
+                                captured.capturedAtMillis(), e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read capture directory " + directory, e);
+        } finally {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        var report = new ReplayReport(replayed.get(), matched.get(), mismatched.get(), failed.get(), List.copyOf(samples));
+        log.info("[MICROSWITCH-SHADOW] - Replay of {} finished: {} replayed, {} matched, {} mismatched, {} failed",
+                directory, report.replayed(), report.matched(), report.mismatched(), report.failed());
+        return report;
+    }
+
+    public static final class Builder {
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxSampleMismatches = 20;
+        private long maxCompareTimeMillis = 200L;
+        private String[] ignoreFields = {"timestamp", "requestId", "traceId"};
+
+        public Builder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                log.error("[MICROSWITCH-EXCEPTION] - Invalid replay parallelism: {}, must be positive", parallelism);
+                throw new IllegalArgumentException("Replay parallelism must be positive, got: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder maxSampleMismatches(int maxSampleMismatches) {
+            this.maxSampleMismatches = Math.max(0, maxSampleMismatches);
+            return this;
+        }
+
+        public Builder maxCompareTimeMillis(long maxCompareTimeMillis) {
+            this.maxCompareTimeMillis = maxCompareTimeMillis;
+            return this;
+        }
+
+        public Builder ignoreFields(String... fields) {
+            this.ignoreFields = fields != null ? fields : new String[0];
+            return this;
+        }
+
+        public ShadowReplayRunner build() {
+            return new ShadowReplayRunner(this);
+        }
+    }
+}
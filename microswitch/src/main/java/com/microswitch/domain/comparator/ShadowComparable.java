@@ -0,0 +1,29 @@
+package com.microswitch.domain.comparator;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO whose shadow comparison is generated at build time.
+ * <p>
+ * With the {@code microswitch-processor} artifact on the annotation processor path, a {@link ShadowComparator}
+ * named {@code <SimpleName>ShadowComparator} (nested types: {@code Outer_InnerShadowComparator}) is generated
+ * next to each annotated class. The deep comparator finds it by that name and uses it instead of reading the
+ * class's fields reflectively. Classes without a generated comparator keep the reflective comparison.
+ *
+ * @since 1.5
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ShadowComparable {
+
+    /**
+     * Fields left out of the generated comparator, in addition to static and transient fields and to the
+     * service's {@code shadow.comparator.ignoreFields}.
+     */
+    String[] ignore() default {};
+}
@@ -0,0 +1,88 @@
+package com.microswitch.domain.comparator;
+
+/**
+ * Field-by-field comparison of one {@link ShadowComparable} class, generated at build time.
+ * <p>
+ * A generated comparator reads the fields directly (or through their record accessors and getters) and
+ * hands every pair to {@link Fields}, which owns the rules: ignored fields, numeric equivalence, nested
+ * objects, collections and difference reporting. Fields are identified by their index in
+ * {@link #fieldNames()}. Implementations are stateless and must have a public no-argument constructor.
+ *
+ * @param <T> the compared class
+ * @since 1.5
+ */
+public interface ShadowComparator<T> {
+
+    /**
+     * Names of the compared fields, subclass fields first and each class in declaration order.
+     */
+    String[] fieldNames();
+
+    /**
+     * Compare two instances field by field.
+     *
+     * @return true when every field not skipped by {@code fields} is equal
+     */
+    boolean compare(T left, T right, Fields fields);
+
+    /**
+     * Feed the fields of one instance to {@code hasher}, in {@link #fieldNames()} order.
+     */
+    void hash(T value, Hasher hasher);
+
+    /**
+     * Compares the field pairs of a generated comparator. Each {@code compareX} method returns whether the
+     * values are equal and records the difference when they are not.
+     */
+    interface Fields {
+
+        /**
+         * Whether the field is left out of the comparison.
+         */
+        boolean skip(int field);
+
+        boolean compareLong(int field, long left, long right);
+
+        boolean compareDouble(int field, double left, double right);
+
+        boolean compareBoolean(int field, boolean left, boolean right);
+
+        boolean compareChar(int field, char left, char right);
+
+        boolean compareString(int field, String left, String right);
+
+        /**
+         * Compare a reference field with the deep comparison rules.
+         */
+        boolean compareObject(int field, Object left, Object right);
+
+        /**
+         * Whether the comparison may stop at the difference just found.
+         */
+        boolean shouldStop();
+    }
+
+    /**
+     * Accumulates the structural fingerprint of one instance.
+     */
+    interface Hasher {
+
+        /**
+         * Whether the field is left out of the fingerprint.
+         */
+        boolean skip(int field);
+
+        void hashLong(long value);
+
+        void hashDouble(double value);
+
+        void hashBoolean(boolean value);
+
+        void hashChar(char value);
+
+        /**
+         * Hash a reference field, strings included, with the deep comparison rules.
+         */
+        void hashObject(Object value);
+    }
+}
@@ -0,0 +1,99 @@
+package com.microswitch.domain.strategy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Mirror percentage of one service that backs off under load (AIMD).
+ * <p>
+ * Stable latencies are fed into a sliding window. At most once per evaluation interval the caller that
+ * wins a CAS re-evaluates the rate: when the average stable latency or the process CPU load is at or above
+ * its threshold the rate is multiplied by {@code decreaseFactor} (never below {@code minPercentage});
+ * otherwise it grows by {@code increaseStep} percentage points up to the configured percentage.
+ */
+@Slf4j
+final class AdaptiveMirrorRate {
+
+    record Config(double maxPercentage, double minPercentage, long latencyThresholdNanos,
+                  double cpuThresholdPercent, double decreaseFactor, double increaseStep, long intervalNanos) {
+        Config {
+            if (intervalNanos <= 0) {
+                log.error("[MICROSWITCH-EXCEPTION] - Invalid adaptive evaluation interval: {} ns, must be positive", intervalNanos);
+                throw new IllegalArgumentException("Adaptive evaluation interval must be positive, got: " + intervalNanos);
+            }
+            if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+                log.error("[MICROSWITCH-EXCEPTION] - Invalid adaptive decrease factor: {}, must be in (0, 1)", decreaseFactor);
+                throw new IllegalArgumentException("Adaptive decrease factor must be in (0, 1), got: " + decreaseFactor);
+            }
+            minPercentage = Math.max(0.0, Math.min(minPercentage, maxPercentage));
+            increaseStep = Math.max(0.0, increaseStep);
+        }
+    }
+
+    private final Config config;
+    private final DoubleSupplier cpuLoad;
+    private final SlidingOutcomeWindow stableLatency;
+    private final AtomicLong nextEvaluationNanos;
+    private volatile double percentage;
+
+    /**
+     * @param cpuLoad process CPU load in [0, 1]; negative when unavailable
+     */
+    AdaptiveMirrorRate(Config config, DoubleSupplier cpuLoad, long nowNanos) {
+        this.config = config;
+        this.cpuLoad = cpuLoad;
+        this.stableLatency = new SlidingOutcomeWindow(config.intervalNanos());
+        this.nextEvaluationNanos = new AtomicLong(nowNanos + config.intervalNanos());
+        this.percentage = config.maxPercentage();
+    }
+
+    void recordStableLatency(long latencyNanos, long nowNanos) {
+        stableLatency.record(true, latencyNanos, nowNanos);
+    }
+
+    /**
+     * The rate to mirror at now, re-evaluated first if the evaluation interval has elapsed.
+     */
+    double effectivePercentage(long nowNanos) {
+        long next = nextEvaluationNanos.get();
+        if (nowNanos - next >= 0 && nextEvaluationNanos.compareAndSet(next, nowNanos + config.intervalNanos())) {
+            evaluate(nowNanos);
+        }
+        return percentage;
+    }
+
+    /**
+     * The last evaluated rate, without triggering an evaluation. Used by the gauge.
+     */
+    double currentPercentage() {
+        return percentage;
+    }
+
+    private void evaluate(long nowNanos) {
+        double current = percentage;
+        double updated = isOverloaded(nowNanos)
+                ? Math.max(config.minPercentage(), current * config.decreaseFactor())
+                : Math.min(config.maxPercentage(), current + config.increaseStep());
+        if (updated != current) {
+            percentage = updated;
+            log.debug("[MICROSWITCH-SHADOW] - Adaptive mirror rate changed from {}% to {}%", current, updated);
+        }
+    }
+
+    private boolean isOverloaded(long nowNanos) {
+        if (config.latencyThresholdNanos() > 0) {
+            var snapshot = stableLatency.snapshot(nowNanos);
+            if (snapshot.requests() > 0
+                    && snapshot.totalLatencyNanos() / snapshot.requests() >= config.latencyThresholdNanos()) {
+                return true;
+            }
+        }
+        if (config.cpuThresholdPercent() > 0) {
+            double load = cpuLoad.getAsDouble();
+            return load >= 0 && load * 100.0 >= config.cpuThresholdPercent();
+        }
+        return false;
+    }
+}
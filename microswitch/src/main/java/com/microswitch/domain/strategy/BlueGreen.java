@@ -1,13 +1,16 @@
 package com.microswitch.domain.strategy;
 
 import com.microswitch.application.executor.DeploymentStrategy;
+import com.microswitch.application.executor.ExecutionOutcomeListener;
 import com.microswitch.domain.InitializerConfiguration;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -19,13 +22,23 @@ import java.util.function.Supplier;
  * <p>
  * Traffic can be switched instantly between environments based on TTL or weight configuration.
  * This implementation ensures consistency across multiple pods in a Kubernetes cluster.
+ * <p>
+ * When {@code blueGreen.failback.enabled} is set, green outcomes reported through
+ * {@link ExecutionOutcomeListener} are tracked in a sliding window. Breaching the configured error-rate
+ * or latency threshold routes traffic back to blue for the cooldown period, after which green is
+ * re-admitted with a fresh window.
+ * <p>
+ * TTL switches and the failback cooldown are measured on a monotonic nanosecond clock,
+ * {@link System#nanoTime()} unless another time source is supplied.
  */
 
 @Slf4j
-public class BlueGreen extends DeployTemplate implements DeploymentStrategy {
+public class BlueGreen extends DeployTemplate implements DeploymentStrategy, ExecutionOutcomeListener {
 
-    private final ConcurrentHashMap<String, AtomicReference<Instant>> serviceStartTimes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> serviceStartNanos = new ConcurrentHashMap<>();
     private final AtomicReference<ConcurrentHashMap<String, BlueGreenConfig>> configCache = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final ConcurrentHashMap<String, Optional<FailbackState>> failbackStates = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
 
     /**
      * Immutable configuration record for Blue-Green deployment with validation.
@@ -65,8 +78,52 @@ public class BlueGreen extends DeployTemplate implements DeploymentStrategy {
         }
     }
 
+    /**
+     * Immutable failback thresholds resolved once per service from {@code blueGreen.failback.*}.
+     */
+    record FailbackConfig(long windowNanos, long minRequests, double errorRateThreshold,
+                          double latencyThresholdMillis, long cooldownNanos) {
+        FailbackConfig {
+            if (windowNanos <= 0) {
+                log.error("[MICROSWITCH-EXCEPTION] - Invalid failback window: {} ns, must be positive", windowNanos);
+                throw new IllegalArgumentException("Failback window must be positive, got: " + windowNanos);
+            }
+            if (errorRateThreshold <= 0 || errorRateThreshold > 100) {
+                log.error("[MICROSWITCH-EXCEPTION] - Invalid failback error rate threshold: {}, must be in (0, 100]", errorRateThreshold);
+                throw new IllegalArgumentException("Failback error rate threshold must be in (0, 100], got: " + errorRateThreshold);
+            }
+            if (cooldownNanos < 0) {
+                log.error("[MICROSWITCH-EXCEPTION] - Invalid failback cooldown: {} ns, must be non-negative", cooldownNanos);
+                throw new IllegalArgumentException("Failback cooldown must be non-negative, got: " + cooldownNanos);
+            }
+        }
+    }
+
+    /**
+     * Per-service failback state. {@code blueUntilNanos} is 0 while green is admitted, otherwise the
+     * clock deadline until which traffic is pinned to blue.
+     */
+    private static final class FailbackState {
+        private final FailbackConfig config;
+        private final SlidingOutcomeWindow window;
+        private final AtomicLong blueUntilNanos = new AtomicLong(0L);
+
+        private FailbackState(FailbackConfig config) {
+            this.config = config;
+            this.window = new SlidingOutcomeWindow(config.windowNanos());
+        }
+    }
+
     public BlueGreen(InitializerConfiguration properties) {
+        this(properties, System::nanoTime);
+    }
+
+    /**
+     * Creates the strategy on the given monotonic time source, in nanoseconds like {@link System#nanoTime()}.
+     */
+    BlueGreen(InitializerConfiguration properties, LongSupplier nanoClock) {
         super(properties);
+        this.nanoClock = nanoClock;
     }
 
     @Override
@@ -96,10 +153,116 @@ public class BlueGreen extends DeployTemplate implements DeploymentStrategy {
         }
 
         boolean useGreenEnvironment = determineActiveEnvironment(blueGreenConfig, serviceKey);
+        if (useGreenEnvironment && isFailedBackToBlue(serviceKey)) {
+            return blue.get();
+        }
 
         return useGreenEnvironment ? green.get() : blue.get();
     }
 
+    /**
+     * Records green outcomes into the service's sliding window and trips the failback when the
+     * configured thresholds are breached. Blue outcomes and services without failback are ignored.
+     */
+    @Override
+    public void onOutcome(String serviceKey, boolean experimental, boolean success, long latencyNanos) {
+        if (!experimental || serviceKey == null) {
+            return;
+        }
+        FailbackState state = getOrCreateFailbackState(serviceKey);
+        if (state == null) {
+            return;
+        }
+
+        long now = nanoClock.getAsLong();
+        state.window.record(success, latencyNanos, now);
+
+        if (state.blueUntilNanos.get() != 0L) {
+            return; // already failed back, in-flight green calls drain into a window that will be reset
+        }
+
+        var snapshot = state.window.snapshot(now);
+        if (snapshot.requests() < state.config.minRequests()) {
+            return;
+        }
+
+        double errorRate = snapshot.errorRatePercent();
+        double averageLatencyMillis = snapshot.averageLatencyMillis();
+        boolean errorBreach = errorRate >= state.config.errorRateThreshold();
+        boolean latencyBreach = state.config.latencyThresholdMillis() > 0
+                && averageLatencyMillis >= state.config.latencyThresholdMillis();
+        if (!errorBreach && !latencyBreach) {
+            return;
+        }
+
+        long blueUntil = Math.max(1L, now + state.config.cooldownNanos());
+        if (state.blueUntilNanos.compareAndSet(0L, blueUntil)) {
+            state.window.reset();
+            log.warn("[MICROSWITCH-BLUEGREEN] - Green environment for service {} breached failback thresholds " +
+                            "(errorRate={}%, avgLatency={} ms over {} calls); routing to blue for {} s",
+                    serviceKey, String.format("%.1f", errorRate), String.format("%.1f", averageLatencyMillis),
+                    snapshot.requests(), TimeUnit.NANOSECONDS.toSeconds(state.config.cooldownNanos()));
+        }
+    }
+
+    /**
+     * Returns true while the service is pinned to blue by an automatic failback. Once the cooldown has
+     * elapsed the pin is cleared and green is re-admitted with a fresh window.
+     */
+    private boolean isFailedBackToBlue(String serviceKey) {
+        var state = failbackStates.get(serviceKey);
+        if (state == null || state.isEmpty()) {
+            return false;
+        }
+        var failback = state.get();
+        long blueUntil = failback.blueUntilNanos.get();
+        if (blueUntil == 0L) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - blueUntil < 0) {
+            return true;
+        }
+        if (failback.blueUntilNanos.compareAndSet(blueUntil, 0L)) {
+            failback.window.reset();
+            log.info("[MICROSWITCH-BLUEGREEN] - Failback cooldown elapsed for service {}, green re-admitted", serviceKey);
+        }
+        return false;
+    }
+
+    private FailbackState getOrCreateFailbackState(String serviceKey) {
+        return failbackStates.computeIfAbsent(serviceKey, key -> Optional.ofNullable(createFailbackState(key)))
+                .orElse(null);
+    }
+
+    private FailbackState createFailbackState(String serviceKey) {
+        try {
+            var services = configuration.getServices();
+            var serviceConfig = services != null ? services.get(serviceKey) : null;
+            if (serviceConfig == null || serviceConfig.getBlueGreen() == null) {
+                return null;
+            }
+            var failback = serviceConfig.getBlueGreen().getFailback();
+            if (failback == null || !Boolean.TRUE.equals(failback.getEnabled())) {
+                return null;
+            }
+
+            var config = new FailbackConfig(
+                    TimeUnit.SECONDS.toNanos(valueOrDefault(failback.getWindowSeconds(), 10)),
+                    Math.max(1L, valueOrDefault(failback.getMinRequests(), 20)),
+                    valueOrDefault(failback.getErrorRateThreshold(), 50),
+                    valueOrDefault(failback.getLatencyThresholdMillis(), 0L),
+                    TimeUnit.SECONDS.toNanos(valueOrDefault(failback.getCooldownSeconds(), 60L)));
+            return new FailbackState(config);
+        } catch (Exception e) {
+            log.warn("[MICROSWITCH-BLUEGREEN] - Failed to create failback state for service {}: {}", serviceKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private static <T extends Number> T valueOrDefault(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
     /**
      * Thread-safe method to get or create BlueGreenConfig for a service.
      * Uses atomic operations to ensure consistency across multiple pods.
@@ -229,18 +392,7 @@ public class BlueGreen extends DeployTemplate implements DeploymentStrategy {
             return initiallyGreen;
         }
 
-        AtomicReference<Instant> startTimeRef = serviceStartTimes.computeIfAbsent(
-                serviceKey,
-                key -> new AtomicReference<>(Instant.now())
-        );
-
-        Instant startTime = startTimeRef.get();
-        if (startTime == null) {
-            startTime = Instant.now();
-            startTimeRef.set(startTime);
-        }
-
-        long elapsedSeconds = Duration.between(startTime, Instant.now()).toSeconds();
+        long elapsedSeconds = elapsedSecondsSinceStart(serviceKey);
 
         if (elapsedSeconds >= ttl) {
             return !initiallyGreen;
@@ -262,17 +414,19 @@ public class BlueGreen extends DeployTemplate implements DeploymentStrategy {
             return false;
         }
 
-        AtomicReference<Instant> startTimeRef = serviceStartTimes.computeIfAbsent(
-                serviceKey,
-                key -> new AtomicReference<>(Instant.now())
-        );
-
-        Instant startTime = startTimeRef.get();
-        long elapsedSeconds = Duration.between(startTime, Instant.now()).toSeconds();
+        long elapsedSeconds = elapsedSecondsSinceStart(serviceKey);
 
         return elapsedSeconds >= ttl;
     }
 
+    /**
+     * Whole seconds since the service was first routed, its start time being recorded on the first call.
+     */
+    private long elapsedSecondsSinceStart(String serviceKey) {
+        long startNanos = serviceStartNanos.computeIfAbsent(serviceKey, key -> nanoClock.getAsLong());
+        return TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong() - startNanos);
+    }
+
     /**
      * Parses weight configuration to determine active environment.
      * For Blue-Green, weight should be binary: "1/0" (Blue active) or "0/1" (Green active)
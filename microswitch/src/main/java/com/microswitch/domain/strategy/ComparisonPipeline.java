@@ -0,0 +1,163 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.application.metric.DeploymentMetrics;
+import com.microswitch.domain.util.DeepObjectComparator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hands shadow comparisons off the request thread.
+ * <p>
+ * Submitting never blocks: jobs go into a bounded queue and, once it is full, either the new job
+ * ({@code dropNewest}) or the oldest queued job ({@code dropOldest}) is discarded and counted as a dropped
+ * comparison. A small pool of daemon workers drains the queue in batches and records how long each job
+ * waited, so comparison cost no longer adds to caller latency.
+ */
+@Slf4j
+final class ComparisonPipeline {
+
+    static final String DROP_NEWEST = "dropNewest";
+    static final String DROP_OLDEST = "dropOldest";
+    private static final String DROP_REASON = "comparison_overflow";
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * A pending comparison of one stable/mirror pair, with the mirror fingerprint if it was taken upstream.
+     */
+    record ComparisonJob(String serviceKey, Object stable, Object mirror, long mirrorFingerprint, long enqueuedNanos) {
+    }
+
+    private final BlockingQueue<ComparisonJob> queue;
+    private final boolean dropOldest;
+    private final int batchSize;
+    private final DeploymentMetrics deploymentMetrics;
+    private final Consumer<ComparisonJob> handler;
+    private final List<Thread> workers;
+    private volatile boolean running = true;
+    private volatile boolean accepting = true;
+
+    ComparisonPipeline(int capacity, int workerCount, int batchSize, String overflow,
+                       DeploymentMetrics deploymentMetrics, ThreadFactory threadFactory,
+                       Consumer<ComparisonJob> handler) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Comparison queue capacity must be positive, got: " + capacity);
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Comparison worker count must be positive, got: " + workerCount);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.dropOldest = DROP_OLDEST.equalsIgnoreCase(overflow);
+        this.batchSize = Math.max(1, batchSize);
+        this.deploymentMetrics = deploymentMetrics;
+        this.handler = handler;
+        if (deploymentMetrics != null) {
+            deploymentMetrics.registerShadowComparisonQueue(queue);
+        }
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::drain);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Enqueue a comparison without blocking. Returns false when the job itself was dropped.
+     */
+    boolean submit(String serviceKey, Object stable, Object mirror) {
+        return submit(serviceKey, stable, mirror, DeepObjectComparator.NO_FINGERPRINT);
+    }
+
+    boolean submit(String serviceKey, Object stable, Object mirror, long mirrorFingerprint) {
+        if (!accepting) {
+            return false;
+        }
+        var job = new ComparisonJob(serviceKey, stable, mirror, mirrorFingerprint, System.nanoTime());
+        if (queue.offer(job)) {
+            return true;
+        }
+        if (!dropOldest) {
+            recordDropped(serviceKey);
+            return false;
+        }
+        // Evict until there is room; a competing producer may refill the freed slot first.
+        while (!queue.offer(job)) {
+            ComparisonJob evicted = queue.poll();
+            if (evicted != null) {
+                recordDropped(evicted.serviceKey());
+            }
+        }
+        return true;
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    void shutdown() {
+        accepting = false;
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Stop accepting comparisons, let the workers finish the queued ones until {@code deadlineNanos}
+     * ({@link System#nanoTime()} based) and then stop them.
+     */
+    void shutdown(long deadlineNanos) throws InterruptedException {
+        accepting = false;
+        while (!queue.isEmpty() && System.nanoTime() - deadlineNanos < 0) {
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+            if (Thread.interrupted()) {
+                shutdown();
+                throw new InterruptedException();
+            }
+        }
+        shutdown();
+        for (Thread worker : workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMillis > 0) {
+                worker.join(remainingMillis);
+            }
+        }
+    }
+
+    private void drain() {
+        List<ComparisonJob> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            for (ComparisonJob job : batch) {
+                if (deploymentMetrics != null) {
+                    deploymentMetrics.recordShadowComparisonLag(System.nanoTime() - job.enqueuedNanos());
+                }
+                try {
+                    handler.accept(job);
+                } catch (RuntimeException e) {
+                    log.warn("[MICROSWITCH-COMPARISON] - Comparison failed for service {}: {}", job.serviceKey(), e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void recordDropped(String serviceKey) {
+        log.debug("[MICROSWITCH-COMPARISON] - Comparison queue full, dropped comparison for service {}", serviceKey);
+        if (deploymentMetrics != null) {
+            deploymentMetrics.recordShadowDropped(serviceKey, DROP_REASON);
+        }
+    }
+}
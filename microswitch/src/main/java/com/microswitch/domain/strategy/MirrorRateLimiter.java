@@ -0,0 +1,73 @@
+package com.microswitch.domain.strategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free per-service cap on mirrors per second, as a generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of a token count and a refill timer the limiter keeps a single theoretical arrival time (TAT):
+ * the moment the bucket would be full again. Admitting a mirror pushes the TAT one emission interval
+ * ({@code 1 / mirrorsPerSecond}) past {@code max(TAT, now)}, and a mirror is admitted as long as that leaves
+ * the TAT at most {@code burst} intervals ahead of now. That is a token bucket of capacity {@code burst}: the
+ * experimental backend sees at most the configured rate on average and never more than {@code burst} mirrors
+ * at once. A burst of one spaces mirrors strictly, but then calls that pass the percentage sampler in clumps
+ * are dropped even when their average rate is below the cap, so the cap is under-delivered; a larger burst
+ * absorbs such clumps. Concurrent callers race on one compare-and-set; a caller that loses re-reads the TAT.
+ * <p>
+ * The TAT lives in a {@link MirrorSampler.PaddedLong}, so limiters of different services never share a cache
+ * line.
+ */
+final class MirrorRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final VarHandle THEORETICAL_ARRIVAL;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final MirrorSampler.PaddedLong theoreticalArrival = new MirrorSampler.PaddedLong();
+
+    static {
+        try {
+            THEORETICAL_ARRIVAL = MethodHandles.lookup().findVarHandle(MirrorSampler.Value.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    MirrorRateLimiter(double mirrorsPerSecond, long nowNanos) {
+        this(mirrorsPerSecond, 1, nowNanos);
+    }
+
+    /**
+     * @param burst mirrors that may be admitted at once, at least 1
+     */
+    MirrorRateLimiter(double mirrorsPerSecond, int burst, long nowNanos) {
+        if (Double.isNaN(mirrorsPerSecond) || mirrorsPerSecond <= 0.0) {
+            throw new IllegalArgumentException("Mirrors per second must be positive, got: " + mirrorsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Mirror burst must be at least 1, got: " + burst);
+        }
+        this.emissionIntervalNanos = Math.max(1L, Math.round(NANOS_PER_SECOND / mirrorsPerSecond));
+        this.burstToleranceNanos = burst > Long.MAX_VALUE / 2 / emissionIntervalNanos
+                ? Long.MAX_VALUE / 2 : emissionIntervalNanos * burst;
+        THEORETICAL_ARRIVAL.setVolatile(theoreticalArrival, nowNanos);
+    }
+
+    /**
+     * Admit one mirror at {@code nowNanos} ({@link System#nanoTime()} based) if the rate allows it.
+     */
+    boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = (long) THEORETICAL_ARRIVAL.getVolatile(theoreticalArrival);
+            long next = (tat - nowNanos > 0L ? tat : nowNanos) + emissionIntervalNanos;
+            if (next - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (THEORETICAL_ARRIVAL.compareAndSet(theoreticalArrival, tat, next)) {
+                return true;
+            }
+        }
+    }
+}
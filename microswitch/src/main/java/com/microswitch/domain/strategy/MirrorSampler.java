@@ -0,0 +1,76 @@
+package com.microswitch.domain.strategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Deterministic per-service mirror sampler that honors fractional rates exactly.
+ * <p>
+ * Rates are expressed in parts per million. Request {@code n} is mirrored when
+ * {@code floor(n * rate) > floor((n - 1) * rate)}, which spreads mirrors evenly and yields exactly
+ * {@code rate * N} mirrors over any {@code N} consecutive requests (give or take one). Because the pattern
+ * repeats every {@link #SCALE} requests the arithmetic is done on {@code n mod SCALE}, so it never overflows.
+ * <p>
+ * The request counter is padded on both sides so that samplers of different services, which are
+ * allocated close together, never share a cache line.
+ */
+final class MirrorSampler {
+
+    static final long SCALE = 1_000_000L;
+
+    private static final VarHandle COUNTER;
+
+    private final PaddedLong requests = new PaddedLong();
+
+    static {
+        try {
+            COUNTER = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Convert a percentage (0-100, fractions allowed) to a rate in parts per million, clamped to [0, SCALE].
+     */
+    static long toRatePpm(double percentage) {
+        if (Double.isNaN(percentage) || percentage <= 0.0) {
+            return 0L;
+        }
+        return Math.min(SCALE, Math.round(percentage * (SCALE / 100.0)));
+    }
+
+    /**
+     * Count the request and decide whether it is mirrored at the given rate.
+     */
+    boolean shouldMirror(long ratePpm) {
+        if (ratePpm <= 0L) {
+            return false;
+        }
+        long n = (long) COUNTER.getAndAdd(requests, 1L) + 1L;
+        if (ratePpm >= SCALE) {
+            return true;
+        }
+        long k = Math.floorMod(n, SCALE);
+        return k == 0L || (k * ratePpm) / SCALE != ((k - 1L) * ratePpm) / SCALE;
+    }
+
+    // Superclass fields are laid out before subclass fields, so the hierarchy keeps the padding in place.
+    @SuppressWarnings("unused")
+    abstract static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    abstract static class Value extends LeftPadding {
+        volatile long value;
+    }
+
+    /**
+     * A volatile {@code long} alone on its cache line, updated through a {@link VarHandle} on {@link Value#value};
+     * also holds {@link MirrorRateLimiter}'s theoretical arrival time.
+     */
+    @SuppressWarnings("unused")
+    static final class PaddedLong extends Value {
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+}
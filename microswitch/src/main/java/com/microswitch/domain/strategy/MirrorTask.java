@@ -0,0 +1,127 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.domain.util.DeepObjectComparator;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A mirror invocation that can be interrupted when its deadline passes.
+ * <p>
+ * {@link CompletableFuture#cancel(boolean)} never interrupts the running thread, so the mirror is run
+ * as a {@link FutureTask} whose {@code cancel(true)} does. Completion is bridged into
+ * {@link #completion()} for composition; a cancelled mirror completes it with a {@link TimeoutException}.
+ * The {@code onDone} hook runs exactly once, when the executor's thread leaves the task - not when the task is
+ * cancelled, since a mirror ignoring the interrupt keeps its thread busy until the supplier returns. That makes
+ * it the place to release any concurrency permit held for the mirror.
+ * <p>
+ * When a fingerprinter is given, the mirror result is fingerprinted on the mirror thread right after it is
+ * produced, so the comparison worker only has to fingerprint the stable side.
+ */
+final class MirrorTask<R> extends FutureTask<R> {
+
+    private final CompletableFuture<R> completion = new CompletableFuture<>();
+    private final MirrorCall<R> call;
+    private final long timeoutMillis;
+    private final Runnable onDone;
+    private volatile ScheduledFuture<?> deadline;
+
+    MirrorTask(Supplier<R> mirror, long timeoutMillis, Runnable onDone) {
+        this(mirror, null, timeoutMillis, onDone);
+    }
+
+    MirrorTask(Supplier<R> mirror, ToLongFunction<Object> fingerprinter, long timeoutMillis, Runnable onDone) {
+        this(new MirrorCall<>(mirror, fingerprinter), timeoutMillis, onDone);
+    }
+
+    private MirrorTask(MirrorCall<R> call, long timeoutMillis, Runnable onDone) {
+        super(call);
+        this.call = call;
+        this.timeoutMillis = timeoutMillis;
+        this.onDone = onDone;
+    }
+
+    /**
+     * Fingerprint of the mirror result, or {@code DeepObjectComparator.NO_FINGERPRINT} when none was taken.
+     * Valid once the task has completed normally.
+     */
+    long mirrorFingerprint() {
+        return call.fingerprint;
+    }
+
+    long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    CompletableFuture<R> completion() {
+        return completion;
+    }
+
+    /**
+     * Arrange for the mirror to be cancelled (and its thread interrupted) once the deadline passes.
+     * The scheduled cancellation is dropped as soon as the mirror completes on its own.
+     */
+    void cancelAfterDeadline(ScheduledExecutorService scheduler) {
+        deadline = scheduler.schedule(() -> cancel(true), timeoutMillis, TimeUnit.MILLISECONDS);
+        if (isDone()) {
+            deadline.cancel(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            onDone.run();
+        }
+    }
+
+    @Override
+    protected void done() {
+        ScheduledFuture<?> scheduled = deadline;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        try {
+            completion.complete(get());
+        } catch (CancellationException e) {
+            completion.completeExceptionally(
+                    new TimeoutException("Mirror exceeded its deadline of " + timeoutMillis + " ms and was cancelled"));
+        } catch (ExecutionException e) {
+            completion.completeExceptionally(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completion.completeExceptionally(e);
+        }
+    }
+
+    private static final class MirrorCall<R> implements Callable<R> {
+        private final Supplier<R> mirror;
+        private final ToLongFunction<Object> fingerprinter;
+        private volatile long fingerprint = DeepObjectComparator.NO_FINGERPRINT;
+
+        MirrorCall(Supplier<R> mirror, ToLongFunction<Object> fingerprinter) {
+            this.mirror = mirror;
+            this.fingerprinter = fingerprinter;
+        }
+
+        @Override
+        public R call() {
+            R result = mirror.get();
+            if (fingerprinter != null) {
+                fingerprint = fingerprinter.applyAsLong(result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.microswitch.domain.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free history of the most recent mismatches of one service.
+ * <p>
+ * Writers claim a sequence number and overwrite the slot it maps to, so memory stays bounded by the
+ * capacity no matter how many mismatches occur. Readers walk back from the latest sequence; under heavy
+ * concurrent writes a snapshot may already contain a newer entry in place of an older one, which is fine
+ * for a diagnostic view.
+ */
+final class MismatchRing {
+
+    private final AtomicReferenceArray<ShadowMismatch> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    MismatchRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mismatch history capacity must be positive, got: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(ShadowMismatch mismatch) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq % slots.length()), mismatch);
+    }
+
+    /**
+     * The retained mismatches, newest first.
+     */
+    List<ShadowMismatch> snapshot() {
+        int capacity = slots.length();
+        long end = sequence.get();
+        int count = (int) Math.min(capacity, end);
+        List<ShadowMismatch> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ShadowMismatch mismatch = slots.get((int) ((end - 1 - i) % capacity));
+            if (mismatch != null) {
+                result.add(mismatch);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package com.microswitch.domain.strategy;
+
+/**
+ * How often a normalized difference path was seen in a service's shadow mismatches.
+ *
+ * @param signature the differing path with list indices and numeric map keys replaced by {@code *},
+ *                  e.g. {@code order.items[*].price}
+ * @param count     number of mismatching comparisons that reported the path
+ */
+public record MismatchSignature(String signature, long count) {
+}
@@ -0,0 +1,97 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.domain.util.ComparisonResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-service mismatch counters keyed by difference signature.
+ * <p>
+ * A {@link ComparisonResult.Difference#signature() signature} is the differing path with list indices and map
+ * keys replaced by {@code [*]}, so {@code order.items[3].price} and {@code order.items[17].price} share the
+ * signature {@code order.items[*].price}, and neither customer IDs used as map keys nor any other key value
+ * reaches the counters, metric tags or the endpoint. Each signature is counted once per mismatching comparison. The number of
+ * distinct signatures is bounded; once the bound is reached further ones are folded into {@link #OTHER}
+ * so neither memory nor metric cardinality can grow with the payloads.
+ * <p>
+ * The class also decides which mismatches are logged: at most one sample per {@code logIntervalNanos},
+ * carrying the number of mismatches suppressed since the previous sample.
+ */
+final class MismatchSignatures {
+
+    static final String OTHER = "<other>";
+
+    private final int maxSignatures;
+    private final long logIntervalNanos;
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final AtomicLong nextSampleNanos;
+    private final LongAdder suppressed = new LongAdder();
+
+    MismatchSignatures(int maxSignatures, long logIntervalNanos) {
+        if (maxSignatures <= 0) {
+            throw new IllegalArgumentException("Mismatch signature limit must be positive, got: " + maxSignatures);
+        }
+        this.maxSignatures = maxSignatures;
+        this.logIntervalNanos = Math.max(0L, logIntervalNanos);
+        this.nextSampleNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Count the signatures of a mismatching comparison.
+     *
+     * @return the distinct signatures that were counted, in the order their paths were reported
+     */
+    List<String> record(ComparisonResult result) {
+        Set<String> signatures = new LinkedHashSet<>();
+        for (ComparisonResult.Difference difference : result.differences()) {
+            signatures.add(difference.signature());
+        }
+        List<String> counted = new ArrayList<>(signatures.size());
+        for (String signature : signatures) {
+            LongAdder counter = counts.get(signature);
+            if (counter == null) {
+                if (counts.size() >= maxSignatures) {
+                    signature = OTHER;
+                }
+                counter = counts.computeIfAbsent(signature, key -> new LongAdder());
+            }
+            if (!counted.contains(signature)) {
+                counter.increment();
+                counted.add(signature);
+            }
+        }
+        return counted;
+    }
+
+    /**
+     * Claim the right to log the current mismatch. Returns the number of mismatches suppressed since the
+     * previous sample, or {@code -1} when the current one must not be logged.
+     */
+    long tryClaimLogSample(long nowNanos) {
+        long next = nextSampleNanos.get();
+        if (nowNanos - next >= 0 && nextSampleNanos.compareAndSet(next, nowNanos + logIntervalNanos)) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1L;
+    }
+
+    /**
+     * The {@code limit} most frequent signatures, most frequent first.
+     */
+    List<MismatchSignature> top(int limit) {
+        return counts.entrySet().stream()
+                .map(entry -> new MismatchSignature(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(MismatchSignature::count).reversed()
+                        .thenComparing(MismatchSignature::signature))
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+}
@@ -0,0 +1,696 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.application.executor.DeploymentStrategy;
+import com.microswitch.application.metric.DeploymentMetrics;
+import com.microswitch.domain.InitializerConfiguration;
+import com.microswitch.domain.capture.CaptureLog;
+import com.microswitch.domain.util.ComparisonResult;
+import com.microswitch.domain.util.DeepObjectComparator;
+import com.microswitch.domain.value.MethodType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Shadow deployment strategy: the stable result is always returned while a sampled share of calls is
+ * mirrored to the other implementation and, optionally, deep-compared against it.
+ * <p>
+ * Two mirror modes are supported per service via {@code shadow.mode}:
+ * <ul>
+ *   <li>{@code blocking} (default) - the stable supplier runs on the calling thread while the mirror runs
+ *       concurrently, and the caller waits for both.</li>
+ *   <li>{@code async} - the stable supplier runs on the calling thread and its result is returned
+ *       immediately; the mirror and the comparison finish in the background, so mirror latency never
+ *       reaches the caller.</li>
+ * </ul>
+ * Mirrors are selected per service by a deterministic sampler, so fractional percentages such as
+ * {@code 0.5} or {@code 12.5} are honored exactly and one service's traffic never shifts another's sampling.
+ * {@code shadow.maxMirrorsPerSecond} additionally caps the selected calls with a lock-free per-service
+ * rate limiter, keeping the experimental backend's load flat through traffic peaks; {@code shadow.maxMirrorsBurst}
+ * lets that many mirrors through at once so clumps of selected calls are not dropped below the rate.
+ * With {@code shadow.adaptive.enabled} the rate backs off while stable latency or process CPU load exceed
+ * their thresholds and recovers up to {@code percentage} once there is headroom again.
+ * <p>
+ * In both modes the mirror is bounded by {@code shadow.mirrorTimeoutMillis}; once exceeded it is cancelled
+ * and its thread interrupted, while the stable result is returned untouched.
+ * <p>
+ * In-flight mirrors are capped per service ({@code shadow.maxConcurrentMirrors}) and optionally across all
+ * services ({@code microswitch.shadow.maxConcurrentMirrors}). A mirror that would exceed a cap is dropped,
+ * not queued, and counted as {@code microswitch.shadow.dropped}; the stable call is unaffected.
+ * Every service mirrors on its own executor ({@code shadow.executor.*}), virtual threads by default or a
+ * bounded platform pool, so one service's slow mirrors never occupy another's threads. {@link #shutdown()}
+ * drains mirrors and queued comparisons within {@code microswitch.shadow.shutdownTimeoutMillis}. In a Spring
+ * context {@code ShadowLifecycle} calls it when the context stops; code building a {@code Shadow} itself must
+ * call {@link #shutdown()} or {@link #close()}. All of its threads are daemons, so an instance that is never
+ * shut down does not keep the JVM alive, but its mirrors and queued comparisons are then not drained.
+ * <p>
+ * Each service gets its own comparator, compiled once from its {@code shadow.comparator.*} section
+ * (budgets, sampling, field caps and {@code ignoreFields}), so services never inherit each other's settings.
+ * Mirror results are fingerprinted on the mirror thread and the full diff only runs when the stable
+ * fingerprint differs ({@code shadow.comparator.fingerprint}).
+ * Deep comparisons never run on the request thread: stable/mirror pairs are queued to a bounded
+ * {@link ComparisonPipeline} configured under {@code microswitch.shadow.comparison.*}. The last mismatches of
+ * each service, with their differing paths, are kept in a bounded ring readable via {@link #recentMismatches(String)}.
+ * Mismatches are also counted per normalized path signature ({@link #topMismatchSignatures(String, int)} and
+ * {@code microswitch.shadow.mismatch}); only one sample per {@code shadow.comparator.mismatchLogIntervalMillis}
+ * is logged.
+ */
+@Slf4j
+public class Shadow extends DeployTemplate implements DeploymentStrategy, AutoCloseable {
+    private static final int DEFAULT_TIMEOUT_SECONDS = 30;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 5_000L;
+    private static final String PLATFORM_EXECUTOR = "platform";
+    private static final String ASYNC_MODE = "async";
+    private static final String CAPTURE_MODE = "capture";
+    private static final String DROP_SERVICE_LIMIT = "service_limit";
+    private static final String DROP_GLOBAL_LIMIT = "global_limit";
+    private static final String DROP_REJECTED = "rejected";
+    private static final OperatingSystemMXBean OPERATING_SYSTEM = ManagementFactory.getOperatingSystemMXBean();
+
+    private final ConcurrentHashMap<String, MirrorSampler> mirrorSamplers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Optional<MirrorRateLimiter>> mirrorRateLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ExecutorService> mirrorExecutors = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor mirrorDeadlineScheduler;
+    private final AtomicBoolean isShutdown = new AtomicBoolean();
+    private final ConcurrentHashMap<String, Optional<DeepObjectComparator>> serviceComparators = new ConcurrentHashMap<>();
+    private final DeploymentMetrics deploymentMetrics;
+    private final Semaphore globalMirrorPermits;
+    private final ConcurrentHashMap<String, Optional<Semaphore>> serviceMirrorPermits = new ConcurrentHashMap<>();
+    private volatile ComparisonPipeline comparisonPipeline;
+    private final ConcurrentHashMap<String, MismatchRing> mismatchHistory = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MismatchSignatures> mismatchSignatures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Optional<AdaptiveMirrorRate>> adaptiveRates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Optional<CaptureLog>> captureLogs = new ConcurrentHashMap<>();
+
+    public Shadow(InitializerConfiguration properties) {
+        this(properties, null);
+    }
+
+    public Shadow(InitializerConfiguration properties, DeploymentMetrics deploymentMetrics) {
+        super(properties);
+        this.deploymentMetrics = deploymentMetrics;
+        Integer globalCap = properties.getShadow() != null ? properties.getShadow().getMaxConcurrentMirrors() : null;
+        this.globalMirrorPermits = globalCap != null && globalCap > 0 ? new Semaphore(globalCap) : null;
+        this.mirrorDeadlineScheduler = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("shadow-deadline-", 0).daemon(true).factory());
+        this.mirrorDeadlineScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * The service's own mirror executor, created once from its {@code shadow.executor} section: a virtual
+     * thread per mirror by default, or a bounded pool of daemon platform threads with their own priority.
+     * A full platform pool rejects the mirror, which is then dropped like any other capped mirror, and so
+     * does asking for an executor once {@link #shutdown()} has started.
+     */
+    private ExecutorService executorFor(String serviceKey, InitializerConfiguration.Shadow shadowConfig) {
+        ExecutorService executor = mirrorExecutors.computeIfAbsent(serviceKey, key -> {
+            if (isShutdown.get()) {
+                throw new RejectedExecutionException("Shadow is shut down, no executor created for service " + key);
+            }
+            var executorConfig = shadowConfig.getExecutor();
+            if (!PLATFORM_EXECUTOR.equalsIgnoreCase(executorConfig.getType())) {
+                return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("shadow-" + key + "-", 0).factory());
+            }
+            int poolSize = valueOrDefault(executorConfig.getPoolSize(), 4);
+            var pool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(valueOrDefault(executorConfig.getQueueCapacity(), 64)),
+                    Thread.ofPlatform().name("shadow-" + key + "-", 0).daemon(true)
+                            .priority(threadPriority(executorConfig.getPriority())).factory());
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        });
+        // Created while shutdown() was already draining the map: it may not have seen this executor.
+        if (isShutdown.get()) {
+            executor.shutdown();
+            throw new RejectedExecutionException("Shadow is shut down, mirror rejected for service " + serviceKey);
+        }
+        return executor;
+    }
+
+    /**
+     * Comparator for the service, compiled once from its own {@code shadow.comparator.*} section.
+     * Services with deep comparison disabled map to an empty entry so the decision is not re-evaluated per call.
+     */
+    DeepObjectComparator comparatorFor(String serviceKey, InitializerConfiguration.Shadow shadowConfig) {
+        return serviceComparators.computeIfAbsent(serviceKey, key -> {
+            if (!"enable".equalsIgnoreCase(shadowConfig.getComparatorMode())) {
+                return Optional.empty();
+            }
+            Integer historySize = shadowConfig.getComparator().getMismatchHistorySize();
+            if (historySize != null && historySize > 0) {
+                mismatchHistory.put(key, new MismatchRing(historySize));
+            }
+            mismatchSignatures.put(key, new MismatchSignatures(
+                    valueOrDefault(shadowConfig.getComparator().getMaxMismatchSignatures(), 100),
+                    TimeUnit.MILLISECONDS.toNanos(Math.max(0L, Objects.requireNonNullElse(
+                            shadowConfig.getComparator().getMismatchLogIntervalMillis(), 10_000L)))));
+            return Optional.of(buildComparator(shadowConfig.getComparator()));
+        }).orElse(null);
+    }
+
+    private static DeepObjectComparator buildComparator(InitializerConfiguration.Shadow.Comparator cmpCfg) {
+        DeepObjectComparator.Builder builder = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.HYBRID)
+                .withMaxDepth(10)
+                .compareNullsAsEqual(false);
+
+        if (cmpCfg != null) {
+            builder = builder
+                    .ignoreFields(cmpCfg.getIgnoreFields().toArray(String[]::new))
+                    .withMaxCollectionElements(cmpCfg.getSamplingOnHuge().getMaxCollectionElements())
+                    .withMaxCompareTimeMillis(cmpCfg.getMaxCompareTimeMillis())
+                    .enableSamplingOnHuge(cmpCfg.getSamplingOnHuge().getEnable())
+                    .withMaxFieldsPerClass(cmpCfg.getMaxFieldsPerClass());
+            var sampling = cmpCfg.getSamplingOnHuge();
+            if (sampling.getConfidence() != null && sampling.getDifferenceRate() != null) {
+                builder = builder.withSampling(sampling.getConfidence(), sampling.getDifferenceRate());
+            }
+            if (sampling.getSeed() != null) {
+                builder = builder.withSamplingSeed(sampling.getSeed());
+            }
+            if (cmpCfg.getFingerprint() != null) {
+                builder = builder.withFingerprintPreCheck(cmpCfg.getFingerprint());
+            }
+            var parallel = cmpCfg.getParallelOnHuge();
+            if (parallel != null && Boolean.TRUE.equals(parallel.getEnable())) {
+                builder = builder.withParallelOnHuge(parallel.getMinElements(), parallel.getChunkSize());
+            }
+            if (cmpCfg.getMaxNodesVisited() != null) {
+                builder = builder.withMaxNodesVisited(cmpCfg.getMaxNodesVisited());
+            }
+            if (cmpCfg.getUnorderedLists() != null) {
+                builder = builder.withUnorderedLists(cmpCfg.getUnorderedLists());
+            }
+            if (cmpCfg.getMaxReportedDifferences() != null) {
+                builder = builder.withMaxDifferences(cmpCfg.getMaxReportedDifferences());
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public <R> R execute(Supplier<R> primary, Supplier<R> secondary, String serviceKey) {
+        var serviceConfig = validateServiceAndGetConfig(serviceKey, primary);
+        var primaryResult = executeIfServiceInvalid(serviceConfig, primary);
+        if (primaryResult != null) {
+            return primaryResult;
+        }
+
+        var shadowConfig = serviceConfig.getShadow();
+
+        if (shadowConfig == null || shadowConfig.getPercentage() == null || shadowConfig.getPercentage() <= 0) {
+            if (shadowConfig == null) {
+                return primary.get();
+            }
+            return executeStableMethod(primary, secondary, shadowConfig);
+        }
+
+        if (CAPTURE_MODE.equalsIgnoreCase(shadowConfig.getMode())) {
+            // Nothing to capture without the input; see execute(Function, Function, Object, String).
+            return executeStableMethod(primary, secondary, shadowConfig);
+        }
+
+        double mirrorPercentage = shadowConfig.getPercentage();
+        AdaptiveMirrorRate adaptiveRate = adaptiveRateFor(serviceKey, shadowConfig);
+        if (adaptiveRate != null) {
+            mirrorPercentage = adaptiveRate.effectivePercentage(System.nanoTime());
+            if (shadowConfig.getStable() == MethodType.PRIMARY) {
+                primary = timedStable(primary, adaptiveRate);
+            } else {
+                secondary = timedStable(secondary, adaptiveRate);
+            }
+        }
+
+        if (shouldMirror(serviceKey, shadowConfig, mirrorPercentage)) {
+            if (ASYNC_MODE.equalsIgnoreCase(shadowConfig.getMode())) {
+                return executeStableWithBackgroundMirror(primary, secondary, shadowConfig, serviceKey);
+            }
+            return executeAsyncSimultaneously(primary, secondary, shadowConfig, serviceKey);
+        } else {
+            return executeStableMethod(primary, secondary, shadowConfig);
+        }
+    }
+
+    /**
+     * In {@code capture} mode only the stable function runs and sampled calls are recorded with their input;
+     * all other modes behave exactly like the supplier variant.
+     */
+    @Override
+    public <T, R> R execute(Function<T, R> primary, Function<T, R> secondary, T input, String serviceKey) {
+        var serviceConfig = validateServiceAndGetConfig(serviceKey, null);
+        var shadowConfig = serviceConfig != null ? serviceConfig.getShadow() : null;
+        if (shadowConfig == null || !CAPTURE_MODE.equalsIgnoreCase(shadowConfig.getMode())) {
+            return DeploymentStrategy.super.execute(primary, secondary, input, serviceKey);
+        }
+
+        R stableResult = (shadowConfig.getStable() == MethodType.PRIMARY ? primary : secondary).apply(input);
+
+        double capturePercentage = shadowConfig.getPercentage() != null ? shadowConfig.getPercentage() : 0.0;
+        if (!isShutdown.get() && shouldMirror(serviceKey, shadowConfig, capturePercentage)) {
+            capture(serviceKey, shadowConfig, input, stableResult);
+        }
+        return stableResult;
+    }
+
+    /**
+     * Select the call when the percentage sampler picks it and, with {@code shadow.maxMirrorsPerSecond} set,
+     * the service's rate limiter still has room this instant.
+     */
+    private boolean shouldMirror(String serviceKey, InitializerConfiguration.Shadow shadowConfig, double percentage) {
+        var sampler = mirrorSamplers.computeIfAbsent(serviceKey, key -> new MirrorSampler());
+        if (!sampler.shouldMirror(MirrorSampler.toRatePpm(percentage))) {
+            return false;
+        }
+        MirrorRateLimiter rateLimiter = mirrorRateLimiters.computeIfAbsent(serviceKey, key -> {
+            Double mirrorsPerSecond = shadowConfig.getMaxMirrorsPerSecond();
+            return mirrorsPerSecond != null && mirrorsPerSecond > 0
+                    ? Optional.of(new MirrorRateLimiter(mirrorsPerSecond,
+                            valueOrDefault(shadowConfig.getMaxMirrorsBurst(), 1), System.nanoTime()))
+                    : Optional.empty();
+        }).orElse(null);
+        return rateLimiter == null || rateLimiter.tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Append the call to the service's capture log. Capture problems are logged and never reach the caller.
+     */
+    private void capture(String serviceKey, InitializerConfiguration.Shadow shadowConfig, Object input, Object output) {
+        CaptureLog captureLog = captureLogFor(serviceKey, shadowConfig);
+        if (captureLog == null) {
+            return;
+        }
+        try {
+            captureLog.append(input, output);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[MICROSWITCH-SHADOW] - Failed to capture call for service {}: {}", serviceKey, e.getMessage());
+        }
+    }
+
+    private CaptureLog captureLogFor(String serviceKey, InitializerConfiguration.Shadow shadowConfig) {
+        return captureLogs.computeIfAbsent(serviceKey, key -> {
+            var capture = shadowConfig.getCapture();
+            try {
+                long segmentSize = capture.getSegmentSizeBytes() != null ? capture.getSegmentSizeBytes() : 64L * 1024 * 1024;
+                long maxTotal = capture.getMaxTotalBytes() != null ? capture.getMaxTotalBytes() : 1024L * 1024 * 1024;
+                return Optional.of(new CaptureLog(Path.of(capture.getDirectory(), key), segmentSize, maxTotal));
+            } catch (IllegalArgumentException | UncheckedIOException e) {
+                log.warn("[MICROSWITCH-SHADOW] - Traffic capture disabled for service {}: {}", key, e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static <R> Supplier<R> timedStable(Supplier<R> stable, AdaptiveMirrorRate adaptiveRate) {
+        return () -> {
+            long startedAt = System.nanoTime();
+            try {
+                return stable.get();
+            } finally {
+                long now = System.nanoTime();
+                adaptiveRate.recordStableLatency(now - startedAt, now);
+            }
+        };
+    }
+
+    /**
+     * Adaptive rate controller of the service, created once when {@code shadow.adaptive.enabled} is set.
+     */
+    private AdaptiveMirrorRate adaptiveRateFor(String serviceKey, InitializerConfiguration.Shadow shadowConfig) {
+        return adaptiveRates.computeIfAbsent(serviceKey, key -> {
+            var adaptive = shadowConfig.getAdaptive();
+            if (adaptive == null || !Boolean.TRUE.equals(adaptive.getEnabled())) {
+                return Optional.empty();
+            }
+            try {
+                var config = new AdaptiveMirrorRate.Config(
+                        shadowConfig.getPercentage(),
+                        adaptive.getMinPercentage() != null ? adaptive.getMinPercentage() : 0.0,
+                        TimeUnit.MILLISECONDS.toNanos(adaptive.getLatencyThresholdMillis() != null ? adaptive.getLatencyThresholdMillis() : 0L),
+                        adaptive.getCpuThresholdPercent() != null ? adaptive.getCpuThresholdPercent() : 0.0,
+                        adaptive.getDecreaseFactor() != null ? adaptive.getDecreaseFactor() : 0.5,
+                        adaptive.getIncreaseStep() != null ? adaptive.getIncreaseStep() : 5.0,
+                        TimeUnit.MILLISECONDS.toNanos(adaptive.getEvaluationIntervalMillis() != null ? adaptive.getEvaluationIntervalMillis() : 1_000L));
+                var rate = new AdaptiveMirrorRate(config, Shadow::processCpuLoad, System.nanoTime());
+                if (deploymentMetrics != null) {
+                    deploymentMetrics.registerShadowMirrorRate(key, rate, AdaptiveMirrorRate::currentPercentage);
+                }
+                return Optional.of(rate);
+            } catch (IllegalArgumentException e) {
+                log.warn("[MICROSWITCH-SHADOW] - Adaptive mirroring disabled for service {}: {}", key, e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static double processCpuLoad() {
+        return OPERATING_SYSTEM instanceof com.sun.management.OperatingSystemMXBean os ? os.getProcessCpuLoad() : -1.0;
+    }
+
+    private <R> R executeStableMethod(Supplier<R> primary, Supplier<R> secondary, InitializerConfiguration.Shadow shadowConfig) {
+        var stableMethod = shadowConfig.getStable();
+        if (stableMethod == MethodType.PRIMARY) {
+            return primary.get();
+        } else {
+            return secondary.get();
+        }
+    }
+
+    private <R> R executeAsyncSimultaneously(Supplier<R> primary, Supplier<R> secondary, InitializerConfiguration.Shadow shadowConfig, String serviceKey) {
+        if (isShutdown.get()) {
+            log.warn("[MICROSWITCH-SHADOW] - Shadow executor is shutdown, falling back to stable method");
+            return executeStableMethod(primary, secondary, shadowConfig);
+        }
+
+        Supplier<R> stableSupplier = (shadowConfig.getStable() == MethodType.PRIMARY) ? primary : secondary;
+        Supplier<R> mirrorSupplier = (shadowConfig.getMirror() == MethodType.PRIMARY) ? primary : secondary;
+
+        MirrorTask<R> mirrorTask = submitMirror(mirrorSupplier, shadowConfig, serviceKey);
+        if (mirrorTask == null) {
+            return stableSupplier.get();
+        }
+        long mirrorDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(mirrorTask.timeoutMillis());
+
+        // Stable stays on the caller's thread so thread-bound context (transactions, MDC, pooled connections) applies.
+        R stableResult;
+        try {
+            stableResult = stableSupplier.get();
+        } catch (RuntimeException | Error e) {
+            mirrorTask.cancel(true);
+            throw e;
+        }
+
+        R mirrorResult = awaitMirror(mirrorTask, mirrorDeadlineNanos, serviceKey);
+        compareResults(stableResult, mirrorResult, mirrorTask.mirrorFingerprint(), shadowConfig, serviceKey);
+
+        return stableResult;
+    }
+
+    /**
+     * Fire-and-forget mirroring: the mirror is dispatched first so both sides observe the same moment,
+     * then the stable supplier runs on the calling thread and its result is returned as soon as it is
+     * available. The mirror outcome is compared in the background against the captured stable result.
+     */
+    private <R> R executeStableWithBackgroundMirror(Supplier<R> primary, Supplier<R> secondary, InitializerConfiguration.Shadow shadowConfig, String serviceKey) {
+        if (isShutdown.get()) {
+            log.warn("[MICROSWITCH-SHADOW] - Shadow executor is shutdown, falling back to stable method");
+            return executeStableMethod(primary, secondary, shadowConfig);
+        }
+
+        Supplier<R> stableSupplier = (shadowConfig.getStable() == MethodType.PRIMARY) ? primary : secondary;
+        Supplier<R> mirrorSupplier = (shadowConfig.getMirror() == MethodType.PRIMARY) ? primary : secondary;
+
+        MirrorTask<R> mirrorTask = submitMirror(mirrorSupplier, shadowConfig, serviceKey);
+        if (mirrorTask == null) {
+            return stableSupplier.get();
+        }
+        mirrorTask.cancelAfterDeadline(mirrorDeadlineScheduler);
+
+        R stableResult;
+        try {
+            stableResult = stableSupplier.get();
+        } catch (RuntimeException | Error e) {
+            mirrorTask.cancel(true);
+            throw e;
+        }
+
+        // Only hands the pair to the comparison queue, so it runs on the completing mirror thread rather than
+        // competing for a slot of a bounded mirror pool.
+        mirrorTask.completion().whenComplete((mirrorResult, throwable) -> {
+            if (throwable != null) {
+                logMirrorFailure(serviceKey, throwable);
+                return;
+            }
+            compareResults(stableResult, mirrorResult, mirrorTask.mirrorFingerprint(), shadowConfig, serviceKey);
+        });
+
+        return stableResult;
+    }
+
+    /**
+     * Dispatch the mirror on the shadow executor. Returns null if the executor refuses the task,
+     * in which case the caller continues with the stable path only.
+     */
+    private <R> MirrorTask<R> submitMirror(Supplier<R> mirrorSupplier, InitializerConfiguration.Shadow shadowConfig, String serviceKey) {
+        Runnable releasePermits = acquireMirrorPermits(shadowConfig, serviceKey);
+        if (releasePermits == null) {
+            return null;
+        }
+        // The mirror result is fingerprinted on the mirror thread, off the comparison workers.
+        DeepObjectComparator comparator = comparatorFor(serviceKey, shadowConfig);
+        var mirrorTask = new MirrorTask<>(mirrorSupplier, comparator != null ? comparator::fingerprint : null,
+                resolveMirrorTimeoutMillis(shadowConfig), releasePermits);
+        try {
+            executorFor(serviceKey, shadowConfig).execute(mirrorTask);
+            return mirrorTask;
+        } catch (RejectedExecutionException e) {
+            releasePermits.run();
+            recordDropped(serviceKey, DROP_REJECTED);
+            log.warn("[MICROSWITCH-SHADOW] - Mirror rejected for service {}: {}", serviceKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Take one per-service and one global mirror permit without waiting. Returns the action that gives
+     * both back, or null when a cap is reached and the mirror must be dropped.
+     */
+    private Runnable acquireMirrorPermits(InitializerConfiguration.Shadow shadowConfig, String serviceKey) {
+        Semaphore servicePermits = serviceMirrorPermits.computeIfAbsent(serviceKey, key -> {
+            Integer cap = shadowConfig.getMaxConcurrentMirrors();
+            return cap != null && cap > 0 ? Optional.of(new Semaphore(cap)) : Optional.empty();
+        }).orElse(null);
+
+        if (servicePermits != null && !servicePermits.tryAcquire()) {
+            recordDropped(serviceKey, DROP_SERVICE_LIMIT);
+            return null;
+        }
+        if (globalMirrorPermits != null && !globalMirrorPermits.tryAcquire()) {
+            if (servicePermits != null) {
+                servicePermits.release();
+            }
+            recordDropped(serviceKey, DROP_GLOBAL_LIMIT);
+            return null;
+        }
+        return () -> {
+            if (globalMirrorPermits != null) {
+                globalMirrorPermits.release();
+            }
+            if (servicePermits != null) {
+                servicePermits.release();
+            }
+        };
+    }
+
+    private void recordDropped(String serviceKey, String reason) {
+        log.debug("[MICROSWITCH-SHADOW] - Mirror dropped for service {} ({})", serviceKey, reason);
+        if (deploymentMetrics != null) {
+            deploymentMetrics.recordShadowDropped(serviceKey, reason);
+        }
+    }
+
+    /**
+     * Wait for the mirror until its deadline. The timeout applies to the mirror only: on expiry the
+     * mirror is cancelled, its thread interrupted, and null is returned so the stable result stands.
+     */
+    private <R> R awaitMirror(MirrorTask<R> mirrorTask, long deadlineNanos, String serviceKey) {
+        try {
+            return mirrorTask.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            mirrorTask.cancel(true);
+            log.warn("[MICROSWITCH-SHADOW] - Mirror exceeded deadline of {} ms for service {}, cancelled",
+                    mirrorTask.timeoutMillis(), serviceKey);
+        } catch (ExecutionException e) {
+            logMirrorFailure(serviceKey, e.getCause());
+        } catch (CancellationException e) {
+            logMirrorFailure(serviceKey, e);
+        } catch (InterruptedException e) {
+            mirrorTask.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private void logMirrorFailure(String serviceKey, Throwable throwable) {
+        log.warn("[MICROSWITCH-SHADOW] - Mirror execution failed for service {}: {}", serviceKey, throwable.getMessage());
+    }
+
+    private long resolveMirrorTimeoutMillis(InitializerConfiguration.Shadow shadowConfig) {
+        Long configured = shadowConfig.getMirrorTimeoutMillis();
+        return configured != null && configured > 0 ? configured : TimeUnit.SECONDS.toMillis(DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    private <R> void compareResults(R stableResult, R mirrorResult, long mirrorFingerprint,
+                                    InitializerConfiguration.Shadow shadowConfig, String serviceKey) {
+        if (Objects.isNull(mirrorResult)) {
+            log.warn("[MICROSWITCH-SHADOW] - Shadow result is null. The shadow function may have thrown an exception or returned null.");
+            return;
+        }
+
+        if (comparatorFor(serviceKey, shadowConfig) != null) {
+            ComparisonPipeline pipeline = comparisonPipeline();
+            if (pipeline == null) {
+                log.debug("[MICROSWITCH-SHADOW] - Shadow is shut down, comparison skipped for service: {}", serviceKey);
+                return;
+            }
+            pipeline.submit(serviceKey, stableResult, mirrorResult, mirrorFingerprint);
+        }
+    }
+
+    private void runComparison(ComparisonPipeline.ComparisonJob job) {
+        DeepObjectComparator comparator = serviceComparators.get(job.serviceKey()).orElseThrow();
+        ComparisonResult result = comparator.compare(job.stable(), job.mirror(),
+                comparator.fingerprint(job.stable()), job.mirrorFingerprint());
+        if (!result.equal() && result.differences().isEmpty()
+                && result.exhaustedBudget() != ComparisonResult.Budget.NONE) {
+            // Gave up before finding a difference: inconclusive, not a mismatch without paths.
+            log.debug("[MICROSWITCH-COMPARISON] Shadow comparison inconclusive for service: {} - {} budget exhausted " +
+                    "before any difference was found", job.serviceKey(), result.exhaustedBudget());
+            if (deploymentMetrics != null) {
+                deploymentMetrics.recordShadowInconclusive(job.serviceKey(), result.exhaustedBudget().name());
+            }
+        } else if (!result.equal()) {
+            recordMismatchSignatures(job.serviceKey(), result);
+            MismatchRing history = mismatchHistory.get(job.serviceKey());
+            if (history != null) {
+                history.add(new ShadowMismatch(job.serviceKey(), Instant.now(), result.differences(), result.truncated(),
+                        result.exhaustedBudget(), result.samplingSeed()));
+            }
+        } else {
+            log.debug("[MICROSWITCH-COMPARISON] Shadow execution successful - results match for service: {} " +
+                    "(deep comparison validated)", job.serviceKey());
+        }
+    }
+
+    /**
+     * Count the mismatch per path signature and log it only when the service's sample interval has elapsed.
+     */
+    private void recordMismatchSignatures(String serviceKey, ComparisonResult result) {
+        MismatchSignatures signatures = mismatchSignatures.get(serviceKey);
+        List<String> counted = signatures.record(result);
+        if (deploymentMetrics != null) {
+            counted.forEach(signature -> deploymentMetrics.recordShadowMismatch(serviceKey, signature));
+        }
+        long suppressed = signatures.tryClaimLogSample(System.nanoTime());
+        if (suppressed >= 0) {
+            log.warn("[MICROSWITCH-COMPARISON] Shadow result does not match stable result for service: {} at {} " +
+                    "({} further mismatches since the last sample, samplingSeed={}, exhaustedBudget={}). Differences: {}",
+                    serviceKey, counted, suppressed, result.samplingSeed(), result.exhaustedBudget(), result.differences());
+        }
+    }
+
+    /**
+     * The most recent mismatches recorded for the service, newest first. Empty when deep comparison or the
+     * mismatch history is disabled for it.
+     */
+    public List<ShadowMismatch> recentMismatches(String serviceKey) {
+        MismatchRing history = mismatchHistory.get(serviceKey);
+        return history != null ? history.snapshot() : List.of();
+    }
+
+    /**
+     * The {@code limit} most frequent mismatch signatures of the service, most frequent first. Empty when
+     * deep comparison is disabled for it.
+     */
+    public List<MismatchSignature> topMismatchSignatures(String serviceKey, int limit) {
+        MismatchSignatures signatures = mismatchSignatures.get(serviceKey);
+        return signatures != null ? signatures.top(limit) : List.of();
+    }
+
+    /**
+     * The pipeline and its worker threads are only created once a comparison is actually submitted, and never
+     * once {@link #shutdown()} has started: it then returns null. The check is made under the lock
+     * {@link #shutdown()} drains the pipeline with, so a pipeline created first is always drained.
+     */
+    private ComparisonPipeline comparisonPipeline() {
+        ComparisonPipeline pipeline = comparisonPipeline;
+        if (pipeline == null) {
+            synchronized (this) {
+                pipeline = comparisonPipeline;
+                if (pipeline == null) {
+                    if (isShutdown.get()) {
+                        return null;
+                    }
+                    var queueConfig = configuration.getShadow().getComparison();
+                    pipeline = new ComparisonPipeline(
+                            valueOrDefault(queueConfig.getQueueCapacity(), 1024),
+                            valueOrDefault(queueConfig.getWorkers(), 1),
+                            valueOrDefault(queueConfig.getBatchSize(), 32),
+                            queueConfig.getOverflow(),
+                            deploymentMetrics,
+                            Thread.ofPlatform().name("shadow-compare-", 0).daemon(true)
+                                    .priority(threadPriority(queueConfig.getPriority())).factory(),
+                            this::runComparison);
+                    comparisonPipeline = pipeline;
+                }
+            }
+        }
+        return pipeline;
+    }
+
+    private static int valueOrDefault(Integer value, int defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    private static int threadPriority(Integer priority) {
+        return Math.min(Thread.MAX_PRIORITY, valueOrDefault(priority, Thread.NORM_PRIORITY));
+    }
+
+    /**
+     * Stop mirroring and drain: in-flight mirrors and queued comparisons get until
+     * {@code microswitch.shadow.shutdownTimeoutMillis} to finish, whatever is still running then is interrupted.
+     * Calls after the first are no-ops.
+     */
+    public void shutdown() {
+        if (!isShutdown.compareAndSet(false, true)) {
+            return;
+        }
+        Long configuredTimeout = configuration.getShadow().getShutdownTimeoutMillis();
+        long timeoutMillis = configuredTimeout != null && configuredTimeout >= 0 ? configuredTimeout : DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            mirrorExecutors.values().forEach(ExecutorService::shutdown);
+            for (ExecutorService executor : mirrorExecutors.values()) {
+                if (!executor.awaitTermination(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    executor.shutdownNow();
+                }
+            }
+            synchronized (this) {
+                if (comparisonPipeline != null) {
+                    comparisonPipeline.shutdown(deadlineNanos);
+                }
+            }
+        } catch (InterruptedException e) {
+            mirrorExecutors.values().forEach(ExecutorService::shutdownNow);
+            synchronized (this) {
+                if (comparisonPipeline != null) {
+                    comparisonPipeline.shutdown();
+                }
+            }
+            Thread.currentThread().interrupt();
+        } finally {
+            mirrorDeadlineScheduler.shutdownNow();
+            captureLogs.values().forEach(captureLog -> captureLog.ifPresent(CaptureLog::close));
+        }
+        log.info("[MICROSWITCH-SHADOW] - Shadow executors shutdown completed");
+    }
+
+    /**
+     * Same as {@link #shutdown()}, for try-with-resources outside a Spring context.
+     */
+    @Override
+    public void close() {
+        shutdown();
+    }
+}
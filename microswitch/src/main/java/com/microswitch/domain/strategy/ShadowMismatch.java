@@ -0,0 +1,21 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.domain.util.ComparisonResult;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A shadow comparison that found differences, kept in the per-service mismatch history.
+ *
+ * @param serviceKey  the service whose stable and mirror results differed
+ * @param detectedAt  when the comparison finished
+ * @param differences the first differing paths with truncated stable and mirror values
+ * @param truncated   true when more differences may exist beyond the reported ones
+ * @param exhaustedBudget the comparison budget that cut the comparison short, if any
+ * @param samplingSeed    the seed that replays the sampling of huge collections, or 0 if none was sampled
+ */
+public record ShadowMismatch(String serviceKey, Instant detectedAt,
+                             List<ComparisonResult.Difference> differences, boolean truncated,
+                             ComparisonResult.Budget exhaustedBudget, long samplingSeed) {
+}
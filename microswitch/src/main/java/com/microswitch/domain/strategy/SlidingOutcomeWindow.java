@@ -0,0 +1,107 @@
+package com.microswitch.domain.strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding window of call outcomes backed by a time-bucketed ring of counters.
+ * <p>
+ * The window is split into a fixed number of buckets. Each bucket remembers the absolute slot it
+ * was last written for; a writer landing on a stale bucket claims it with a CAS and clears it
+ * before counting. Readers sum only buckets whose slot still falls inside the window.
+ * <p>
+ * Counts are approximate under contention: an increment racing with the reset of a recycled
+ * bucket may be lost. That is acceptable for threshold detection and keeps the hot path to a
+ * handful of atomic adds without any locking.
+ */
+final class SlidingOutcomeWindow {
+
+    private static final int DEFAULT_BUCKETS = 10;
+
+    private final int bucketCount;
+    private final long bucketNanos;
+    private final long originNanos;
+    private final AtomicLongArray slots;
+    private final AtomicLongArray requests;
+    private final AtomicLongArray errors;
+    private final AtomicLongArray latencyNanos;
+
+    /**
+     * Immutable aggregate of the buckets that are still inside the window.
+     */
+    record Snapshot(long requests, long errors, long totalLatencyNanos) {
+        double errorRatePercent() {
+            return requests == 0 ? 0.0 : (double) errors * 100.0 / requests;
+        }
+
+        double averageLatencyMillis() {
+            return requests == 0 ? 0.0 : (double) totalLatencyNanos / requests / 1_000_000.0;
+        }
+    }
+
+    SlidingOutcomeWindow(long windowNanos) {
+        this(windowNanos, DEFAULT_BUCKETS);
+    }
+
+    SlidingOutcomeWindow(long windowNanos, int bucketCount) {
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("Window length must be positive, got: " + windowNanos);
+        }
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket count must be positive, got: " + bucketCount);
+        }
+        this.bucketCount = bucketCount;
+        this.bucketNanos = Math.max(1L, windowNanos / bucketCount);
+        this.originNanos = System.nanoTime();
+        this.slots = new AtomicLongArray(bucketCount);
+        this.requests = new AtomicLongArray(bucketCount);
+        this.errors = new AtomicLongArray(bucketCount);
+        this.latencyNanos = new AtomicLongArray(bucketCount);
+        reset();
+    }
+
+    void record(boolean success, long latency, long nowNanos) {
+        long slot = slotOf(nowNanos);
+        int index = (int) (slot % bucketCount);
+        long current = slots.get(index);
+        if (slot > current && slots.compareAndSet(index, current, slot)) {
+            requests.set(index, 0L);
+            errors.set(index, 0L);
+            latencyNanos.set(index, 0L);
+        }
+        requests.incrementAndGet(index);
+        if (!success) {
+            errors.incrementAndGet(index);
+        }
+        latencyNanos.addAndGet(index, Math.max(0L, latency));
+    }
+
+    Snapshot snapshot(long nowNanos) {
+        long slot = slotOf(nowNanos);
+        long oldestLiveSlot = slot - bucketCount + 1;
+        long totalRequests = 0L;
+        long totalErrors = 0L;
+        long totalLatency = 0L;
+        for (int i = 0; i < bucketCount; i++) {
+            long bucketSlot = slots.get(i);
+            if (bucketSlot >= oldestLiveSlot && bucketSlot <= slot) {
+                totalRequests += requests.get(i);
+                totalErrors += errors.get(i);
+                totalLatency += latencyNanos.get(i);
+            }
+        }
+        return new Snapshot(totalRequests, totalErrors, totalLatency);
+    }
+
+    /**
+     * Invalidate every bucket. Concurrent writers simply start a fresh bucket.
+     */
+    void reset() {
+        for (int i = 0; i < bucketCount; i++) {
+            slots.set(i, -1L);
+        }
+    }
+
+    private long slotOf(long nowNanos) {
+        return Math.max(0L, nowNanos - originNanos) / bucketNanos;
+    }
+}
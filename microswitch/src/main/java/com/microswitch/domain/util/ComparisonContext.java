@@ -0,0 +1,319 @@
+package com.microswitch.domain.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * State of a single comparison run, threaded through the recursive compare methods.
+ * <p>
+ * When {@code maxDifferences} is 0 the first difference stops the comparison, which is what
+ * {@link DeepObjectComparator#areEqual(Object, Object)} needs. Otherwise up to {@code maxDifferences}
+ * differing paths are collected before the comparison stops.
+ * <p>
+ * Cycle tracking is taken lazily, the first time a container or reference-holding object is entered, from a
+ * per-thread spare {@link IdentityPairSet}, and handed back by {@link #release()}; comparisons of scalars and
+ * flat objects never touch it.
+ * <p>
+ * The path being compared is kept as a stack of segments - field names, list and array indices, map keys -
+ * pushed and popped around each child comparison. It is only rendered into a string such as
+ * {@code items[2].price} when a difference is recorded, so matching comparisons build no path strings and map
+ * keys are only converted with {@code toString()} when reported. The same stack also renders the difference's
+ * signature, in which indices and keys are {@code [*]}.
+ */
+final class ComparisonContext {
+
+    private static final String ROOT_PATH = "$";
+    private static final String ELLIPSIS = "...";
+    private static final int INITIAL_PATH_DEPTH = 16;
+    private static final byte FIELD = 0;
+    private static final byte INDEX = 1;
+    private static final byte KEY = 2;
+
+    private static final ThreadLocal<IdentityPairSet> SPARE_VISITED = new ThreadLocal<>();
+
+    final long startedAtNanos;
+    /**
+     * Nodes counted against the comparator's budgets so far.
+     */
+    long nodesVisited;
+    private ComparisonResult.Budget exhaustedBudget = ComparisonResult.Budget.NONE;
+    private boolean probe;
+    private final long samplingSeed;
+    private int sampledCollections;
+    private boolean sampled;
+    private IdentityPairSet visited;
+    private final int maxDifferences;
+    private final int maxValueLength;
+    private List<ComparisonResult.Difference> differences;
+    private boolean truncated;
+    private byte[] segmentKinds;
+    private Object[] segmentNames;
+    private int[] segmentIndices;
+    private int pathDepth;
+
+    ComparisonContext(long startedAtNanos, int maxDifferences, int maxValueLength, long samplingSeed) {
+        this.startedAtNanos = startedAtNanos;
+        this.samplingSeed = samplingSeed;
+        this.maxDifferences = Math.max(0, maxDifferences);
+        this.maxValueLength = Math.max(ELLIPSIS.length() + 1, maxValueLength);
+    }
+
+    /**
+     * Record a difference at the current path. Always returns false so callers can {@code return mismatch(...)}
+     * from methods answering "are these equal".
+     */
+    boolean mismatch(Object stable, Object mirror) {
+        if (maxDifferences == 0) {
+            return false;
+        }
+        if (differences == null) {
+            differences = new ArrayList<>(Math.min(maxDifferences, 16));
+        }
+        if (differences.size() < maxDifferences) {
+            String path = path();
+            differences.add(new ComparisonResult.Difference(
+                    path.isEmpty() ? ROOT_PATH : path, signature(), render(stable), render(mirror)));
+        } else {
+            truncated = true;
+        }
+        return false;
+    }
+
+    /**
+     * Enter a field of the object at the current path.
+     */
+    void pushField(String name) {
+        push(FIELD, name, 0);
+    }
+
+    /**
+     * Enter an element of the list or array at the current path.
+     */
+    void pushIndex(int index) {
+        push(INDEX, null, index);
+    }
+
+    /**
+     * Enter a value of the map at the current path; the key is rendered only if a difference is reported below it.
+     */
+    void pushKey(Object key) {
+        push(KEY, key, 0);
+    }
+
+    /**
+     * Leave the segment entered last.
+     */
+    void pop() {
+        segmentNames[--pathDepth] = null;
+    }
+
+    /**
+     * Go back to the root, e.g. to report a failed comparison as a whole.
+     */
+    void clearPath() {
+        while (pathDepth > 0) {
+            pop();
+        }
+    }
+
+    /**
+     * The current path, e.g. {@code order.items[2].price}; empty at the root.
+     */
+    String path() {
+        if (pathDepth == 0) {
+            return "";
+        }
+        StringBuilder path = new StringBuilder(pathDepth * 8);
+        for (int i = 0; i < pathDepth; i++) {
+            if (segmentKinds[i] == INDEX) {
+                path.append('[').append(segmentIndices[i]).append(']');
+            } else {
+                if (!path.isEmpty()) {
+                    path.append('.');
+                }
+                path.append(segmentNames[i]);
+            }
+        }
+        return path.toString();
+    }
+
+    /**
+     * The current path with every index and map key replaced by {@code [*]}, e.g. {@code order.items[*].price};
+     * {@code $} at the root.
+     */
+    String signature() {
+        if (pathDepth == 0) {
+            return ROOT_PATH;
+        }
+        StringBuilder signature = new StringBuilder(pathDepth * 8);
+        for (int i = 0; i < pathDepth; i++) {
+            if (segmentKinds[i] == FIELD) {
+                if (!signature.isEmpty()) {
+                    signature.append('.');
+                }
+                signature.append(segmentNames[i]);
+            } else {
+                signature.append("[*]");
+            }
+        }
+        return signature.toString();
+    }
+
+    private void push(byte kind, Object name, int index) {
+        if (segmentKinds == null) {
+            segmentKinds = new byte[INITIAL_PATH_DEPTH];
+            segmentNames = new Object[INITIAL_PATH_DEPTH];
+            segmentIndices = new int[INITIAL_PATH_DEPTH];
+        } else if (pathDepth == segmentKinds.length) {
+            int length = pathDepth * 2;
+            segmentKinds = Arrays.copyOf(segmentKinds, length);
+            segmentNames = Arrays.copyOf(segmentNames, length);
+            segmentIndices = Arrays.copyOf(segmentIndices, length);
+        }
+        segmentKinds[pathDepth] = kind;
+        segmentNames[pathDepth] = name;
+        segmentIndices[pathDepth] = index;
+        pathDepth++;
+    }
+
+    /**
+     * Mark a pair as being compared.
+     *
+     * @return false when the pair was entered before in this comparison
+     */
+    boolean firstVisit(Object stable, Object mirror) {
+        if (visited == null) {
+            visited = SPARE_VISITED.get();
+            if (visited == null) {
+                visited = new IdentityPairSet();
+            } else {
+                // Taken, not shared: a comparison started from inside this one gets its own set.
+                SPARE_VISITED.set(null);
+            }
+        }
+        return visited.add(stable, mirror);
+    }
+
+    /**
+     * Hand the cycle-tracking set back for the next comparison on this thread.
+     */
+    void release() {
+        if (visited != null) {
+            if (visited.isRetainable()) {
+                visited.clear();
+                SPARE_VISITED.set(visited);
+            }
+            visited = null;
+        }
+    }
+
+    /**
+     * Whether the comparison may stop at the difference just found.
+     */
+    boolean shouldStop() {
+        if (maxDifferences == 0) {
+            return true;
+        }
+        if (differences != null && differences.size() >= maxDifferences) {
+            truncated = true;
+            return true;
+        }
+        return false;
+    }
+
+    boolean hasDifferences() {
+        return differences != null && !differences.isEmpty();
+    }
+
+    /**
+     * A silent context for trial comparisons, continuing this context's budget. Hand its count back with
+     * {@link #absorb(ComparisonContext)}.
+     */
+    ComparisonContext probe() {
+        ComparisonContext probe = new ComparisonContext(startedAtNanos, 0, 0, samplingSeed);
+        probe.nodesVisited = nodesVisited;
+        probe.sampledCollections = sampledCollections;
+        probe.exhaustedBudget = exhaustedBudget;
+        probe.probe = true;
+        return probe;
+    }
+
+    /**
+     * Take over the node count, sampling and exhausted budget of a probe.
+     *
+     * @return true when the probe exhausted a budget this context had not, so it should be logged
+     */
+    boolean absorb(ComparisonContext probe) {
+        nodesVisited = probe.nodesVisited;
+        sampledCollections = probe.sampledCollections;
+        sampled |= probe.sampled;
+        return probe.exhaustedBudget != ComparisonResult.Budget.NONE && exhaust(probe.exhaustedBudget);
+    }
+
+    /**
+     * Mark a budget as exhausted.
+     *
+     * @return true when this is the first budget exhausted and the context is not a probe, so it should be logged
+     */
+    boolean exhaust(ComparisonResult.Budget budget) {
+        if (exhaustedBudget != ComparisonResult.Budget.NONE) {
+            return false;
+        }
+        exhaustedBudget = budget;
+        return !probe;
+    }
+
+    ComparisonResult.Budget exhaustedBudget() {
+        return exhaustedBudget;
+    }
+
+    /**
+     * Seed for the positions of the next collection sampled in this comparison.
+     */
+    long nextSampleSeed() {
+        sampled = true;
+        return StratifiedSample.streamSeed(samplingSeed, sampledCollections++);
+    }
+
+    /**
+     * Ordinal the next sampled collection will get.
+     */
+    int sampleOrdinal() {
+        return sampledCollections;
+    }
+
+    /**
+     * Number the collections sampled from here on from {@code ordinal}, as a context at that ordinal would.
+     */
+    void rewindSampling(int ordinal) {
+        sampledCollections = ordinal;
+    }
+
+    /**
+     * Whether any collection was sampled rather than compared in full.
+     */
+    boolean sampled() {
+        return sampled;
+    }
+
+    void markSampled() {
+        sampled = true;
+    }
+
+    ComparisonResult toResult(boolean equal) {
+        if (equal) {
+            return ComparisonResult.EQUAL;
+        }
+        return new ComparisonResult(false, differences == null ? List.of() : List.copyOf(differences), truncated,
+                exhaustedBudget, sampled ? samplingSeed : 0L);
+    }
+
+    private String render(Object value) {
+        String text = String.valueOf(value);
+        if (text.length() <= maxValueLength) {
+            return text;
+        }
+        return text.substring(0, maxValueLength - ELLIPSIS.length()) + ELLIPSIS;
+    }
+}
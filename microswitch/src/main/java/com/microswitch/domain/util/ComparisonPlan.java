@@ -0,0 +1,299 @@
+package com.microswitch.domain.util;
+
+import com.microswitch.domain.comparator.ShadowComparable;
+import com.microswitch.domain.comparator.ShadowComparator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * How {@link DeepObjectComparator} and {@link StructuralFingerprint} read one class, compiled once per class
+ * and comparator.
+ * <p>
+ * The plan is a precomputed field list: only the fields that take part (static, transient and ignored fields
+ * are dropped at compile time), each tagged with a {@link Kind} and read through a getter handle whose access
+ * was checked once, when the plan was compiled. Primitive fields are read as {@code long}, {@code double},
+ * {@code boolean} or {@code char} without boxing and strings are compared in place, so the walk over a flat DTO
+ * is a loop over an array without re-checking modifiers, ignored names, types or access on every visit. The
+ * handles are plain, non-constant {@link MethodHandle}s; no per-class code is generated.
+ * <p>
+ * The fields compared are the ones this library may read without {@code setAccessible}, as before plans:
+ * typically public fields of public classes. Other fields (private fields included) are left out and named
+ * once per class in a warning, where they used to be skipped with a warning on every visit.
+ * <p>
+ * A class annotated {@link ShadowComparable} whose build generated a {@link ShadowComparator} gets a plan
+ * holding that comparator instead: no field is looked up or opened reflectively, and the walk and the
+ * fingerprint hand the comparator a sink that applies the same rules to the fields it reads.
+ */
+@Slf4j
+final class ComparisonPlan {
+
+    /**
+     * What a field holds, deciding how it is read and compared.
+     */
+    enum Kind {
+        /** {@code byte}, {@code short}, {@code int} or {@code long}, read as {@code long}. */
+        LONG,
+        /** {@code float} or {@code double}, read as {@code double}. */
+        DOUBLE,
+        BOOLEAN,
+        CHAR,
+        /** A field declared as {@code String}. */
+        STRING,
+        /** Any other reference; compared by the generic walk. */
+        REFERENCE
+    }
+
+    private static final String GENERATED_SUFFIX = "ShadowComparator";
+    private static final Accessor[] NO_ACCESSORS = new Accessor[0];
+
+    private static final MethodType AS_LONG = MethodType.methodType(long.class, Object.class);
+    private static final MethodType AS_DOUBLE = MethodType.methodType(double.class, Object.class);
+    private static final MethodType AS_BOOLEAN = MethodType.methodType(boolean.class, Object.class);
+    private static final MethodType AS_CHAR = MethodType.methodType(char.class, Object.class);
+    private static final MethodType AS_OBJECT = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * A readable field: its name, kind and a getter of type {@code (Object)} returning the kind's carrier.
+     */
+    static final class Accessor {
+        final String name;
+        final Kind kind;
+        private final MethodHandle getter;
+
+        private Accessor(String name, Kind kind, MethodHandle getter) {
+            this.name = name;
+            this.kind = kind;
+            this.getter = getter;
+        }
+
+        long getLong(Object target) {
+            try {
+                return (long) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw readFailure(e);
+            }
+        }
+
+        double getDouble(Object target) {
+            try {
+                return (double) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw readFailure(e);
+            }
+        }
+
+        boolean getBoolean(Object target) {
+            try {
+                return (boolean) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw readFailure(e);
+            }
+        }
+
+        char getChar(Object target) {
+            try {
+                return (char) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw readFailure(e);
+            }
+        }
+
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw readFailure(e);
+            }
+        }
+
+        /**
+         * The field's value boxed, for reporting a difference.
+         */
+        Object boxed(Object target) {
+            return switch (kind) {
+                case LONG -> getLong(target);
+                case DOUBLE -> getDouble(target);
+                case BOOLEAN -> getBoolean(target);
+                case CHAR -> getChar(target);
+                default -> get(target);
+            };
+        }
+
+        private RuntimeException readFailure(Throwable e) {
+            if (e instanceof RuntimeException runtime) {
+                return runtime;
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException("Failed to read field " + name, e);
+        }
+    }
+
+    private final Accessor[] accessors;
+    private final ShadowComparator<Object> generated;
+    private final String[] generatedFields;
+    private final boolean[] skipped;
+    private final boolean hasReferences;
+
+    private ComparisonPlan(Accessor[] accessors) {
+        this.accessors = accessors;
+        this.hasReferences = hasReferences(accessors);
+        this.generated = null;
+        this.generatedFields = null;
+        this.skipped = null;
+    }
+
+    private ComparisonPlan(ShadowComparator<Object> generated, String[] generatedFields, boolean[] skipped) {
+        this.accessors = NO_ACCESSORS;
+        this.hasReferences = true;
+        this.generated = generated;
+        this.generatedFields = generatedFields;
+        this.skipped = skipped;
+    }
+
+    /**
+     * The readable, non-skipped fields in declaration order (subclass first).
+     */
+    Accessor[] accessors() {
+        return accessors;
+    }
+
+    /**
+     * Whether instances hold references other than strings, through which the graph could cycle back. Assumed
+     * for generated comparators, whose fields are not known here.
+     */
+    boolean hasReferences() {
+        return hasReferences;
+    }
+
+    private static boolean hasReferences(Accessor[] accessors) {
+        for (Accessor accessor : accessors) {
+            if (accessor.kind == Kind.REFERENCE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The build-time comparator of the class, or null when its fields are read through {@link #accessors()}.
+     */
+    ShadowComparator<Object> generated() {
+        return generated;
+    }
+
+    /**
+     * Name of a field of the generated comparator.
+     */
+    String fieldName(int field) {
+        return generatedFields[field];
+    }
+
+    /**
+     * Whether a field of the generated comparator is ignored or beyond the per-class field cap.
+     */
+    boolean skipped(int field) {
+        return skipped[field];
+    }
+
+    /**
+     * Plan for a class with a generated comparator. Ignored fields and fields past {@code maxFields} are
+     * resolved to a mask here, so the comparator's {@code skip} calls are array reads.
+     */
+    static ComparisonPlan generated(ShadowComparator<Object> comparator, Predicate<String> ignored, int maxFields) {
+        String[] names = comparator.fieldNames();
+        boolean[] skipped = new boolean[names.length];
+        for (int i = 0; i < names.length; i++) {
+            skipped[i] = i >= maxFields || ignored.test(names[i]);
+        }
+        return new ComparisonPlan(comparator, names, skipped);
+    }
+
+    /**
+     * The comparator generated for a {@link ShadowComparable} class, found by naming convention in the class's
+     * package and loader, or null when the class is not annotated or nothing was generated for it.
+     */
+    @SuppressWarnings("unchecked")
+    static ShadowComparator<Object> findGenerated(Class<?> type) {
+        if (!type.isAnnotationPresent(ShadowComparable.class)) {
+            return null;
+        }
+        String packageName = type.getPackageName();
+        String nestedName = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+        String comparatorName = (packageName.isEmpty() ? "" : packageName + ".") + nestedName.replace('$', '_') + GENERATED_SUFFIX;
+        try {
+            Class<?> comparatorType = Class.forName(comparatorName, true, type.getClassLoader());
+            if (!ShadowComparator.class.isAssignableFrom(comparatorType)) {
+                log.warn("[MICROSWITCH-COMPARATOR] - {} does not implement ShadowComparator, comparing {} reflectively",
+                        comparatorName, type.getName());
+                return null;
+            }
+            return (ShadowComparator<Object>) comparatorType.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            log.debug("[MICROSWITCH-COMPARATOR] - No generated comparator for {}, comparing it reflectively", type.getName());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("[MICROSWITCH-COMPARATOR] - Generated comparator {} cannot be instantiated, comparing {} reflectively: {}",
+                    comparatorName, type.getName(), e.getMessage());
+        }
+        return null;
+    }
+
+    static ComparisonPlan compile(Class<?> type, Field[] fields, Predicate<Field> skipField) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Accessor> accessors = new ArrayList<>(fields.length);
+        List<String> inaccessible = null;
+        for (Field field : fields) {
+            if (skipField.test(field)) {
+                continue;
+            }
+            Kind kind = kindOf(field.getType());
+            try {
+                accessors.add(new Accessor(field.getName(), kind, lookup.unreflectGetter(field).asType(carrierOf(kind))));
+            } catch (IllegalAccessException e) {
+                if (inaccessible == null) {
+                    inaccessible = new ArrayList<>();
+                }
+                inaccessible.add(field.getName());
+            }
+        }
+        if (inaccessible != null) {
+            log.warn("[MICROSWITCH-COMPARATOR] - Fields {} of {} are not accessible and are not compared",
+                    inaccessible, type.getName());
+        }
+        return new ComparisonPlan(accessors.toArray(NO_ACCESSORS));
+    }
+
+    private static MethodType carrierOf(Kind kind) {
+        return switch (kind) {
+            case LONG -> AS_LONG;
+            case DOUBLE -> AS_DOUBLE;
+            case BOOLEAN -> AS_BOOLEAN;
+            case CHAR -> AS_CHAR;
+            default -> AS_OBJECT;
+        };
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if (type == double.class || type == float.class) {
+            return Kind.DOUBLE;
+        }
+        if (type == boolean.class) {
+            return Kind.BOOLEAN;
+        }
+        if (type == char.class) {
+            return Kind.CHAR;
+        }
+        if (type.isPrimitive()) {
+            return Kind.LONG;
+        }
+        return type == String.class ? Kind.STRING : Kind.REFERENCE;
+    }
+}
@@ -0,0 +1,46 @@
+package com.microswitch.domain.util;
+
+import java.util.List;
+
+/**
+ * Outcome of a deep comparison together with the first differing paths.
+ * <p>
+ * Paths use a compact dotted notation rooted at the compared object: {@code items[2].price}, where
+ * fields and map keys are joined with dots, {@code [3]} is a list or array index and {@code $} is the
+ * root itself. Values are rendered with {@code toString()} and truncated, so a result stays small enough
+ * to be retained for later inspection.
+ *
+ * @param equal       whether the two objects are considered equal
+ * @param differences the first differing paths, at most the comparator's {@code maxDifferences}
+ * @param truncated   true when collection stopped at the limit, so further differences may exist
+ * @param exhaustedBudget the budget that ended the comparison early, {@link Budget#NONE} when it ran to the end
+ * @param samplingSeed    seed of the positions sampled in huge collections, to replay the comparison with
+ *                        {@code withSamplingSeed}; 0 when nothing was sampled
+ */
+public record ComparisonResult(boolean equal, List<Difference> differences, boolean truncated,
+                               Budget exhaustedBudget, long samplingSeed) {
+
+    static final ComparisonResult EQUAL = new ComparisonResult(true, List.of(), false, Budget.NONE, 0L);
+
+    /**
+     * A comparison budget. A comparison that exhausts one gives up and is reported as not equal.
+     */
+    public enum Budget {
+        /** No budget ran out. */
+        NONE,
+        /** {@code maxCompareTimeMillis} passed. */
+        TIME,
+        /** More than {@code maxNodesVisited} nodes were visited. */
+        NODES
+    }
+
+    /**
+     * A single differing path with the stable and mirror values rendered as truncated strings.
+     *
+     * @param path      where the values differ, map keys included, e.g. {@code orders.c-42.lines[3].sku}
+     * @param signature the path with every list or array index and map key replaced by {@code [*]}, e.g.
+     *                  {@code orders[*].lines[*].sku}, so it neither grows with nor reveals the payload
+     */
+    public record Difference(String path, String signature, String stable, String mirror) {
+    }
+}
@@ -0,0 +1,1422 @@
+package com.microswitch.domain.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.microswitch.domain.comparator.ShadowComparator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Efficient deep object comparator for shadow traffic validation.
+ * Provides multiple comparison strategies optimized for different scenarios.
+ */
+@Slf4j
+public class DeepObjectComparator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+
+    private static final Map<Class<?>, Field[]> FIELD_CACHE = new ConcurrentHashMap<>();
+    private static final Short COLLECTION_OPTIMIZED_THRESHOLD = 500;
+    /**
+     * Primitive arrays are compared with vectorized {@code Arrays.mismatch}, so they only go parallel, and are
+     * only split, at this multiple of the element thresholds.
+     */
+    private static final int PRIMITIVE_PARALLEL_FACTOR = 64;
+    /**
+     * The clock is read whenever the node count crosses a multiple of this many nodes.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 64;
+    private static final ClassValue<Boolean> OVERRIDES_EQUALS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final ComparisonStrategy strategy;
+    private final Set<String> fieldsToIgnore;
+    private final int maxDepth;
+    private final int maxCollectionElements;
+    private final long maxCompareTimeMillis;
+    private final long maxNodesVisited;
+    private final boolean enableSamplingOnHuge;
+    private final int sampleSize;
+    private final long samplingSeed;
+    private final int maxFieldsPerClass;
+    private final int maxDifferences;
+    private final int maxValueLength;
+    private final boolean unorderedLists;
+    private final int parallelMinElements;
+    private final int parallelChunkSize;
+    private final StructuralFingerprint structuralFingerprint;
+    private final boolean structuralPreCheck;
+    private final boolean jsonFingerprint;
+    private final ClassValue<ComparisonPlan> plans = new ClassValue<>() {
+        @Override
+        protected ComparisonPlan computeValue(Class<?> type) {
+            ShadowComparator<Object> generated = ComparisonPlan.findGenerated(type);
+            if (generated != null) {
+                return ComparisonPlan.generated(generated, fieldsToIgnore::contains, maxFieldsPerClass);
+            }
+            return ComparisonPlan.compile(type, capFields(type, getFields(type)), DeepObjectComparator.this::shouldSkipField);
+        }
+    };
+
+    /**
+     * Returned by {@link #fingerprint(Object)} when a value cannot be fingerprinted.
+     */
+    public static final long NO_FINGERPRINT = StructuralFingerprint.NONE;
+
+    public enum ComparisonStrategy {
+        /**
+         * Uses Jackson ObjectMapper for JSON-based comparison.
+         * Good for complex objects with proper Jackson annotations.
+         * Handles circular references and complex types well.
+         */
+        JSON_BASED,
+
+        /**
+         * Uses reflection to compare fields directly.
+         * Faster for simple objects, but requires careful handling of circular references.
+         */
+        REFLECTION_BASED,
+
+        /**
+         * Hybrid approach: tries equals() first, falls back to JSON.
+         * Best for mixed object types where some have proper equals() implementation.
+         */
+        HYBRID,
+
+        /**
+         * Optimized for collections and arrays.
+         * Uses element-wise comparison with early exit.
+         */
+        COLLECTION_OPTIMIZED
+    }
+
+    public static class Builder {
+        private ComparisonStrategy strategy = ComparisonStrategy.HYBRID;
+        private final Set<String> fieldsToIgnore = new HashSet<>();
+        private int maxDepth = 10;
+        private boolean compareNullsAsEqual = true;
+        private int maxCollectionElements = 1000;
+        private long maxCompareTimeMillis = 200L;
+        private long maxNodesVisited = 0L;
+        private boolean enableSamplingOnHuge = true;
+        private double samplingConfidence = 0.99;
+        private double samplingDifferenceRate = 0.001;
+        private long samplingSeed = 0L;
+        private int maxFieldsPerClass = 100;
+        private int maxDifferences = 10;
+        private int maxValueLength = 120;
+        private boolean fingerprintPreCheck = true;
+        private boolean unorderedLists = false;
+        private int parallelMinElements = 0;
+        private int parallelChunkSize = 2048;
+
+        public Builder withStrategy(ComparisonStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder ignoreFields(String... fields) {
+            this.fieldsToIgnore.addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        public Builder withMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        public Builder compareNullsAsEqual(boolean compareNullsAsEqual) {
+            this.compareNullsAsEqual = compareNullsAsEqual;
+            return this;
+        }
+
+        public Builder withMaxCollectionElements(int maxCollectionElements) {
+            this.maxCollectionElements = Math.max(0, maxCollectionElements);
+            return this;
+        }
+
+        public Builder withMaxCompareTimeMillis(long maxCompareTimeMillis) {
+            this.maxCompareTimeMillis = Math.max(0L, maxCompareTimeMillis);
+            return this;
+        }
+
+        /**
+         * Deterministic budget: the comparison gives up after visiting this many nodes - objects, collections,
+         * maps and arrays entered and elements or entries compared - whatever the time. 0 disables.
+         */
+        public Builder withMaxNodesVisited(long maxNodesVisited) {
+            this.maxNodesVisited = Math.max(0L, maxNodesVisited);
+            return this;
+        }
+
+        public Builder enableSamplingOnHuge(boolean enableSamplingOnHuge) {
+            this.enableSamplingOnHuge = enableSamplingOnHuge;
+            return this;
+        }
+
+        /**
+         * @deprecated sampling draws stratified random positions sized by {@link #withSampling(double, double)};
+         * the stride is ignored.
+         */
+        @Deprecated(since = "1.5.0")
+        public Builder withStride(int stride) {
+            return this;
+        }
+
+        /**
+         * Size the sample of huge collections to see, with probability {@code confidence}, at least one
+         * differing element when a fraction {@code differenceRate} of them differ (defaults: 0.99 and 0.001,
+         * about 4,600 samples).
+         */
+        public Builder withSampling(double confidence, double differenceRate) {
+            this.samplingConfidence = Math.min(0.999999, Math.max(0.5, confidence));
+            this.samplingDifferenceRate = Math.min(0.5, Math.max(1e-6, differenceRate));
+            return this;
+        }
+
+        /**
+         * Sample the same positions in every comparison, typically the {@link ComparisonResult#samplingSeed()} of
+         * a mismatch to replay. 0, the default, draws a new seed per comparison.
+         */
+        public Builder withSamplingSeed(long samplingSeed) {
+            this.samplingSeed = samplingSeed;
+            return this;
+        }
+
+        public Builder withMaxFieldsPerClass(int maxFieldsPerClass) {
+            int sanitized = Math.max(1, maxFieldsPerClass);
+            this.maxFieldsPerClass = Math.min(100, sanitized);
+            return this;
+        }
+
+        /**
+         * Number of differing paths {@link DeepObjectComparator#compare(Object, Object)} reports before stopping.
+         */
+        public Builder withMaxDifferences(int maxDifferences) {
+            this.maxDifferences = Math.max(1, maxDifferences);
+            return this;
+        }
+
+        /**
+         * Maximum length of a rendered value in a reported difference; longer values are truncated.
+         */
+        public Builder withMaxValueLength(int maxValueLength) {
+            this.maxValueLength = Math.max(8, maxValueLength);
+            return this;
+        }
+
+        /**
+         * When enabled (the default), both sides are fingerprinted first and the full walk only runs when the
+         * fingerprints differ.
+         */
+        public Builder withFingerprintPreCheck(boolean fingerprintPreCheck) {
+            this.fingerprintPreCheck = fingerprintPreCheck;
+            return this;
+        }
+
+        /**
+         * When enabled, lists are compared like sets, as multisets whose order does not matter.
+         */
+        public Builder withUnorderedLists(boolean unorderedLists) {
+            this.unorderedLists = unorderedLists;
+            return this;
+        }
+
+        /**
+         * Compare random-access lists and arrays of at least {@code minElements} elements exhaustively, in chunks
+         * of {@code chunkSize} elements on a shared fork/join pool, instead of sampling or skipping them. The
+         * first difference found cancels the other chunks and is the only one reported. 0 disables.
+         */
+        public Builder withParallelOnHuge(int minElements, int chunkSize) {
+            this.parallelMinElements = Math.max(0, minElements);
+            this.parallelChunkSize = Math.max(1, chunkSize);
+            return this;
+        }
+
+        public DeepObjectComparator build() {
+            return new DeepObjectComparator(strategy, fieldsToIgnore, maxDepth,
+                    maxCollectionElements, maxCompareTimeMillis, maxNodesVisited, enableSamplingOnHuge,
+                    StratifiedSample.sampleSize(samplingConfidence, samplingDifferenceRate), samplingSeed, maxFieldsPerClass, maxDifferences, maxValueLength, fingerprintPreCheck, unorderedLists,
+                    parallelMinElements, parallelChunkSize);
+        }
+    }
+
+    private DeepObjectComparator(ComparisonStrategy strategy, Set<String> fieldsToIgnore,
+                                 int maxDepth, int maxCollectionElements, long maxCompareTimeMillis, long maxNodesVisited,
+                                 boolean enableSamplingOnHuge, int sampleSize, long samplingSeed, int maxFieldsPerClass,
+                                 int maxDifferences, int maxValueLength, boolean fingerprintPreCheck,
+                                 boolean unorderedLists, int parallelMinElements, int parallelChunkSize) {
+        this.strategy = strategy;
+        this.fieldsToIgnore = new HashSet<>(fieldsToIgnore);
+        this.maxDepth = maxDepth;
+        this.maxCollectionElements = maxCollectionElements;
+        this.maxCompareTimeMillis = maxCompareTimeMillis;
+        this.maxNodesVisited = maxNodesVisited;
+        this.enableSamplingOnHuge = enableSamplingOnHuge;
+        this.sampleSize = sampleSize;
+        this.samplingSeed = samplingSeed;
+        this.maxFieldsPerClass = maxFieldsPerClass;
+        this.maxDifferences = maxDifferences;
+        this.maxValueLength = maxValueLength;
+        this.unorderedLists = unorderedLists;
+        this.parallelMinElements = parallelMinElements;
+        this.parallelChunkSize = parallelChunkSize;
+        // Also the canonical element hash of unordered collections, so it exists without the pre-check.
+        this.structuralFingerprint = new StructuralFingerprint(maxDepth, enableSamplingOnHuge,
+                COLLECTION_OPTIMIZED_THRESHOLD, unorderedLists, parallelMinElements, plans::get, this::isLeafType);
+        this.structuralPreCheck = fingerprintPreCheck && strategy != ComparisonStrategy.JSON_BASED;
+        this.jsonFingerprint = fingerprintPreCheck && strategy == ComparisonStrategy.JSON_BASED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Default comparator with hybrid strategy
+     */
+    public static DeepObjectComparator defaultComparator() {
+        return new Builder().build();
+    }
+
+    /**
+     * Fast comparator optimized for performance
+     */
+    public static DeepObjectComparator fastComparator() {
+        return new Builder()
+                .withStrategy(ComparisonStrategy.REFLECTION_BASED)
+                .withMaxDepth(5)
+                .build();
+    }
+
+    /**
+     * Thorough comparator for complete validation
+     */
+    public static DeepObjectComparator thoroughComparator() {
+        return new Builder()
+                .withStrategy(ComparisonStrategy.JSON_BASED)
+                .withMaxDepth(Integer.MAX_VALUE)
+                .build();
+    }
+
+    /**
+     * Main comparison method
+     */
+    public <T> boolean areEqual(T obj1, T obj2) {
+        if (fingerprintsMatch(fingerprint(obj1), fingerprint(obj2))) {
+            return true;
+        }
+        return compare(obj1, obj2, new ComparisonContext(System.nanoTime(), 0, maxValueLength, newSamplingSeed())).equal();
+    }
+
+    /**
+     * Compare and report the first {@code maxDifferences} differing paths instead of stopping at the first one.
+     */
+    public <T> ComparisonResult compare(T obj1, T obj2) {
+        return compare(obj1, obj2, fingerprint(obj1), fingerprint(obj2));
+    }
+
+    /**
+     * Like {@link #compare(Object, Object)} with fingerprints computed earlier, typically on the threads that
+     * produced the values. Equal fingerprints short-circuit to {@link ComparisonResult#EQUAL}; otherwise, or
+     * when either is {@link #NO_FINGERPRINT}, the full diff-producing walk runs.
+     */
+    public <T> ComparisonResult compare(T obj1, T obj2, long fingerprint1, long fingerprint2) {
+        if (fingerprintsMatch(fingerprint1, fingerprint2)) {
+            return ComparisonResult.EQUAL;
+        }
+        return compare(obj1, obj2, new ComparisonContext(System.nanoTime(), Math.max(1, maxDifferences), maxValueLength,
+                newSamplingSeed()));
+    }
+
+    /**
+     * Single-pass structural hash of the value under this comparator's rules (ignored fields, numeric
+     * equivalence, depth limit). Values with equal fingerprints compare equal; {@link #NO_FINGERPRINT} is
+     * returned when the pre-check is disabled or the value cannot be fingerprinted.
+     * <p>
+     * For {@code JSON_BASED} the fingerprint is a hash of the JSON the comparison would produce, streamed
+     * without building the string.
+     */
+    public long fingerprint(Object obj) {
+        if (jsonFingerprint) {
+            return jsonFingerprint(obj);
+        }
+        if (!structuralPreCheck) {
+            return NO_FINGERPRINT;
+        }
+        if (strategy == ComparisonStrategy.HYBRID && obj != null && !isLeafType(obj.getClass())
+                && !(obj instanceof Collection) && !(obj instanceof Map) && overridesEquals(obj.getClass())
+                && plans.get(obj.getClass()).generated() == null) {
+            // Hybrid compares such roots with equals(), which the fingerprint cannot stand in for.
+            return NO_FINGERPRINT;
+        }
+        return structuralFingerprint.of(obj);
+    }
+
+    private static boolean fingerprintsMatch(long fingerprint1, long fingerprint2) {
+        return fingerprint1 != NO_FINGERPRINT && fingerprint1 == fingerprint2;
+    }
+
+    private long jsonFingerprint(Object obj) {
+        var hashing = new HashingOutputStream();
+        try (JsonGenerator generator = JsonTokenComparison.filtered(MAPPER.getFactory().createGenerator(hashing), fieldsToIgnore)) {
+            MAPPER.writeValue(generator, obj);
+        } catch (Exception e) {
+            log.debug("[MICROSWITCH-COMPARATOR] - JSON fingerprint failed: {}", e.getMessage());
+            return NO_FINGERPRINT;
+        }
+        long hash = hashing.value();
+        // The comparison checks root classes before comparing JSON; numbers are exempt (numeric equivalence).
+        if (obj != null && !(obj instanceof Number)) {
+            hash = hash * 31 + obj.getClass().getName().hashCode();
+        }
+        return hash == NO_FINGERPRINT ? 1L : hash;
+    }
+
+    /**
+     * 64-bit FNV-1a over the bytes written, so serialized JSON can be hashed without materializing it.
+     */
+    private static final class HashingOutputStream extends java.io.OutputStream {
+        private long hash = 0xcbf29ce484222325L;
+
+        @Override
+        public void write(int b) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            long h = hash;
+            for (int i = offset; i < offset + length; i++) {
+                h = (h ^ (bytes[i] & 0xff)) * 0x100000001b3L;
+            }
+            hash = h;
+        }
+
+        long value() {
+            return hash;
+        }
+    }
+
+    private <T> ComparisonResult compare(T obj1, T obj2, ComparisonContext ctx) {
+        ComparisonResult result;
+        try {
+            result = compareRoots(obj1, obj2, ctx);
+        } finally {
+            ctx.release();
+        }
+        // Per comparison, so DEBUG only: the seed is carried in the result and logged with Shadow's mismatch samples.
+        if (result.samplingSeed() != 0L && log.isDebugEnabled()) {
+            log.debug("[MICROSWITCH-COMPARATOR] - Sampled comparison found differences; replay it with samplingSeed={}",
+                    result.samplingSeed());
+        }
+        return result;
+    }
+
+    private <T> ComparisonResult compareRoots(T obj1, T obj2, ComparisonContext ctx) {
+        if (obj1 == obj2) {
+            return ComparisonResult.EQUAL;
+        }
+
+        if (obj1 == null || obj2 == null) {
+            return ctx.toResult(ctx.mismatch(obj1, obj2));
+        }
+
+        // Handle numeric type equivalence before class check
+        if (areNumericTypesEquivalent(obj1, obj2)) {
+            return ComparisonResult.EQUAL;
+        }
+
+        if (!obj1.getClass().equals(obj2.getClass())) {
+            return ctx.toResult(ctx.mismatch(obj1.getClass().getName(), obj2.getClass().getName()));
+        }
+
+        try {
+            boolean equal = switch (strategy) {
+                case JSON_BASED -> compareUsingJson(obj1, obj2, ctx);
+                case REFLECTION_BASED -> compareUsingReflection(obj1, obj2, 0, ctx);
+                case COLLECTION_OPTIMIZED -> compareOptimized(obj1, obj2, ctx);
+                default -> compareHybrid(obj1, obj2, ctx);
+            };
+            return ctx.toResult(equal);
+        } catch (Exception e) {
+            log.warn("[MICROSWITCH-COMPARATOR] - Deep comparison failed, falling back to equals(): {}", e.getMessage());
+            boolean equal = Objects.equals(obj1, obj2);
+            ctx.clearPath();
+            if (!equal && !ctx.hasDifferences()) {
+                ctx.mismatch(obj1, obj2);
+            }
+            return ctx.toResult(equal);
+        }
+    }
+
+    /**
+     * JSON-based comparison using Jackson: both sides are serialized into token buffers, without ignored fields
+     * at any depth, and compared token by token.
+     */
+    private <T> boolean compareUsingJson(T obj1, T obj2, ComparisonContext ctx) {
+        try {
+            return JsonTokenComparison.compare(JsonTokenComparison.tokens(MAPPER, obj1, fieldsToIgnore),
+                    JsonTokenComparison.tokens(MAPPER, obj2, fieldsToIgnore), ctx);
+        } catch (Exception e) {
+            log.debug("[MICROSWITCH-COMPARATOR] - JSON comparison failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reflection-based comparison
+     */
+    private boolean compareUsingReflection(Object obj1, Object obj2, int depth, ComparisonContext ctx) {
+        if (depth > maxDepth) {
+            return true; // Assume equal at max depth to prevent stack overflow
+        }
+        if (budgetExceededAndLog("reflection", ctx)) {
+            return false;
+        }
+
+        Class<?> clazz = obj1.getClass();
+
+        // Handle primitives and common types
+        if (isPrimitiveOrWrapper(clazz) || clazz == String.class) {
+            return Objects.equals(obj1, obj2) || ctx.mismatch(obj1, obj2);
+        }
+
+        // Circular reference detection: only containers and objects holding references can lead back to a pair
+        // that is already being compared, so only those are tracked. A pair seen before counts as equal here;
+        // its differences are reported where it was first compared.
+
+        // Handle collections
+        if (obj1 instanceof Collection) {
+            if (!ctx.firstVisit(obj1, obj2)) {
+                return true;
+            }
+            return compareCollections((Collection<?>) obj1, (Collection<?>) obj2, depth, ctx);
+        }
+
+        // Handle maps
+        if (obj1 instanceof Map) {
+            if (!ctx.firstVisit(obj1, obj2)) {
+                return true;
+            }
+            return compareMaps((Map<?, ?>) obj1, (Map<?, ?>) obj2, depth, ctx);
+        }
+
+        // Handle arrays
+        if (clazz.isArray()) {
+            if (!clazz.getComponentType().isPrimitive() && !ctx.firstVisit(obj1, obj2)) {
+                return true;
+            }
+            return compareArrays(obj1, obj2, depth, ctx);
+        }
+
+        if (!clazz.isInstance(obj2)) {
+            return ctx.mismatch(clazz.getName(), obj2.getClass().getName());
+        }
+
+        ComparisonPlan plan = plans.get(clazz);
+        if (plan.hasReferences() && !ctx.firstVisit(obj1, obj2)) {
+            return true;
+        }
+        if (plan.generated() != null) {
+            return plan.generated().compare(obj1, obj2, new GeneratedFields(plan, depth, ctx));
+        }
+
+        // Compare fields through the class's compiled plan. The time budget was checked on entry and is checked
+        // again by every nested object, so scalar fields are compared without reading the clock.
+        boolean equal = true;
+        for (ComparisonPlan.Accessor accessor : plan.accessors()) {
+            if (!fieldEqual(accessor, obj1, obj2, depth, ctx)) {
+                equal = false;
+                if (ctx.shouldStop()) {
+                    return false;
+                }
+            }
+        }
+
+        return equal;
+    }
+
+    /**
+     * Compare one field of two instances. Primitives and strings are compared without boxing or type
+     * dispatch; anything else goes through {@link #areFieldValuesDifferent}.
+     */
+    private boolean fieldEqual(ComparisonPlan.Accessor accessor, Object obj1, Object obj2, int depth,
+                               ComparisonContext ctx) {
+        boolean equal = switch (accessor.kind) {
+            case LONG -> accessor.getLong(obj1) == accessor.getLong(obj2);
+            case DOUBLE -> Double.doubleToLongBits(accessor.getDouble(obj1)) == Double.doubleToLongBits(accessor.getDouble(obj2));
+            case BOOLEAN -> accessor.getBoolean(obj1) == accessor.getBoolean(obj2);
+            case CHAR -> accessor.getChar(obj1) == accessor.getChar(obj2);
+            case STRING -> {
+                Object value1 = accessor.get(obj1);
+                Object value2 = accessor.get(obj2);
+                yield value1 == value2 || value1 != null && value1.equals(value2);
+            }
+            case REFERENCE -> !isFieldDifferent(accessor.get(obj1), accessor.get(obj2), depth, ctx, accessor.name);
+        };
+        if (!equal && accessor.kind != ComparisonPlan.Kind.REFERENCE) {
+            reportFieldMismatch(ctx, accessor.name, accessor.boxed(obj1), accessor.boxed(obj2));
+        }
+        return equal;
+    }
+
+    private void reportFieldMismatch(ComparisonContext ctx, String field, Object value1, Object value2) {
+        ctx.pushField(field);
+        if (log.isDebugEnabled()) {
+            log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch at field '{}': values ({}, {})", ctx.path(), value1, value2);
+        }
+        ctx.mismatch(value1, value2);
+        ctx.pop();
+    }
+
+    /**
+     * {@link #areFieldValuesDifferent} for a field of the objects at the current path.
+     */
+    private boolean isFieldDifferent(Object value1, Object value2, int depth, ComparisonContext ctx, String field) {
+        ctx.pushField(field);
+        boolean different = areFieldValuesDifferent(value1, value2, depth + 1, ctx);
+        ctx.pop();
+        return different;
+    }
+
+    /**
+     * {@link #areFieldValuesDifferent} for an element of the list or array at the current path.
+     */
+    private boolean isElementDifferent(Object value1, Object value2, int depth, ComparisonContext ctx, int index) {
+        ctx.pushIndex(index);
+        boolean different = areFieldValuesDifferent(value1, value2, depth + 1, ctx);
+        ctx.pop();
+        return different;
+    }
+
+    /**
+     * {@link #areFieldValuesDifferent} for a value of the map at the current path.
+     */
+    private boolean isEntryDifferent(Object value1, Object value2, int depth, ComparisonContext ctx, Object key) {
+        ctx.pushKey(key);
+        boolean different = areFieldValuesDifferent(value1, value2, depth + 1, ctx);
+        ctx.pop();
+        return different;
+    }
+
+    /**
+     * Applies the reflective walk's field rules to the pairs read by a generated comparator.
+     */
+    private final class GeneratedFields implements ShadowComparator.Fields {
+        private final ComparisonPlan plan;
+        private final int depth;
+        private final ComparisonContext ctx;
+
+        private GeneratedFields(ComparisonPlan plan, int depth, ComparisonContext ctx) {
+            this.plan = plan;
+            this.depth = depth;
+            this.ctx = ctx;
+        }
+
+        @Override
+        public boolean skip(int field) {
+            return plan.skipped(field);
+        }
+
+        @Override
+        public boolean compareLong(int field, long left, long right) {
+            return left == right || mismatch(field, left, right);
+        }
+
+        @Override
+        public boolean compareDouble(int field, double left, double right) {
+            return Double.doubleToLongBits(left) == Double.doubleToLongBits(right) || mismatch(field, left, right);
+        }
+
+        @Override
+        public boolean compareBoolean(int field, boolean left, boolean right) {
+            return left == right || mismatch(field, left, right);
+        }
+
+        @Override
+        public boolean compareChar(int field, char left, char right) {
+            return left == right || mismatch(field, left, right);
+        }
+
+        @Override
+        public boolean compareString(int field, String left, String right) {
+            return Objects.equals(left, right) || mismatch(field, left, right);
+        }
+
+        @Override
+        public boolean compareObject(int field, Object left, Object right) {
+            return !isFieldDifferent(left, right, depth, ctx, plan.fieldName(field));
+        }
+
+        @Override
+        public boolean shouldStop() {
+            return ctx.shouldStop();
+        }
+
+        private boolean mismatch(int field, Object left, Object right) {
+            reportFieldMismatch(ctx, plan.fieldName(field), left, right);
+            return false;
+        }
+    }
+
+    /**
+     * Check if field values are different with field context for logging (returns true if different, false if equal)
+     */
+    private boolean areFieldValuesDifferent(Object value1, Object value2, int depth, ComparisonContext ctx) {
+        if (value1 == value2) {
+            return false; // Same reference, not different
+        }
+
+        if (value1 == null || value2 == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch at field '{}': null vs non-null - values: ({}, {})", 
+                        ctx.path(), value1, value2);
+            }
+            ctx.mismatch(value1, value2);
+            return true; // One is null, other isn't - they are different
+        }
+
+        Class<?> type1 = value1.getClass();
+        Class<?> type2 = value2.getClass();
+
+        // Debug logging for numeric type comparison
+        if (log.isDebugEnabled() && (isNumericType(type1) || isNumericType(type2))) {
+            log.debug("[MICROSWITCH-COMPARATOR] - Comparing values: {} ({}) vs {} ({})", 
+                    value1, type1.getSimpleName(), value2, type2.getSimpleName());
+        }
+
+        if ((isPrimitiveOrWrapper(type1) || type1 == String.class || type1.isEnum()) &&
+            (isPrimitiveOrWrapper(type2) || type2 == String.class || type2.isEnum())) {
+            
+            // Handle numeric type equivalence (Integer vs Long, etc.)
+            if (areNumericTypesEquivalent(value1, value2)) {
+                return false; // Numerically equivalent, not different
+            }
+            
+            boolean areEqual = Objects.equals(value1, value2);
+            if (!areEqual) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch at field '{}': values ({}, {}) - types: ({}, {})", 
+                            ctx.path(), value1, value2, type1.getSimpleName(), type2.getSimpleName());
+                }
+                ctx.mismatch(value1, value2);
+            }
+            return !areEqual; // Invert: true if NOT equal
+        }
+
+        boolean areEqual = compareUsingReflection(value1, value2, depth, ctx);
+        if (!areEqual && log.isDebugEnabled()) {
+            log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch at field '{}': complex objects differ - types: ({}, {})", 
+                    ctx.path(), type1.getSimpleName(), type2.getSimpleName());
+        }
+        return !areEqual; // Invert: true if NOT equal
+    }
+
+    /**
+     * Hybrid comparison approach
+     */
+    private <T> boolean compareHybrid(T obj1, T obj2, ComparisonContext ctx) {
+        // Handle Collections and Maps specially to ensure numeric equivalence works
+        if (obj1 instanceof Collection) {
+            return compareCollections((Collection<?>) obj1, (Collection<?>) obj2, 0, ctx);
+        } else if (obj1 instanceof Map) {
+            return compareMaps((Map<?, ?>) obj1, (Map<?, ?>) obj2, 0, ctx);
+        }
+        
+        // For other objects, try equals() if it's overridden and no comparator was generated for the class
+        if (overridesEquals(obj1.getClass()) && plans.get(obj1.getClass()).generated() == null) {
+            return obj1.equals(obj2) || ctx.mismatch(obj1, obj2);
+        }
+
+        // Fall back to reflection-based comparison (which handles numeric type equivalence)
+        return compareUsingReflection(obj1, obj2, 0, ctx);
+    }
+
+    private static boolean overridesEquals(Class<?> clazz) {
+        return OVERRIDES_EQUALS.get(clazz);
+    }
+
+    /**
+     * Optimized comparison for collections and simple objects
+     */
+    private <T> boolean compareOptimized(T obj1, T obj2, ComparisonContext ctx) {
+        if (obj1 instanceof Collection) {
+            return compareCollections((Collection<?>) obj1, (Collection<?>) obj2, 0, ctx);
+        } else if (obj1 instanceof Map) {
+            return compareMaps((Map<?, ?>) obj1, (Map<?, ?>) obj2, 0, ctx);
+        } else {
+            return compareUsingReflection(obj1, obj2, 0, ctx);
+        }
+    }
+
+    /**
+     * Compare collections efficiently
+     */
+    @SuppressWarnings("unchecked")
+    private boolean compareCollections(Collection<?> col1, Collection<?> col2, int depth, ComparisonContext ctx) {
+        if (budgetExceededAndLog("collections", ctx)) {
+            return false;
+        }
+        if (col1.size() != col2.size()) {
+            return ctx.mismatch("size=" + col1.size(), "size=" + col2.size());
+        }
+
+        // Sets, and lists whose order carries no meaning, are compared as multisets
+        if (col1 instanceof Set && col2 instanceof Set
+                || unorderedLists && col1 instanceof List && col2 instanceof List) {
+            return compareUnordered(col1.toArray(), col2.toArray(), depth, ctx);
+        }
+
+        // For lists, compare in order
+        if (col1 instanceof List<?> l1 && col2 instanceof List<?> l2) {
+            int size = l1.size();
+            if (isParallelCandidate(size) && l1 instanceof RandomAccess && l2 instanceof RandomAccess) {
+                return compareInParallel(l1, l2, depth, ctx);
+            }
+            if (isSampled(size)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[MICROSWITCH-COMPARATOR] - Deep comparison sampling {} of {} elements of large list - maxCollectionElements={}",
+                            sampleSize, size, maxCollectionElements);
+                }
+                return compareListElements(l1, l2, StratifiedSample.positions(size, sampleSize, ctx.nextSampleSeed()),
+                        depth, ctx);
+            }
+            if (!enableSamplingOnHuge && size > COLLECTION_OPTIMIZED_THRESHOLD) {
+                log.debug("[MICROSWITCH-COMPARATOR] - Large list comparison skipped for size {}. Consider enable sampling on huge list with config(enableSamplingOnHuge)", size);
+                return true;
+            }
+            return compareListElements(l1, l2, null, depth, ctx);
+        }
+
+        return col1.equals(col2) || ctx.mismatch(col1, col2);
+    }
+
+    /**
+     * Whether a collection is big enough to be sampled rather than compared in full.
+     */
+    private boolean isSampled(int size) {
+        return enableSamplingOnHuge && maxCollectionElements > 0 && size >= maxCollectionElements && size > sampleSize;
+    }
+
+    /**
+     * Compare two lists of the same size at the given ascending positions, or at all of them when
+     * {@code positions} is null. Lists without random access are walked with iterators.
+     */
+    private boolean compareListElements(List<?> l1, List<?> l2, int[] positions, int depth, ComparisonContext ctx) {
+        boolean randomAccess = l1 instanceof RandomAccess && l2 instanceof RandomAccess;
+        Iterator<?> it1 = randomAccess ? null : l1.iterator();
+        Iterator<?> it2 = randomAccess ? null : l2.iterator();
+        int count = positions == null ? l1.size() : positions.length;
+        int index = -1;
+        Object e1 = null;
+        Object e2 = null;
+        boolean equal = true;
+        for (int k = 0; k < count; k++) {
+            int target = positions == null ? k : positions[k];
+            if (randomAccess) {
+                e1 = l1.get(target);
+                e2 = l2.get(target);
+            } else {
+                while (index < target) {
+                    e1 = it1.next();
+                    e2 = it2.next();
+                    index++;
+                }
+            }
+            if (isElementDifferent(e1, e2, depth, ctx, target)) {
+                equal = false;
+                if (ctx.shouldStop()) {
+                    return false;
+                }
+            }
+            if (budgetExceededAndLog(positions == null ? "collections[list]" : "collections[list-sampling]", ctx)) {
+                return false;
+            }
+        }
+        return equal;
+    }
+
+    /**
+     * Compare two collections of the same size as multisets.
+     * <p>
+     * Every element gets the canonical structural hash of {@link StructuralFingerprint}, which honors ignored
+     * fields and numeric equivalence. Mirror elements are grouped by hash and each stable element is paired with
+     * the first unpaired mirror element of its bucket that compares equal, so deep comparisons only run between
+     * elements that are very likely equal. Collections big enough to be sampled only look for partners of a
+     * stratified sample of their stable elements; a sampled element left without one is reported as missing.
+     * <p>
+     * Elements left over - no hash, or a hash that differs although they compare equal (e.g. {@code BigDecimal}
+     * against {@code Integer}) - get a pairwise second chance, as long as there are no more of them than a list
+     * would compare in full. What is still unpaired is then compared in
+     * iteration order and reported under the stable element's position, e.g. {@code roles[3].name}.
+     */
+    private boolean compareUnordered(Object[] stable, Object[] mirror, int depth, ComparisonContext ctx) {
+        int size = stable.length;
+        int[] candidates = isSampled(size) ? StratifiedSample.positions(size, sampleSize, ctx.nextSampleSeed()) : null;
+        // Every mirror element is hashed, sampled or not, so hashing is charged to the comparison's budgets.
+        StructuralFingerprint.Budget hashed = new StructuralFingerprint.Budget();
+        long[] mirrorHashes = new long[size];
+        for (int j = 0; j < size; j++) {
+            mirrorHashes[j] = structuralFingerprint.of(mirror[j], hashed);
+            if (budgetExceededAndLog("collections[unordered-hashing]", ctx, hashed.nodes)) {
+                return false;
+            }
+        }
+        boolean[] paired = new boolean[size];
+        int[] unpaired = new int[candidates == null ? size : candidates.length];
+        // Probes compare silently; only the final comparison of unpaired elements reports differences.
+        ComparisonContext probe = ctx.probe();
+        int remaining;
+        try {
+            remaining = pairUp(stable, mirror, new HashBuckets(mirrorHashes), candidates, paired, unpaired, depth, probe);
+        } finally {
+            if (ctx.absorb(probe)) {
+                logBudgetExceeded("collections[unordered]", ctx);
+            }
+            probe.release();
+        }
+        if (remaining < 0) {
+            return false;
+        }
+
+        boolean equal = true;
+        int j = 0;
+        for (int k = 0; k < remaining; k++) {
+            if (candidates != null) {
+                ctx.pushIndex(unpaired[k]);
+                equal = ctx.mismatch(stable[unpaired[k]], "<missing>");
+                ctx.pop();
+            } else {
+                while (paired[j]) {
+                    j++;
+                }
+                paired[j] = true;
+                if (isElementDifferent(stable[unpaired[k]], mirror[j], depth, ctx, unpaired[k])) {
+                    equal = false;
+                }
+            }
+            if (!equal && ctx.shouldStop()) {
+                return false;
+            }
+        }
+        return equal;
+    }
+
+    /**
+     * Pair stable elements, all of them or the {@code candidates}, with equal mirror elements, first within hash
+     * buckets, then pairwise. Fills {@code unpaired} with the stable indices left over and returns their count,
+     * or -1 when the budget ran out.
+     */
+    private int pairUp(Object[] stable, Object[] mirror, HashBuckets buckets, int[] candidates, boolean[] paired,
+                       int[] unpaired, int depth, ComparisonContext probe) {
+        int count = candidates == null ? stable.length : candidates.length;
+        int unpairedCount = 0;
+        StructuralFingerprint.Budget hashed = new StructuralFingerprint.Budget();
+        for (int k = 0; k < count; k++) {
+            int i = candidates == null ? k : candidates[k];
+            long hash = structuralFingerprint.of(stable[i], hashed);
+            if (budgetExceededAndLog("collections[unordered-hashing]", probe, hashed.nodes)) {
+                return -1;
+            }
+            int partner = -1;
+            for (int j = buckets.first(hash); j >= 0; j = buckets.next(j)) {
+                if (!paired[j] && !areFieldValuesDifferent(stable[i], mirror[j], depth + 1, probe)) {
+                    partner = j;
+                    break;
+                }
+            }
+            if (partner >= 0) {
+                paired[partner] = true;
+            } else {
+                unpaired[unpairedCount++] = i;
+            }
+            if (budgetExceededAndLog("collections[unordered]", probe)) {
+                return -1;
+            }
+        }
+        if (unpairedCount == 0 || unpairedCount > COLLECTION_OPTIMIZED_THRESHOLD) {
+            return unpairedCount;
+        }
+
+        int remaining = 0;
+        for (int k = 0; k < unpairedCount; k++) {
+            int i = unpaired[k];
+            int partner = -1;
+            for (int j = 0; j < mirror.length && partner < 0; j++) {
+                if (!paired[j] && !areFieldValuesDifferent(stable[i], mirror[j], depth + 1, probe)) {
+                    partner = j;
+                }
+            }
+            if (partner >= 0) {
+                paired[partner] = true;
+            } else {
+                unpaired[remaining++] = i;
+            }
+            if (budgetExceededAndLog("collections[unordered]", probe)) {
+                return -1;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Compare maps efficiently
+     */
+    private boolean compareMaps(Map<?, ?> map1, Map<?, ?> map2, int depth, ComparisonContext ctx) {
+        if (budgetExceededAndLog("maps", ctx)) {
+            return false;
+        }
+        if (map1.size() != map2.size()) {
+            if (log.isDebugEnabled()) {
+                log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch: map size difference - map1.size()={}, map2.size()={}", 
+                        map1.size(), map2.size());
+            }
+            return ctx.mismatch("size=" + map1.size(), "size=" + map2.size());
+        }
+
+        int[] positions = null;
+        if (isSampled(map1.size())) {
+            positions = StratifiedSample.positions(map1.size(), sampleSize, ctx.nextSampleSeed());
+            if (log.isDebugEnabled()) {
+                log.debug("[MICROSWITCH-COMPARATOR] - Deep comparison sampling {} of {} entries of large map - maxCollectionElements={}",
+                        sampleSize, map1.size(), maxCollectionElements);
+            }
+        }
+
+        boolean equal = true;
+        int position = 0;
+        int sampled = 0;
+        for (Map.Entry<?, ?> entry : map1.entrySet()) {
+            if (positions != null) {
+                if (sampled == positions.length) {
+                    break;
+                }
+                if (positions[sampled] != position++) {
+                    continue;
+                }
+                sampled++;
+            }
+            Object key = entry.getKey();
+            if (!map2.containsKey(key)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch: missing key '{}' in second map", key);
+                }
+                ctx.pushKey(key);
+                equal = ctx.mismatch(entry.getValue(), "<missing>");
+                ctx.pop();
+                if (ctx.shouldStop()) {
+                    return false;
+                }
+                continue;
+            }
+
+            if (isEntryDifferent(entry.getValue(), map2.get(key), depth, ctx, key)) {
+                equal = false;
+                if (ctx.shouldStop()) {
+                    return false;
+                }
+            }
+            if (budgetExceededAndLog("maps", ctx)) {
+                return false;
+            }
+        }
+
+        return equal;
+    }
+
+    /**
+     * Compare arrays
+     */
+    private boolean compareArrays(Object arr1, Object arr2, int depth, ComparisonContext ctx) {
+        if (budgetExceededAndLog("arrays", ctx)) {
+            return false;
+        }
+        if (arr1.getClass().getComponentType().isPrimitive()) {
+            return comparePrimitiveArrays(arr1, arr2, ctx) || ctx.mismatch("array", "array");
+        }
+
+        Object[] array1 = (Object[]) arr1;
+        Object[] array2 = (Object[]) arr2;
+
+        if (array1.length != array2.length) {
+            if (log.isDebugEnabled()) {
+                log.debug("[MICROSWITCH-COMPARATOR] - Comparison mismatch: array length difference - array1.length={}, array2.length={}", 
+                        array1.length, array2.length);
+            }
+            return ctx.mismatch("length=" + array1.length, "length=" + array2.length);
+        }
+        if (isParallelCandidate(array1.length)) {
+            return compareInParallel(Arrays.asList(array1), Arrays.asList(array2), depth, ctx);
+        }
+
+        boolean equal = true;
+        for (int i = 0; i < array1.length; i++) {
+            if (isElementDifferent(array1[i], array2[i], depth, ctx, i)) {
+                equal = false;
+                if (ctx.shouldStop()) {
+                    return false;
+                }
+            }
+            if (budgetExceededAndLog("arrays", ctx)) {
+                return false;
+            }
+        }
+
+        return equal;
+    }
+
+    /**
+     * The configured sampling seed, or a fresh nonzero one for this comparison.
+     */
+    private long newSamplingSeed() {
+        long seed = samplingSeed;
+        while (seed == 0L) {
+            seed = ThreadLocalRandom.current().nextLong();
+        }
+        return seed;
+    }
+
+    private boolean isParallelCandidate(int size) {
+        return parallelMinElements > 0 && size >= parallelMinElements;
+    }
+
+    /**
+     * Compare two random-access lists of the same size on the shared fork/join pool, each chunk with its own
+     * silent context and all of them within the comparison's budgets. Only the difference found first is
+     * compared again on {@code ctx} to report it; every element samples the collections nested in it as if it
+     * were compared first, so that second comparison samples the same positions.
+     */
+    private boolean compareInParallel(List<?> l1, List<?> l2, int depth, ComparisonContext ctx) {
+        long nodeAllowance = maxNodesVisited > 0 ? maxNodesVisited - ctx.nodesVisited : Long.MAX_VALUE;
+        int sampleOrdinal = ctx.sampleOrdinal();
+        AtomicBoolean sampled = new AtomicBoolean();
+        ParallelComparison.Search search = ParallelComparison.run(l1.size(), parallelChunkSize, nodeAllowance,
+                (from, to, chunk) -> {
+                    ComparisonContext probe = ctx.probe();
+                    long charged = probe.nodesVisited;
+                    try {
+                        for (int i = from; i < to; i++) {
+                            probe.rewindSampling(sampleOrdinal);
+                            if (budgetExceededAndLog("collections[parallel]", probe)
+                                    || areFieldValuesDifferent(l1.get(i), l2.get(i), depth + 1, probe)) {
+                                return switch (probe.exhaustedBudget()) {
+                                    case NONE -> i;
+                                    case TIME -> ParallelComparison.TIME_EXCEEDED;
+                                    case NODES -> ParallelComparison.NODES_EXCEEDED;
+                                };
+                            }
+                            // Charged as often as sequential comparison reads the clock, so chunks overshoot the
+                            // shared node budget by at most that many nodes each.
+                            long nodes = probe.nodesVisited - charged;
+                            if (nodes >= CLOCK_CHECK_INTERVAL) {
+                                charged = probe.nodesVisited;
+                                if (chunk.charge(nodes)) {
+                                    return ParallelComparison.EQUAL;
+                                }
+                            }
+                        }
+                        return ParallelComparison.EQUAL;
+                    } finally {
+                        chunk.charge(probe.nodesVisited - charged);
+                        if (probe.sampled()) {
+                            sampled.set(true);
+                        }
+                        probe.release();
+                    }
+                });
+        ctx.nodesVisited += search.nodesVisited();
+        if (sampled.get()) {
+            ctx.markSampled();
+        }
+        int outcome = search.outcome();
+        if (outcome == ParallelComparison.TIME_EXCEEDED || outcome == ParallelComparison.NODES_EXCEEDED) {
+            if (ctx.exhaust(outcome == ParallelComparison.TIME_EXCEEDED
+                    ? ComparisonResult.Budget.TIME : ComparisonResult.Budget.NODES)) {
+                logBudgetExceeded("collections[parallel]", ctx);
+            }
+            return false;
+        }
+        return outcome == ParallelComparison.EQUAL || !isElementDifferent(l1.get(outcome), l2.get(outcome), depth, ctx, outcome);
+    }
+
+    /**
+     * Compare primitive arrays, in parallel chunks when they are huge. A primitive array counts as one node.
+     */
+    private boolean comparePrimitiveArrays(Object arr1, Object arr2, ComparisonContext ctx) {
+        int length = Array.getLength(arr1);
+        if (length != Array.getLength(arr2) || !isParallelCandidate(length / PRIMITIVE_PARALLEL_FACTOR)) {
+            return comparePrimitiveArrays(arr1, arr2);
+        }
+        ParallelComparison.Search search = ParallelComparison.run(length, parallelChunkSize * PRIMITIVE_PARALLEL_FACTOR,
+                Long.MAX_VALUE, (from, to, chunk) -> isTimeExceeded(ctx)
+                        ? ParallelComparison.TIME_EXCEEDED
+                        : mismatch(arr1, arr2, from, to));
+        if (search.outcome() == ParallelComparison.TIME_EXCEEDED) {
+            if (ctx.exhaust(ComparisonResult.Budget.TIME)) {
+                logBudgetExceeded("arrays[parallel]", ctx);
+            }
+            return false;
+        }
+        return search.outcome() == ParallelComparison.EQUAL;
+    }
+
+    /**
+     * The first differing index of two primitive arrays within {@code [from, to)}, or {@code ParallelComparison.EQUAL}.
+     */
+    private static int mismatch(Object arr1, Object arr2, int from, int to) {
+        int offset = switch (arr1) {
+            case int[] a -> Arrays.mismatch(a, from, to, (int[]) arr2, from, to);
+            case long[] a -> Arrays.mismatch(a, from, to, (long[]) arr2, from, to);
+            case double[] a -> Arrays.mismatch(a, from, to, (double[]) arr2, from, to);
+            case float[] a -> Arrays.mismatch(a, from, to, (float[]) arr2, from, to);
+            case boolean[] a -> Arrays.mismatch(a, from, to, (boolean[]) arr2, from, to);
+            case byte[] a -> Arrays.mismatch(a, from, to, (byte[]) arr2, from, to);
+            case char[] a -> Arrays.mismatch(a, from, to, (char[]) arr2, from, to);
+            case short[] a -> Arrays.mismatch(a, from, to, (short[]) arr2, from, to);
+            default -> 0;
+        };
+        return offset < 0 ? ParallelComparison.EQUAL : from + offset;
+    }
+
+    /**
+     * Compare primitive arrays
+     */
+    private boolean comparePrimitiveArrays(Object arr1, Object arr2) {
+        Class<?> type = arr1.getClass().getComponentType();
+
+        if (type == int.class) {
+            return Arrays.equals((int[]) arr1, (int[]) arr2);
+        } else if (type == long.class) {
+            return Arrays.equals((long[]) arr1, (long[]) arr2);
+        } else if (type == double.class) {
+            return Arrays.equals((double[]) arr1, (double[]) arr2);
+        } else if (type == float.class) {
+            return Arrays.equals((float[]) arr1, (float[]) arr2);
+        } else if (type == boolean.class) {
+            return Arrays.equals((boolean[]) arr1, (boolean[]) arr2);
+        } else if (type == byte.class) {
+            return Arrays.equals((byte[]) arr1, (byte[]) arr2);
+        } else if (type == char.class) {
+            return Arrays.equals((char[]) arr1, (char[]) arr2);
+        } else if (type == short.class) {
+            return Arrays.equals((short[]) arr1, (short[]) arr2);
+        }
+
+        return false;
+    }
+
+    /**
+     * Declared fields of the class and its superclasses, cached per class for all comparators. The per-comparator
+     * {@code maxFieldsPerClass} cap is applied by {@link #capFields(Class, Field[])} when the plan is compiled.
+     */
+    private static Field[] getFields(Class<?> clazz) {
+        return FIELD_CACHE.computeIfAbsent(clazz, c -> {
+            List<Field> fields = new ArrayList<>();
+            while (c != null && c != Object.class) {
+                fields.addAll(Arrays.asList(c.getDeclaredFields()));
+                c = c.getSuperclass();
+            }
+            return fields.toArray(new Field[0]);
+        });
+    }
+
+    /**
+     * The first {@code maxFieldsPerClass} fields.
+     */
+    private Field[] capFields(Class<?> clazz, Field[] fields) {
+        if (fields.length <= maxFieldsPerClass) {
+            return fields;
+        }
+        if (log.isWarnEnabled()) {
+            log.warn("[MICROSWITCH-COMPARATOR] - Deep comparison field cap reached for class {}: {} fields > maxFieldsPerClass={}, truncating",
+                    clazz.getName(), fields.length, maxFieldsPerClass);
+        }
+        return Arrays.copyOf(fields, maxFieldsPerClass);
+    }
+
+    /**
+     * Check if field should be skipped
+     */
+    private boolean shouldSkipField(Field field) {
+        int modifiers = field.getModifiers();
+        return Modifier.isStatic(modifiers) ||
+                Modifier.isTransient(modifiers) ||
+                fieldsToIgnore.contains(field.getName());
+    }
+
+    /**
+     * Values compared directly (with numeric equivalence) rather than walked.
+     */
+    private boolean isLeafType(Class<?> type) {
+        return isPrimitiveOrWrapper(type) || type == String.class || type.isEnum();
+    }
+
+    /**
+     * Check if type is primitive or wrapper
+     */
+    private boolean isPrimitiveOrWrapper(Class<?> type) {
+        return type.isPrimitive() ||
+                type == Integer.class ||
+                type == Long.class ||
+                type == Double.class ||
+                type == Float.class ||
+                type == Boolean.class ||
+                type == Byte.class ||
+                type == Character.class ||
+                type == Short.class;
+    }
+
+    /**
+     * Check if two numeric values are equivalent despite different types
+     * (e.g., Integer(123) vs Long(123L)).
+     * <p>
+     * Nothing is allocated unless a {@code BigDecimal} or {@code BigInteger} is involved: integral types are
+     * compared as longs, floating point types as doubles, and an integral value against a floating point one
+     * exactly, so {@code 2^53 + 1} does not match the double it would round to.
+     */
+    private boolean areNumericTypesEquivalent(Object value1, Object value2) {
+        if (!(value1 instanceof Number number1) || !(value2 instanceof Number number2)) {
+            return false;
+        }
+
+        Class<?> type1 = value1.getClass();
+        Class<?> type2 = value2.getClass();
+
+        // If same type, use regular equals
+        if (type1 == type2) {
+            return value1.equals(value2);
+        }
+        if (!isNumericType(type1) || !isNumericType(type2)) {
+            return false;
+        }
+
+        if (value1 instanceof java.math.BigDecimal || value1 instanceof java.math.BigInteger
+                || value2 instanceof java.math.BigDecimal || value2 instanceof java.math.BigInteger) {
+            try {
+                return convertToBigDecimal(number1).compareTo(convertToBigDecimal(number2)) == 0;
+            } catch (NumberFormatException e) {
+                // NaN and infinities have no BigDecimal form and never equal a big number
+                return false;
+            }
+        }
+
+        boolean floating1 = value1 instanceof Double || value1 instanceof Float;
+        boolean floating2 = value2 instanceof Double || value2 instanceof Float;
+        if (!floating1 && !floating2) {
+            return number1.longValue() == number2.longValue();
+        }
+        if (floating1 && floating2) {
+            double d1 = number1.doubleValue();
+            double d2 = number2.doubleValue();
+            return d1 == d2 || Double.isNaN(d1) && Double.isNaN(d2);
+        }
+        return floating1
+                ? isExactly(number2.longValue(), number1.doubleValue())
+                : isExactly(number1.longValue(), number2.doubleValue());
+    }
+
+    /**
+     * Whether the double has exactly the value of the long. {@code (double) l} rounds beyond 2^53, so a match
+     * is confirmed on the long side; 2^63 itself, which saturates to {@code Long.MAX_VALUE}, fits no long.
+     */
+    private static boolean isExactly(long l, double d) {
+        return d == (double) l && d != 0x1p63 && (long) d == l;
+    }
+
+    /**
+     * Check if a type is numeric
+     */
+    private boolean isNumericType(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Double.class || 
+               type == Float.class || type == Short.class || type == Byte.class ||
+               type == int.class || type == long.class || type == double.class ||
+               type == float.class || type == short.class || type == byte.class ||
+               type == java.math.BigDecimal.class || type == java.math.BigInteger.class;
+    }
+
+    /**
+     * Convert numeric value to BigDecimal for comparison against a big number
+     */
+    private static java.math.BigDecimal convertToBigDecimal(Number value) {
+        if (value instanceof java.math.BigDecimal decimal) {
+            return decimal;
+        } else if (value instanceof java.math.BigInteger integer) {
+            return new java.math.BigDecimal(integer);
+        } else if (value instanceof Double || value instanceof Float) {
+            return java.math.BigDecimal.valueOf(value.doubleValue());
+        } else {
+            return java.math.BigDecimal.valueOf(value.longValue());
+        }
+    }
+
+    /**
+     * Count a visited node against the budgets and report whether one of them ran out. Once exhausted, a context
+     * stays exhausted, so the walk unwinds without further checks and the budget is logged once.
+     */
+    private boolean budgetExceededAndLog(String where, ComparisonContext ctx) {
+        return budgetExceededAndLog(where, ctx, 1);
+    }
+
+    /**
+     * Charge {@code nodes} visited at once, e.g. by hashing an element, then check the budgets like a single node.
+     */
+    private boolean budgetExceededAndLog(String where, ComparisonContext ctx, long nodes) {
+        if (ctx.exhaustedBudget() != ComparisonResult.Budget.NONE) {
+            return true;
+        }
+        long before = ctx.nodesVisited;
+        long after = ctx.nodesVisited += nodes;
+        ComparisonResult.Budget exceeded;
+        if (maxNodesVisited > 0 && after > maxNodesVisited) {
+            exceeded = ComparisonResult.Budget.NODES;
+        } else if (before / CLOCK_CHECK_INTERVAL != after / CLOCK_CHECK_INTERVAL && isTimeExceeded(ctx)) {
+            exceeded = ComparisonResult.Budget.TIME;
+        } else {
+            return false;
+        }
+        if (ctx.exhaust(exceeded)) {
+            logBudgetExceeded(where, ctx);
+        }
+        return true;
+    }
+
+    private boolean isTimeExceeded(ComparisonContext ctx) {
+        return this.maxCompareTimeMillis > 0L
+                && System.nanoTime() - ctx.startedAtNanos > this.maxCompareTimeMillis * 1_000_000L;
+    }
+
+    /**
+     * DEBUG only: the exhausted budget is carried in the result, and Shadow counts and samples it.
+     */
+    private void logBudgetExceeded(String where, ComparisonContext ctx) {
+        if (log.isDebugEnabled()) {
+            long elapsedMillis = (System.nanoTime() - ctx.startedAtNanos) / 1_000_000L;
+            if (ctx.exhaustedBudget() == ComparisonResult.Budget.NODES) {
+                log.debug("[MICROSWITCH-COMPARATOR] - Deep comparison node budget exceeded (>{} nodes) at {} after {} ms; returning early",
+                        this.maxNodesVisited, where, elapsedMillis);
+            } else {
+                log.debug("[MICROSWITCH-COMPARATOR] - Deep comparison time budget exceeded (>{} ms) at {} after {} ms; returning early",
+                        this.maxCompareTimeMillis, where, elapsedMillis);
+            }
+        }
+    }
+}
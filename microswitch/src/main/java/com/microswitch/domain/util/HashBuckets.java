@@ -0,0 +1,69 @@
+package com.microswitch.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Indices of an array of element hashes grouped by hash, for pairing up the elements of two unordered
+ * collections.
+ * <p>
+ * An open-addressing table maps each distinct hash to the first index carrying it, and a parallel array chains
+ * the further indices with the same hash in ascending order. Everything is primitive arrays sized once from the
+ * element count, so grouping {@code n} elements allocates three arrays and boxes nothing. Elements hashed to
+ * {@link StructuralFingerprint#NONE} are left out; they have no canonical hash to be grouped by.
+ */
+final class HashBuckets {
+
+    private static final int END = -1;
+
+    private final long[] slotHashes;
+    private final int[] slotFirst;
+    private final int[] next;
+    private final int mask;
+
+    HashBuckets(long[] hashes) {
+        // At most half full, so probing for an absent hash always reaches an empty slot.
+        int capacity = Integer.highestOneBit(Math.max(2, hashes.length) * 2 - 1) << 1;
+        this.slotHashes = new long[capacity];
+        this.slotFirst = new int[capacity];
+        this.next = new int[hashes.length];
+        this.mask = capacity - 1;
+        Arrays.fill(slotFirst, END);
+        // Inserting from the back and prepending keeps every chain in ascending index order.
+        for (int i = hashes.length - 1; i >= 0; i--) {
+            long hash = hashes[i];
+            if (hash == StructuralFingerprint.NONE) {
+                next[i] = END;
+                continue;
+            }
+            int slot = slotOf(hash);
+            next[i] = slotFirst[slot];
+            slotHashes[slot] = hash;
+            slotFirst[slot] = i;
+        }
+    }
+
+    /**
+     * The lowest index with the given hash, or -1.
+     */
+    int first(long hash) {
+        if (hash == StructuralFingerprint.NONE) {
+            return END;
+        }
+        return slotFirst[slotOf(hash)];
+    }
+
+    /**
+     * The next index with the same hash as {@code index}, or -1.
+     */
+    int next(int index) {
+        return next[index];
+    }
+
+    private int slotOf(long hash) {
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (slotFirst[slot] != END && slotHashes[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,80 @@
+package com.microswitch.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Set of object pairs compared by identity, used to detect cycles while walking two graphs side by side.
+ * <p>
+ * Open addressing with linear probing over one {@code Object[]} holding both halves of each pair next to each
+ * other: adding a pair allocates nothing unless the table grows, and lookups compare references, so two
+ * distinct pairs can never be mistaken for each other the way combined identity hash codes could. The table
+ * is kept at most half full. Instances are reused across comparisons of one thread through
+ * {@link ComparisonContext}; {@link #clear()} only touches the table when something was added.
+ */
+final class IdentityPairSet {
+
+    private static final int INITIAL_CAPACITY = 32;
+    /**
+     * Tables grown beyond this many pairs by an unusually large graph are dropped instead of being reused.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 13;
+
+    private Object[] table = new Object[INITIAL_CAPACITY * 2];
+    private int size;
+
+    /**
+     * Add a pair.
+     *
+     * @return true when the pair was not in the set
+     */
+    boolean add(Object left, Object right) {
+        Object[] slots = table;
+        int mask = (slots.length >> 1) - 1;
+        int index = hash(left, right) & mask;
+        while (true) {
+            Object current = slots[index << 1];
+            if (current == null) {
+                slots[index << 1] = left;
+                slots[(index << 1) + 1] = right;
+                if (++size > mask >> 1) {
+                    grow();
+                }
+                return true;
+            }
+            if (current == left && slots[(index << 1) + 1] == right) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(table, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Whether the table is small enough to keep for the next comparison.
+     */
+    boolean isRetainable() {
+        return table.length >> 1 <= MAX_RETAINED_CAPACITY;
+    }
+
+    private void grow() {
+        Object[] old = table;
+        table = new Object[old.length * 2];
+        size = 0;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != null) {
+                add(old[i], old[i + 1]);
+            }
+        }
+    }
+
+    private static int hash(Object left, Object right) {
+        int h = System.identityHashCode(left) * 0x9E3779B9 + System.identityHashCode(right);
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,167 @@
+package com.microswitch.domain.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Token-level JSON comparison for the {@code JSON_BASED} strategy.
+ * <p>
+ * Each side is serialized into a Jackson {@link TokenBuffer}, which keeps references to the values handed to
+ * the generator instead of encoding text, and the two token streams are then walked in lockstep. Ignored field
+ * names are dropped at any depth while generating, through a {@link FilteringGeneratorDelegate}, so neither a
+ * JSON string nor a tree is ever built. Scalars that differ are reported with the path they sit at and the walk
+ * goes on until {@code maxDifferences} is reached; a structural difference (a missing field, a longer array)
+ * ends it, since the two streams no longer line up.
+ */
+final class JsonTokenComparison {
+
+    private JsonTokenComparison() {
+    }
+
+    /**
+     * Serialize a value into a token buffer, without the ignored fields.
+     */
+    static TokenBuffer tokens(ObjectMapper mapper, Object value, Set<String> fieldsToIgnore) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(mapper, false);
+        mapper.writeValue(filtered(buffer, fieldsToIgnore), value);
+        return buffer;
+    }
+
+    /**
+     * Wrap a generator so that properties named in {@code fieldsToIgnore} are skipped with their values at any depth.
+     */
+    static JsonGenerator filtered(JsonGenerator generator, Set<String> fieldsToIgnore) {
+        if (fieldsToIgnore.isEmpty()) {
+            return generator;
+        }
+        return new FilteringGeneratorDelegate(generator, new IgnoredFields(fieldsToIgnore),
+                TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+    }
+
+    /**
+     * Walk both token streams in lockstep, recording differences in {@code ctx}.
+     */
+    static boolean compare(TokenBuffer stable, TokenBuffer mirror, ComparisonContext ctx) throws IOException {
+        try (JsonParser left = stable.asParser(); JsonParser right = mirror.asParser()) {
+            boolean equal = true;
+            while (true) {
+                JsonToken token = left.nextToken();
+                if (token != right.nextToken()
+                        || token == JsonToken.FIELD_NAME && !left.currentName().equals(right.currentName())) {
+                    return mismatch(left, right, ctx);
+                }
+                if (token == null) {
+                    return equal;
+                }
+                if (token.isScalarValue() && !scalarEqual(token, left, right)) {
+                    equal = mismatch(left, right, ctx);
+                    if (ctx.shouldStop()) {
+                        return false;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean scalarEqual(JsonToken token, JsonParser left, JsonParser right) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> left.getText().equals(right.getText());
+            case VALUE_NUMBER_INT -> integralEqual(left, right);
+            case VALUE_NUMBER_FLOAT -> decimalEqual(left, right);
+            case VALUE_EMBEDDED_OBJECT -> Objects.deepEquals(left.getEmbeddedObject(), right.getEmbeddedObject());
+            // true, false and null carry no value beyond the token itself
+            default -> true;
+        };
+    }
+
+    /**
+     * Equal when the serialized text would be: {@code int 1} and {@code long 1} both write {@code 1}.
+     */
+    private static boolean integralEqual(JsonParser left, JsonParser right) throws IOException {
+        JsonParser.NumberType leftType = left.getNumberType();
+        JsonParser.NumberType rightType = right.getNumberType();
+        if (leftType != JsonParser.NumberType.BIG_INTEGER && rightType != JsonParser.NumberType.BIG_INTEGER) {
+            return left.getLongValue() == right.getLongValue();
+        }
+        return left.getBigIntegerValue().equals(right.getBigIntegerValue());
+    }
+
+    /**
+     * Same-typed values are compared by their bits ({@code -0.0} differs from {@code 0.0}, as in the text);
+     * mixed float, double and decimal values by their text.
+     */
+    private static boolean decimalEqual(JsonParser left, JsonParser right) throws IOException {
+        JsonParser.NumberType type = left.getNumberType();
+        if (type != right.getNumberType()) {
+            return left.getText().equals(right.getText());
+        }
+        return switch (type) {
+            case DOUBLE -> Double.doubleToLongBits(left.getDoubleValue()) == Double.doubleToLongBits(right.getDoubleValue());
+            case FLOAT -> Float.floatToIntBits(left.getFloatValue()) == Float.floatToIntBits(right.getFloatValue());
+            default -> left.getDecimalValue().equals(right.getDecimalValue());
+        };
+    }
+
+    /**
+     * Report the current tokens at the stable side's path, e.g. {@code items[2].price}.
+     */
+    private static boolean mismatch(JsonParser left, JsonParser right, ComparisonContext ctx) throws IOException {
+        List<JsonStreamContext> scopes = new ArrayList<>();
+        for (JsonStreamContext scope = left.getParsingContext(); scope != null && !scope.inRoot(); scope = scope.getParent()) {
+            scopes.add(scope);
+        }
+        for (int i = scopes.size() - 1; i >= 0; i--) {
+            JsonStreamContext scope = scopes.get(i);
+            if (scope.inArray()) {
+                ctx.pushIndex(Math.max(0, scope.getCurrentIndex()));
+            } else if (scope.getCurrentName() != null) {
+                ctx.pushField(scope.getCurrentName());
+            }
+        }
+        ctx.mismatch(text(left), text(right));
+        ctx.clearPath();
+        return false;
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        return parser.currentToken() == null ? "<end>" : parser.getText();
+    }
+
+    /**
+     * Drops properties by name at every level and keeps objects and arrays that end up empty.
+     */
+    private static final class IgnoredFields extends TokenFilter {
+        private final Set<String> fieldsToIgnore;
+
+        private IgnoredFields(Set<String> fieldsToIgnore) {
+            this.fieldsToIgnore = fieldsToIgnore;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return fieldsToIgnore.contains(name) ? null : this;
+        }
+
+        @Override
+        public boolean includeEmptyObject(boolean contentsFiltered) {
+            return true;
+        }
+
+        @Override
+        public boolean includeEmptyArray(boolean contentsFiltered) {
+            return true;
+        }
+    }
+}
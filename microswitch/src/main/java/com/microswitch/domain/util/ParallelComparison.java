@@ -0,0 +1,150 @@
+package com.microswitch.domain.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exhaustive comparison of very large lists and arrays split into chunks on a dedicated fork/join pool.
+ * <p>
+ * The index range is halved recursively down to chunks of {@code chunkSize} elements, which the pool's workers
+ * scan independently. The first chunk to find a difference, or to run out of the comparison's budget, ends the
+ * search: every other chunk polls the shared outcome between elements and stops, and chunks not started yet
+ * never run. The reported index is therefore the first difference found, not necessarily the lowest one.
+ * Chunks charge the nodes they visit to the search, so a node budget holds for all of them together.
+ * <p>
+ * The pool is shared by all comparators and leaves one core to the rest of the process; its daemon workers are
+ * started on first use and retire when idle.
+ */
+final class ParallelComparison {
+
+    /**
+     * No difference in the whole range.
+     */
+    static final int EQUAL = -1;
+    /**
+     * The time budget ran out before the range was fully compared.
+     */
+    static final int TIME_EXCEEDED = -2;
+    /**
+     * The node budget ran out before the range was fully compared.
+     */
+    static final int NODES_EXCEEDED = -3;
+
+    private static final class PoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("microswitch-compare-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null, false);
+    }
+
+    /**
+     * Compares the elements of one index range.
+     */
+    @FunctionalInterface
+    interface RangeScan {
+        /**
+         * The first index in {@code [from, to)} whose elements differ, {@link #EQUAL}, or the budget that ran
+         * out. Long scans report their nodes through {@link Search#charge(long)} now and then and return
+         * {@link #EQUAL} once it answers true.
+         */
+        int scan(int from, int to, Search search);
+    }
+
+    private ParallelComparison() {
+    }
+
+    /**
+     * Search {@code [0, size)} for a difference.
+     *
+     * @param nodeAllowance nodes the chunks may visit together before the search gives up
+     */
+    static Search run(int size, int chunkSize, long nodeAllowance, RangeScan scan) {
+        Search search = new Search(Math.max(1, chunkSize), nodeAllowance, scan);
+        PoolHolder.POOL.invoke(search.new Chunk(0, size));
+        return search;
+    }
+
+    /**
+     * Outcome shared by the chunks of one search.
+     */
+    static final class Search {
+        private final int chunkSize;
+        private final long nodeAllowance;
+        private final RangeScan scan;
+        private final AtomicInteger outcome = new AtomicInteger(EQUAL);
+        private final AtomicLong nodesVisited = new AtomicLong();
+
+        private Search(int chunkSize, long nodeAllowance, RangeScan scan) {
+            this.chunkSize = chunkSize;
+            this.nodeAllowance = nodeAllowance;
+            this.scan = scan;
+        }
+
+        /**
+         * The first differing index found, {@link #EQUAL}, {@link #TIME_EXCEEDED} or {@link #NODES_EXCEEDED}.
+         */
+        int outcome() {
+            return outcome.get();
+        }
+
+        /**
+         * Nodes charged by all chunks.
+         */
+        long nodesVisited() {
+            return nodesVisited.get();
+        }
+
+        /**
+         * Whether a chunk found a difference or a budget ran out.
+         */
+        boolean shouldStop() {
+            return outcome.get() != EQUAL;
+        }
+
+        /**
+         * Add nodes visited by a chunk, then answer {@link #shouldStop()}.
+         */
+        boolean charge(long nodes) {
+            if (nodes > 0 && nodesVisited.addAndGet(nodes) > nodeAllowance) {
+                outcome.compareAndSet(EQUAL, NODES_EXCEEDED);
+            }
+            return shouldStop();
+        }
+
+        private final class Chunk extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            private Chunk(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (shouldStop()) {
+                    return;
+                }
+                if (to - from > chunkSize) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new Chunk(from, middle), new Chunk(middle, to));
+                    return;
+                }
+                int result = scan.scan(from, to, Search.this);
+                if (result != EQUAL) {
+                    outcome.compareAndSet(EQUAL, result);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.microswitch.domain.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible stratified samples of positions in huge lists, maps and sets.
+ * <p>
+ * A collection of {@code size} elements is cut into as many equal strata as there are samples and one random
+ * position is drawn inside each, so the sample covers the whole collection evenly without the blind spots of a
+ * fixed stride: a difference repeating every {@code k} elements is as likely to be hit as any other. Positions
+ * come from a {@link SplittableRandom} seeded with the comparison's seed and the ordinal of the sampled
+ * collection within the comparison, so replaying a comparison with the same seed samples the same positions.
+ * <p>
+ * The sample size follows from the wanted confidence: with {@code n} samples, a collection in which a fraction
+ * {@code r} of the elements differ goes unnoticed with probability {@code (1 - r)^n}, hence
+ * {@code n = ln(1 - confidence) / ln(1 - r)} - about 4,600 samples for 99% confidence of catching a 0.1% difference
+ * rate, whatever the collection's size.
+ */
+final class StratifiedSample {
+
+    private StratifiedSample() {
+    }
+
+    /**
+     * Samples needed to see at least one of a fraction {@code differenceRate} of differing elements with
+     * probability {@code confidence}.
+     */
+    static int sampleSize(double confidence, double differenceRate) {
+        double samples = Math.ceil(Math.log1p(-confidence) / Math.log1p(-differenceRate));
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, samples));
+    }
+
+    /**
+     * Seed of the {@code ordinal}-th sampled collection of a comparison.
+     */
+    static long streamSeed(long comparisonSeed, int ordinal) {
+        long z = comparisonSeed + (ordinal + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * One position per stratum, ascending.
+     */
+    static int[] positions(int size, int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] positions = new int[samples];
+        for (int stratum = 0; stratum < samples; stratum++) {
+            int start = (int) ((long) stratum * size / samples);
+            int end = (int) ((long) (stratum + 1) * size / samples);
+            positions[stratum] = start + random.nextInt(end - start);
+        }
+        return positions;
+    }
+}
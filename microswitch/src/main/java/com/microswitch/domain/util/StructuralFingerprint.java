@@ -0,0 +1,387 @@
+package com.microswitch.domain.util;
+
+import com.microswitch.domain.comparator.ShadowComparator;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Single-pass 64-bit structural hash of an object graph, used to confirm equality before the
+ * diff-producing walk of {@link DeepObjectComparator}.
+ * <p>
+ * The hash follows the comparator's reflection rules: the same fields are read, through the comparator's
+ * {@link ComparisonPlan} for each class, numerically equivalent wrappers hash alike, lists are ordered unless
+ * compared as multisets, sets and maps are order-independent, and nothing below {@code maxDepth} contributes. Two values with equal
+ * fingerprints therefore compare equal, barring a 64-bit collision. The reverse does not have to hold: where
+ * the comparator is more lenient (sampling, time budget) fingerprints may differ and the full walk decides.
+ * <p>
+ * Constructs whose equality the comparator delegates to {@code equals()} - collections other than lists and
+ * sets, non-scalar map keys - as well as oversized graphs yield {@link #NONE}, meaning "no shortcut".
+ * Hashing itself allocates nothing per node, apart from one small sink per object of a class with a generated
+ * comparator.
+ */
+final class StructuralFingerprint {
+
+    static final long NONE = 0L;
+
+    private static final long TAG_NULL = 1;
+    private static final long TAG_NUMBER = 2;
+    private static final long TAG_DECIMAL = 3;
+    private static final long TAG_STRING = 4;
+    private static final long TAG_BOOLEAN = 5;
+    private static final long TAG_CHAR = 6;
+    private static final long TAG_ENUM = 7;
+    private static final long TAG_LIST = 8;
+    private static final long TAG_SET = 9;
+    private static final long TAG_MAP = 10;
+    private static final long TAG_ARRAY = 11;
+    private static final long TAG_OBJECT = 12;
+    private static final long TAG_DEPTH_LIMIT = 13;
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_NODES = 100_000;
+
+    /**
+     * Thrown, without a stack trace, when the graph contains something that cannot be fingerprinted.
+     */
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Unsupported UNSUPPORTED = new Unsupported();
+
+    private final int maxDepth;
+    private final boolean samplingOnHuge;
+    private final int fullScanLimit;
+    private final boolean unorderedLists;
+    private final int parallelMinElements;
+    private final Function<Class<?>, ComparisonPlan> plans;
+    private final Predicate<Class<?>> isLeaf;
+
+    /**
+     * Nodes visited in one fingerprint run, so shared sub-graphs cannot make it blow up. Callers hashing on a
+     * comparison's behalf read it afterwards to charge the run to the comparison's node budget.
+     */
+    static final class Budget {
+        int nodes;
+    }
+
+    StructuralFingerprint(int maxDepth, boolean samplingOnHuge, int fullScanLimit, boolean unorderedLists,
+                          int parallelMinElements, Function<Class<?>, ComparisonPlan> plans, Predicate<Class<?>> isLeaf) {
+        this.maxDepth = maxDepth;
+        this.samplingOnHuge = samplingOnHuge;
+        this.fullScanLimit = fullScanLimit;
+        this.unorderedLists = unorderedLists;
+        this.parallelMinElements = parallelMinElements;
+        this.plans = plans;
+        this.isLeaf = isLeaf;
+    }
+
+    /**
+     * Fingerprint of a comparison root, or {@link #NONE}. Also the canonical hash by which the comparator pairs
+     * up the elements of unordered collections. The root class takes part unless the root is a
+     * number, mirroring the comparator's class check after its numeric equivalence check.
+     */
+    long of(Object root) {
+        return of(root, new Budget());
+    }
+
+    /**
+     * {@link #of(Object)}, leaving the number of nodes hashed in {@code budget}.
+     */
+    long of(Object root, Budget budget) {
+        budget.nodes = 0;
+        try {
+            long hash = hash(root, 0, budget);
+            if (root != null && !(root instanceof Number)) {
+                hash = mix(hash, root.getClass().getName().hashCode());
+            }
+            hash = finish(hash);
+            return hash == NONE ? 1L : hash;
+        } catch (Unsupported | StackOverflowError e) {
+            return NONE;
+        }
+    }
+
+    private long hash(Object value, int depth, Budget budget) {
+        if (++budget.nodes > MAX_NODES) {
+            throw UNSUPPORTED;
+        }
+        if (value == null) {
+            return TAG_NULL;
+        }
+        Class<?> type = value.getClass();
+        if (isLeaf.test(type)) {
+            return leaf(value);
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return bigNumber(value);
+        }
+        if (depth > maxDepth) {
+            return TAG_DEPTH_LIMIT;
+        }
+        if (depth > MAX_DEPTH) {
+            throw UNSUPPORTED;
+        }
+        if (value instanceof List<?> list) {
+            return list(list, depth, budget);
+        }
+        if (value instanceof Set<?> set) {
+            return set(set, depth, budget);
+        }
+        if (value instanceof Collection<?>) {
+            throw UNSUPPORTED;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map(map, depth, budget);
+        }
+        if (type.isArray()) {
+            return array(value, type, depth, budget);
+        }
+        return object(value, type, depth, budget);
+    }
+
+    private long leaf(Object value) {
+        if (value instanceof String s) {
+            long hash = mix(TAG_STRING, s.length());
+            for (int i = 0; i < s.length(); i++) {
+                hash = mix(hash, s.charAt(i));
+            }
+            return hash;
+        }
+        if (value instanceof Boolean b) {
+            return mix(TAG_BOOLEAN, b ? 1 : 0);
+        }
+        if (value instanceof Character c) {
+            return mix(TAG_CHAR, c);
+        }
+        if (value instanceof Enum<?> e) {
+            return mix(mix(TAG_ENUM, e.getDeclaringClass().getName().hashCode()), e.ordinal());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return decimal(((Number) value).doubleValue());
+        }
+        return mix(TAG_NUMBER, ((Number) value).longValue());
+    }
+
+    /**
+     * Integral values hash like longs so 2.0 matches 2; -0.0 keeps its own bits because Double.equals tells it apart,
+     * and 2^63, which saturates to {@code Long.MAX_VALUE}, because no long equals it.
+     */
+    private static long decimal(double d) {
+        if (d == (long) d && d != 0x1p63 && Double.doubleToRawLongBits(d) != Long.MIN_VALUE) {
+            return mix(TAG_NUMBER, (long) d);
+        }
+        return mix(TAG_DECIMAL, Double.doubleToLongBits(d));
+    }
+
+    private static long bigNumber(Object value) {
+        BigInteger unscaled;
+        int scale = 0;
+        if (value instanceof BigDecimal decimal) {
+            unscaled = decimal.unscaledValue();
+            scale = decimal.scale();
+        } else {
+            unscaled = (BigInteger) value;
+        }
+        long hash = mix(mix(TAG_OBJECT, value.getClass().getName().hashCode()), scale);
+        if (unscaled.bitLength() < Long.SIZE) {
+            return mix(hash, unscaled.longValue());
+        }
+        for (byte b : unscaled.toByteArray()) {
+            hash = mix(hash, b);
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes every element, unless the comparator skips the list altogether (sampling disabled and more
+     * elements than it compares in full), in which case only the size counts. Sampled lists are hashed in
+     * full too: equal hashes then mean equal lists, and unequal ones leave it to the sampled walk. Lists
+     * compared as multisets hash like sets.
+     */
+    private long list(List<?> list, int depth, Budget budget) {
+        if (unorderedLists) {
+            return unordered(list, TAG_LIST, depth, budget);
+        }
+        int size = list.size();
+        long hash = mix(TAG_LIST, size);
+        boolean parallel = parallelMinElements > 0 && size >= parallelMinElements && list instanceof RandomAccess;
+        if (samplingOnHuge || size <= fullScanLimit || parallel) {
+            for (Object element : list) {
+                hash = mix(hash, hash(element, depth + 1, budget));
+            }
+        }
+        return hash;
+    }
+
+    private long set(Set<?> set, int depth, Budget budget) {
+        return unordered(set, TAG_SET, depth, budget);
+    }
+
+    /**
+     * Order-independent: the comparator pairs up the elements of both sides whatever their order.
+     */
+    private long unordered(Collection<?> elements, long tag, int depth, Budget budget) {
+        long sum = 0;
+        for (Object element : elements) {
+            sum += finish(hash(element, depth + 1, budget));
+        }
+        return mix(mix(tag, elements.size()), sum);
+    }
+
+    /**
+     * Order-independent. Keys are looked up with {@code equals()}, so only scalar keys, hashed together with
+     * their class, are supported.
+     */
+    private long map(Map<?, ?> map, int depth, Budget budget) {
+        long sum = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            if (key == null || !isLeaf.test(key.getClass())) {
+                throw UNSUPPORTED;
+            }
+            long keyHash = mix(leaf(key), key.getClass().getName().hashCode());
+            sum += finish(mix(keyHash, hash(entry.getValue(), depth + 1, budget)));
+        }
+        return mix(mix(TAG_MAP, map.size()), sum);
+    }
+
+    private long array(Object array, Class<?> type, int depth, Budget budget) {
+        int length = Array.getLength(array);
+        Class<?> component = type.getComponentType();
+        long hash = mix(TAG_ARRAY, length);
+        if (!component.isPrimitive()) {
+            Object[] elements = (Object[]) array;
+            for (Object element : elements) {
+                hash = mix(hash, hash(element, depth + 1, budget));
+            }
+            return hash;
+        }
+        hash = mix(hash, component.getName().hashCode());
+        budget.nodes += length;
+        if (array instanceof int[] a) {
+            for (int v : a) hash = mix(hash, v);
+        } else if (array instanceof long[] a) {
+            for (long v : a) hash = mix(hash, v);
+        } else if (array instanceof double[] a) {
+            for (double v : a) hash = mix(hash, Double.doubleToLongBits(v));
+        } else if (array instanceof float[] a) {
+            for (float v : a) hash = mix(hash, Float.floatToIntBits(v));
+        } else if (array instanceof boolean[] a) {
+            for (boolean v : a) hash = mix(hash, v ? 1 : 0);
+        } else if (array instanceof byte[] a) {
+            for (byte v : a) hash = mix(hash, v);
+        } else if (array instanceof char[] a) {
+            for (char v : a) hash = mix(hash, v);
+        } else if (array instanceof short[] a) {
+            for (short v : a) hash = mix(hash, v);
+        }
+        return hash;
+    }
+
+    /**
+     * Reads exactly the fields of the comparator's plan for the class, primitives without boxing.
+     */
+    private long object(Object value, Class<?> type, int depth, Budget budget) {
+        ComparisonPlan plan = plans.apply(type);
+        if (plan.generated() != null) {
+            GeneratedHasher hasher = new GeneratedHasher(plan, mix(TAG_OBJECT, type.getName().hashCode()), depth, budget);
+            plan.generated().hash(value, hasher);
+            return hasher.hash;
+        }
+        ComparisonPlan.Accessor[] accessors = plan.accessors();
+        long hash = mix(TAG_OBJECT, type.getName().hashCode());
+        for (ComparisonPlan.Accessor accessor : accessors) {
+            hash = mix(hash, switch (accessor.kind) {
+                case LONG -> mix(TAG_NUMBER, accessor.getLong(value));
+                case DOUBLE -> decimal(accessor.getDouble(value));
+                case BOOLEAN -> mix(TAG_BOOLEAN, accessor.getBoolean(value) ? 1 : 0);
+                case CHAR -> mix(TAG_CHAR, accessor.getChar(value));
+                case STRING, REFERENCE -> hash(accessor.get(value), depth + 1, budget);
+            });
+        }
+        budget.nodes += accessors.length;
+        return hash;
+    }
+
+    /**
+     * Mixes the fields read by a generated comparator exactly as {@link #object} mixes the plan's accessors.
+     */
+    private final class GeneratedHasher implements ShadowComparator.Hasher {
+        private final ComparisonPlan plan;
+        private final int depth;
+        private final Budget budget;
+        private long hash;
+
+        private GeneratedHasher(ComparisonPlan plan, long hash, int depth, Budget budget) {
+            this.plan = plan;
+            this.hash = hash;
+            this.depth = depth;
+            this.budget = budget;
+        }
+
+        @Override
+        public boolean skip(int field) {
+            return plan.skipped(field);
+        }
+
+        @Override
+        public void hashLong(long value) {
+            next(mix(TAG_NUMBER, value));
+        }
+
+        @Override
+        public void hashDouble(double value) {
+            next(decimal(value));
+        }
+
+        @Override
+        public void hashBoolean(boolean value) {
+            next(mix(TAG_BOOLEAN, value ? 1 : 0));
+        }
+
+        @Override
+        public void hashChar(char value) {
+            next(mix(TAG_CHAR, value));
+        }
+
+        @Override
+        public void hashObject(Object value) {
+            next(hash(value, depth + 1, budget));
+        }
+
+        private void next(long fieldHash) {
+            hash = mix(hash, fieldHash);
+            budget.nodes++;
+        }
+    }
+
+    // MurmurHash3 block mixing: every bit of the value reaches every bit of the running hash.
+    private static long mix(long hash, long value) {
+        long k = value * 0x87c37b91114253d5L;
+        k = Long.rotateLeft(k, 31) * 0x4cf5ad432745937fL;
+        hash ^= k;
+        return Long.rotateLeft(hash, 27) * 5 + 0x52dce729;
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
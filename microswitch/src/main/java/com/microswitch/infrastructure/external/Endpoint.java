@@ -0,0 +1,90 @@
+package com.microswitch.infrastructure.external;
+
+import com.microswitch.application.executor.DeploymentStrategyExecutor;
+import com.microswitch.domain.InitializerConfiguration;
+import com.microswitch.domain.strategy.MismatchSignature;
+import com.microswitch.domain.strategy.Shadow;
+import com.microswitch.domain.strategy.ShadowMismatch;
+import com.microswitch.domain.util.ComparisonResult;
+import com.microswitch.domain.value.StrategyType;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+@org.springframework.boot.actuate.endpoint.annotation.Endpoint(id = "microswitch")
+public class Endpoint {
+
+    private static final String SIGNATURES_VIEW = "signatures";
+    private static final int TOP_SIGNATURES = 20;
+    private static final String MASKED = "<masked>";
+
+    private final InitializerConfiguration properties;
+    private final DeploymentStrategyExecutor strategyExecutor; // may be null when no executor is available
+
+    public Endpoint(InitializerConfiguration properties) {
+        this(properties, null);
+    }
+
+    public Endpoint(InitializerConfiguration properties, DeploymentStrategyExecutor strategyExecutor) {
+        this.properties = properties;
+        this.strategyExecutor = strategyExecutor;
+    }
+
+    @ReadOperation
+    public InitializerConfiguration configurations() {
+        return properties;
+    }
+
+    /**
+     * Recent shadow mismatches of a service, newest first ({@code GET /actuator/microswitch/{serviceKey}}).
+     * Values are masked unless the service's {@code shadow.comparator.exposeValues} is true.
+     */
+    @ReadOperation
+    public List<ShadowMismatch> shadowMismatches(@Selector String serviceKey) {
+        if (strategyExecutor == null) {
+            return List.of();
+        }
+        List<ShadowMismatch> mismatches = strategyExecutor.getStrategy(StrategyType.SHADOW)
+                .filter(Shadow.class::isInstance)
+                .map(strategy -> ((Shadow) strategy).recentMismatches(serviceKey))
+                .orElse(List.of());
+        return exposesValues(serviceKey) ? mismatches : mismatches.stream().map(Endpoint::masked).toList();
+    }
+
+    /**
+     * The most frequent mismatch signatures of a service ({@code GET /actuator/microswitch/{serviceKey}/signatures}).
+     */
+    @ReadOperation
+    public List<MismatchSignature> mismatchSignatures(@Selector String serviceKey, @Selector String view) {
+        if (!SIGNATURES_VIEW.equals(view)) {
+            throw new InvalidEndpointRequestException("Unknown view '" + view + "' for service " + serviceKey
+                    + ", expected '" + SIGNATURES_VIEW + "'", "Unknown view");
+        }
+        if (strategyExecutor == null) {
+            return List.of();
+        }
+        return strategyExecutor.getStrategy(StrategyType.SHADOW)
+                .filter(Shadow.class::isInstance)
+                .map(strategy -> ((Shadow) strategy).topMismatchSignatures(serviceKey, TOP_SIGNATURES))
+                .orElse(List.of());
+    }
+
+    private boolean exposesValues(String serviceKey) {
+        var service = properties.getServices() != null ? properties.getServices().get(serviceKey) : null;
+        if (service == null || service.getShadow() == null || service.getShadow().getComparator() == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(service.getShadow().getComparator().getExposeValues());
+    }
+
+    private static ShadowMismatch masked(ShadowMismatch mismatch) {
+        List<ComparisonResult.Difference> differences = mismatch.differences().stream()
+                // Map keys in the path can be payload values too, so only the key-free signature is shown.
+                .map(difference -> new ComparisonResult.Difference(difference.signature(), difference.signature(), MASKED, MASKED))
+                .toList();
+        return new ShadowMismatch(mismatch.serviceKey(), mismatch.detectedAt(), differences, mismatch.truncated(),
+                mismatch.exhaustedBudget(), mismatch.samplingSeed());
+    }
+}
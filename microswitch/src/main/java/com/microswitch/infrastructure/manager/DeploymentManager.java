@@ -1,5 +1,6 @@
 package com.microswitch.infrastructure.manager;
 
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -80,6 +81,35 @@ public final class DeploymentManager {
         return invokeStrategy("executeByActiveStrategy", stable, experimental, serviceKey);
     }
 
+    /**
+     * Executes the configured deployment strategy for the specified service, passing the same input
+     * to whichever function runs.
+     *
+     * <p>Behaves like {@link #execute(Supplier, Supplier, String)}, but because the input is known to the
+     * library it can also be captured: in shadow {@code capture} mode the input and the stable output are
+     * recorded for offline replay instead of running the experimental function live.
+     *
+     * @param <T>          the input type of both functions
+     * @param <R>          the return type of both functions
+     * @param stable       the stable/primary function
+     * @param experimental the experimental/secondary function
+     * @param input        the input handed to the selected function(s)
+     * @param serviceKey   the unique identifier for service configuration
+     * @return the result from the selected function execution based on active strategy
+     * @throws IllegalArgumentException if serviceKey is null or empty, or if activeStrategy is not configured
+     * @since 1.5
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> R execute(Function<T, R> stable, Function<T, R> experimental, T input, String serviceKey) {
+        try {
+            var method = strategyExecutor.getClass().getMethod("executeByActiveStrategy",
+                Function.class, Function.class, Object.class, String.class);
+            return (R) method.invoke(strategyExecutor, stable, experimental, input, serviceKey);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to invoke strategy method: executeByActiveStrategy", e);
+        }
+    }
+
     /**
      * Executes a canary deployment strategy.
      *
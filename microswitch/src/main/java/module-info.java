@@ -2,6 +2,10 @@ module io.github.n11tech.microswitch {
     // Export ONLY the public API - DeploymentManager
     // This is the ONLY class that consuming applications can access
     exports com.microswitch.infrastructure.manager;
+    // Offline replay of traffic recorded in shadow capture mode (ShadowReplayRunner, ReplayReport)
+    exports com.microswitch.domain.capture;
+    // @ShadowComparable and the ShadowComparator interface implemented by build-time generated comparators
+    exports com.microswitch.domain.comparator;
 
     // ALL OTHER PACKAGES ARE HIDDEN:
     // - com.microswitch.application.* (internal application logic)
@@ -16,7 +20,9 @@ module io.github.n11tech.microswitch {
     opens com.microswitch.domain to spring.boot.autoconfigure;
     // Allow Spring Core test utilities (ReflectionUtils/ReflectionTestUtils) to access
     // private fields in strategy tests under this package
-    opens com.microswitch.domain.strategy to spring.core;
+    opens com.microswitch.domain.strategy to spring.core, com.fasterxml.jackson.databind;
+    // Shadow mismatch records returned by the actuator endpoint are serialized by Jackson
+    opens com.microswitch.domain.util to com.fasterxml.jackson.databind;
 
     // Spring Boot and Spring Framework dependencies
     requires spring.boot;
@@ -35,6 +41,9 @@ module io.github.n11tech.microswitch {
     // Micrometer API (optional bean in auto-config)
     requires micrometer.core;
 
+    // Process CPU load (com.sun.management.OperatingSystemMXBean) for adaptive shadow mirroring
+    requires jdk.management;
+
     // Logging API
     requires org.slf4j;
 
@@ -161,4 +161,36 @@ class DeploymentStrategyExecutorTest {
         verify(deploymentMetrics).recordSuccess("svc5", "stable", "blueGreen");
         verify(deploymentMetrics, never()).recordSuccess("svc5", "experimental", "blueGreen");
     }
+
+    interface ListeningStrategy extends DeploymentStrategy, ExecutionOutcomeListener {
+    }
+
+    @Test
+    void executeBlueGreen_listeningStrategy_receivesOutcomes_evenWithoutMetrics() {
+        java.util.List<String> outcomes = new java.util.ArrayList<>();
+        ListeningStrategy blueGreen = new ListeningStrategy() {
+            @Override
+            public <R> R execute(Supplier<R> stable, Supplier<R> experimental, String key) {
+                stable.get();
+                try {
+                    experimental.get();
+                } catch (RuntimeException ignored) {
+                    // outcome still reported
+                }
+                return stable.get();
+            }
+
+            @Override
+            public void onOutcome(String serviceKey, boolean experimental, boolean success, long latencyNanos) {
+                assertTrue(latencyNanos >= 0);
+                outcomes.add(serviceKey + ":" + (experimental ? "experimental" : "stable") + ":" + success);
+            }
+        };
+        TestExecutor executor = new TestExecutor(new InitializerConfiguration(), null,
+                null, null, blueGreen);
+
+        String result = executor.executeBlueGreen(() -> "blue", () -> { throw new RuntimeException("green down"); }, "svc6");
+        assertEquals("blue", result);
+        assertEquals(java.util.List.of("svc6:stable:true", "svc6:experimental:false", "svc6:stable:true"), outcomes);
+    }
 }
@@ -0,0 +1,142 @@
+package com.microswitch.domain.capture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureLogTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("capture-log-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public static class Quote {
+        public String symbol;
+        public int amount;
+
+        public Quote() {
+        }
+
+        Quote(String symbol, int amount) {
+            this.symbol = symbol;
+            this.amount = amount;
+        }
+    }
+
+    @Test
+    void appendedRecords_areReadBackInOrder() throws IOException {
+        try (var captureLog = new CaptureLog(directory, 4096, 1 << 20)) {
+            assertTrue(captureLog.append("a", new Quote("A", 1)));
+            assertTrue(captureLog.append("b", new Quote("B", 2)));
+        }
+
+        List<String> records = new ArrayList<>();
+        CaptureLog.read(directory, captured -> records.add(
+                new String(captured.input(), StandardCharsets.UTF_8) + "=" + new String(captured.output(), StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("\"a\"={\"symbol\":\"A\",\"amount\":1}", "\"b\"={\"symbol\":\"B\",\"amount\":2}"), records);
+    }
+
+    @Test
+    void segmentsRoll_andOldestAreDeletedBeyondSizeCap() throws IOException {
+        try (var captureLog = new CaptureLog(directory, 256, 512)) {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(captureLog.append(i, new Quote("S" + i, i)));
+            }
+            assertFalse(captureLog.append("x".repeat(300), null), "records larger than a segment are dropped");
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        List<Integer> inputs = new ArrayList<>();
+        CaptureLog.read(directory, captured -> inputs.add(Integer.parseInt(new String(captured.input(), StandardCharsets.UTF_8))));
+        assertFalse(inputs.isEmpty());
+        assertEquals(19, inputs.get(inputs.size() - 1));
+        assertTrue(inputs.get(0) > 0, "oldest records were evicted");
+    }
+
+    @Test
+    void nextSegment_isMappedAheadAndUnusedSpareRemovedOnClose() throws IOException, InterruptedException {
+        try (var captureLog = new CaptureLog(directory, 256, 1 << 20)) {
+            assertTrue(captureLog.append(0, new Quote("S0", 0)));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (segmentCount() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, segmentCount(), "the spare is mapped before the active segment fills");
+            for (int i = 1; i <= 20; i++) {
+                assertTrue(captureLog.append(i, new Quote("S" + i, i)));
+            }
+        }
+
+        List<Integer> inputs = new ArrayList<>();
+        CaptureLog.read(directory, captured -> inputs.add(Integer.parseInt(new String(captured.input(), StandardCharsets.UTF_8))));
+        assertEquals(IntStream.rangeClosed(0, 20).boxed().toList(), inputs);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path segment : files.toList()) {
+                assertNotEquals(0, ByteBuffer.wrap(Files.readAllBytes(segment)).getInt(), segment + " holds no record");
+            }
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void replayRunner_reportsMatchesMismatchesAndFailures() {
+        try (var captureLog = new CaptureLog(directory, 4096, 1 << 20)) {
+            for (int i = 0; i < 10; i++) {
+                captureLog.append(i, new Quote("S" + i, i * 10));
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+
+        ReplayReport report = ShadowReplayRunner.builder()
+                .parallelism(4)
+                .build()
+                .replay(directory, Integer.class, Quote.class, input -> {
+                    if (input == 9) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return new Quote("S" + input, input == 3 ? -1 : input * 10);
+                });
+
+        assertEquals(10, report.replayed());
+        assertEquals(8, report.matched());
+        assertEquals(1, report.mismatched());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.sampleMismatches().size());
+        assertTrue(report.sampleMismatches().get(0).differences().get(0).contains("amount"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.microswitch.domain.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveMirrorRateTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private final long start = System.nanoTime();
+
+    private static AdaptiveMirrorRate.Config config(long latencyThresholdMillis, double cpuThresholdPercent) {
+        return new AdaptiveMirrorRate.Config(40.0, 5.0, TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis),
+                cpuThresholdPercent, 0.5, 10.0, INTERVAL);
+    }
+
+    @Test
+    void slowStable_halvesRateDownToFloor_thenRecoversAdditively() {
+        var rate = new AdaptiveMirrorRate(config(100, 0), () -> -1.0, start);
+        assertEquals(40.0, rate.effectivePercentage(start));
+
+        long now = start;
+        double[] expectedDecrease = {20.0, 10.0, 5.0, 5.0};
+        for (double expected : expectedDecrease) {
+            now += INTERVAL;
+            rate.recordStableLatency(TimeUnit.MILLISECONDS.toNanos(250), now - 1);
+            assertEquals(expected, rate.effectivePercentage(now), 1e-9);
+        }
+
+        double[] expectedIncrease = {15.0, 25.0, 35.0, 40.0};
+        for (double expected : expectedIncrease) {
+            now += 2 * INTERVAL; // let the slow samples age out of the window
+            rate.recordStableLatency(TimeUnit.MILLISECONDS.toNanos(10), now - 1);
+            assertEquals(expected, rate.effectivePercentage(now), 1e-9);
+        }
+        assertEquals(40.0, rate.currentPercentage());
+    }
+
+    @Test
+    void busyCpu_reducesRateUntilLoadDrops() {
+        var cpuLoad = new AtomicReference<>(0.95);
+        var rate = new AdaptiveMirrorRate(config(0, 80.0), cpuLoad::get, start);
+
+        assertEquals(20.0, rate.effectivePercentage(start + INTERVAL), 1e-9);
+        cpuLoad.set(0.30);
+        assertEquals(30.0, rate.effectivePercentage(start + 2 * INTERVAL), 1e-9);
+    }
+
+    @Test
+    void rateIsOnlyReevaluatedOncePerInterval() {
+        var rate = new AdaptiveMirrorRate(config(0, 80.0), () -> 0.99, start);
+
+        assertEquals(20.0, rate.effectivePercentage(start + INTERVAL), 1e-9);
+        assertEquals(20.0, rate.effectivePercentage(start + INTERVAL + INTERVAL / 2), 1e-9);
+    }
+
+    @Test
+    void invalidDecreaseFactor_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveMirrorRate.Config(50.0, 0.0, 0L, 80.0, 1.5, 5.0, INTERVAL));
+    }
+}
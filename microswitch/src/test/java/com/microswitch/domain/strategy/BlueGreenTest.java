@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -14,13 +16,14 @@ class BlueGreenTest {
 
     private InitializerConfiguration properties;
     private BlueGreen blueGreenStrategy;
+    private final AtomicLong nowNanos = new AtomicLong();
 
     @BeforeEach
     void setUp() {
         properties = new InitializerConfiguration();
         Map<String, InitializerConfiguration.DeployableServices> services = new HashMap<>();
         properties.setServices(services);
-        blueGreenStrategy = new BlueGreen(properties);
+        blueGreenStrategy = new BlueGreen(properties, nowNanos::get);
     }
 
     @Test
@@ -159,7 +162,7 @@ class BlueGreenTest {
     }
 
     @Test
-    void testWeightAndTtl_startGreen_switchToBlueAfterTtl() throws InterruptedException {
+    void testWeightAndTtl_startGreen_switchToBlueAfterTtl() {
         String serviceKey = "wg-green-to-blue";
         var deployable = new InitializerConfiguration.DeployableServices();
         deployable.setEnabled(true);
@@ -175,12 +178,12 @@ class BlueGreenTest {
         // Initially Green
         assertEquals("green", blueGreenStrategy.execute(blue, green, serviceKey));
         // After TTL -> Blue
-        Thread.sleep(1100);
+        nowNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
         assertEquals("blue", blueGreenStrategy.execute(blue, green, serviceKey));
     }
 
     @Test
-    void testWeightAndTtl_startBlue_switchToGreenAfterTtl() throws InterruptedException {
+    void testWeightAndTtl_startBlue_switchToGreenAfterTtl() {
         String serviceKey = "wg-blue-to-green";
         var deployable = new InitializerConfiguration.DeployableServices();
         deployable.setEnabled(true);
@@ -196,7 +199,88 @@ class BlueGreenTest {
         // Initially Blue
         assertEquals("blue", blueGreenStrategy.execute(blue, green, serviceKey));
         // After TTL -> Green
-        Thread.sleep(1100);
+        nowNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
         assertEquals("green", blueGreenStrategy.execute(blue, green, serviceKey));
     }
+
+    private void registerGreenWithFailback(String serviceKey, int minRequests, int errorRateThreshold, long cooldownSeconds) {
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var blueGreen = new InitializerConfiguration.BlueGreen();
+        blueGreen.setWeight("0/1");
+        var failback = new InitializerConfiguration.BlueGreen.Failback();
+        failback.setEnabled(true);
+        failback.setMinRequests(minRequests);
+        failback.setErrorRateThreshold(errorRateThreshold);
+        failback.setCooldownSeconds(cooldownSeconds);
+        blueGreen.setFailback(failback);
+        deployable.setBlueGreen(blueGreen);
+        properties.getServices().put(serviceKey, deployable);
+    }
+
+    @Test
+    void testFailback_errorRateBreach_routesToBlue() {
+        String serviceKey = "failback-errors";
+        registerGreenWithFailback(serviceKey, 4, 50, 60);
+
+        Supplier<String> blue = () -> "blue";
+        Supplier<String> green = () -> "green";
+        assertEquals("green", blueGreenStrategy.execute(blue, green, serviceKey));
+
+        blueGreenStrategy.onOutcome(serviceKey, true, true, 1_000_000L);
+        blueGreenStrategy.onOutcome(serviceKey, true, false, 1_000_000L);
+        blueGreenStrategy.onOutcome(serviceKey, true, true, 1_000_000L);
+        // 1 error out of 3 calls: below minRequests, still green
+        assertEquals("green", blueGreenStrategy.execute(blue, green, serviceKey));
+
+        blueGreenStrategy.onOutcome(serviceKey, true, false, 1_000_000L);
+        // 2 errors out of 4 calls = 50%: threshold breached
+        assertEquals("blue", blueGreenStrategy.execute(blue, green, serviceKey));
+    }
+
+    @Test
+    void testFailback_blueOutcomesAndDisabledFailbackAreIgnored() {
+        String serviceKey = "failback-ignored";
+        registerGreenWithFailback(serviceKey, 1, 10, 60);
+        for (int i = 0; i < 10; i++) {
+            blueGreenStrategy.onOutcome(serviceKey, false, false, 1_000_000L);
+        }
+        assertEquals("green", blueGreenStrategy.execute(() -> "blue", () -> "green", serviceKey));
+
+        String weightOnly = "weight-only-green";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var blueGreen = new InitializerConfiguration.BlueGreen();
+        blueGreen.setWeight("0/1");
+        deployable.setBlueGreen(blueGreen);
+        properties.getServices().put(weightOnly, deployable);
+        for (int i = 0; i < 10; i++) {
+            blueGreenStrategy.onOutcome(weightOnly, true, false, 1_000_000L);
+        }
+        assertEquals("green", blueGreenStrategy.execute(() -> "blue", () -> "green", weightOnly));
+    }
+
+    @Test
+    void testFailback_latencyBreach_routesToBlue() {
+        String serviceKey = "failback-latency";
+        registerGreenWithFailback(serviceKey, 2, 100, 60);
+        properties.getServices().get(serviceKey).getBlueGreen().getFailback().setLatencyThresholdMillis(50L);
+
+        blueGreenStrategy.onOutcome(serviceKey, true, true, 80_000_000L);
+        blueGreenStrategy.onOutcome(serviceKey, true, true, 90_000_000L);
+
+        assertEquals("blue", blueGreenStrategy.execute(() -> "blue", () -> "green", serviceKey));
+    }
+
+    @Test
+    void testFailback_cooldownElapsed_readmitsGreen() {
+        String serviceKey = "failback-cooldown";
+        registerGreenWithFailback(serviceKey, 1, 50, 1);
+
+        blueGreenStrategy.onOutcome(serviceKey, true, false, 1_000_000L);
+        assertEquals("blue", blueGreenStrategy.execute(() -> "blue", () -> "green", serviceKey));
+
+        nowNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
+        assertEquals("green", blueGreenStrategy.execute(() -> "blue", () -> "green", serviceKey));
+    }
 }
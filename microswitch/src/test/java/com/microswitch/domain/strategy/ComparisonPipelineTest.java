@@ -0,0 +1,129 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.application.metric.DeploymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComparisonPipelineTest {
+
+    private SimpleMeterRegistry registry;
+    private ComparisonPipeline pipeline;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch firstJobStarted = new CountDownLatch(1);
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    private ComparisonPipeline newPipeline(int capacity, String overflow) {
+        return new ComparisonPipeline(capacity, 1, 8, overflow, new DeploymentMetrics(registry),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "compare-test");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                job -> {
+                    firstJobStarted.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    processed.add((String) job.stable());
+                });
+    }
+
+    private double dropped(String serviceKey) {
+        var counter = registry.find("microswitch.shadow.dropped")
+                .tag("service", serviceKey).tag("reason", "comparison_overflow").counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
+    @Test
+    void dropNewest_rejectsJobsOnceQueueIsFull() throws InterruptedException {
+        pipeline = newPipeline(2, ComparisonPipeline.DROP_NEWEST);
+
+        assertTrue(pipeline.submit("svc", "busy", "m"));
+        assertTrue(firstJobStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(pipeline.submit("svc", "q1", "m"));
+        assertTrue(pipeline.submit("svc", "q2", "m"));
+        assertFalse(pipeline.submit("svc", "q3", "m"));
+
+        assertEquals(2, pipeline.depth());
+        assertEquals(2.0, registry.get("microswitch.shadow.comparison.queue.depth").gauge().value());
+        assertEquals(1.0, dropped("svc"));
+
+        release.countDown();
+        waitForProcessed(3);
+        assertEquals(List.of("busy", "q1", "q2"), processed);
+    }
+
+    @Test
+    void dropOldest_evictsHeadToMakeRoom() throws InterruptedException {
+        pipeline = newPipeline(2, ComparisonPipeline.DROP_OLDEST);
+
+        assertTrue(pipeline.submit("svc", "busy", "m"));
+        assertTrue(firstJobStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(pipeline.submit("old", "q1", "m"));
+        assertTrue(pipeline.submit("svc", "q2", "m"));
+        assertTrue(pipeline.submit("svc", "q3", "m"));
+
+        assertEquals(1.0, dropped("old"));
+
+        release.countDown();
+        waitForProcessed(3);
+        assertEquals(List.of("busy", "q2", "q3"), processed);
+        assertTrue(registry.get("microswitch.shadow.comparison.lag").timer().count() >= 3);
+    }
+
+    @Test
+    void shutdownWithDeadline_drainsQueuedJobsAndRejectsNewOnes() throws InterruptedException {
+        pipeline = newPipeline(4, ComparisonPipeline.DROP_NEWEST);
+
+        assertTrue(pipeline.submit("svc", "busy", "m"));
+        assertTrue(firstJobStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(pipeline.submit("svc", "q1", "m"));
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.setDaemon(true);
+        releaser.start();
+
+        pipeline.shutdown(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+
+        assertEquals(List.of("busy", "q1"), processed);
+        assertFalse(pipeline.submit("svc", "late", "m"));
+    }
+
+    private void waitForProcessed(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processed.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, processed.size());
+    }
+}
@@ -0,0 +1,100 @@
+package com.microswitch.domain.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MirrorRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private final long start = System.nanoTime();
+
+    @Test
+    void admitsAtMostTheRateAndNeverBurstsAboveIt() {
+        var limiter = new MirrorRateLimiter(10.0, start);
+
+        int admitted = 0;
+        for (long now = start; now < start + SECOND; now += TimeUnit.MILLISECONDS.toNanos(1)) {
+            if (limiter.tryAcquire(now)) {
+                admitted++;
+            }
+        }
+        assertEquals(10, admitted);
+
+        long idleUntil = start + 10 * SECOND;
+        assertTrue(limiter.tryAcquire(idleUntil));
+        assertFalse(limiter.tryAcquire(idleUntil + 1), "idle time does not accumulate a burst");
+        assertTrue(limiter.tryAcquire(idleUntil + SECOND / 10));
+    }
+
+    @Test
+    void burstToleranceAdmitsClumpsBelowTheRate() {
+        var strict = new MirrorRateLimiter(10.0, start);
+        var tolerant = new MirrorRateLimiter(10.0, 5, start);
+
+        int strictAdmitted = 0;
+        int tolerantAdmitted = 0;
+        for (long clump = start; clump < start + 10 * SECOND; clump += SECOND / 2) {
+            for (int i = 0; i < 5; i++) {
+                if (strict.tryAcquire(clump)) {
+                    strictAdmitted++;
+                }
+                if (tolerant.tryAcquire(clump)) {
+                    tolerantAdmitted++;
+                }
+            }
+        }
+        assertEquals(20, strictAdmitted, "a burst of one keeps one call per clump");
+        assertEquals(100, tolerantAdmitted, "10 calls per second fit a 10 per second cap");
+
+        long idleUntil = start + 20 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertTrue(tolerant.tryAcquire(idleUntil));
+        }
+        assertFalse(tolerant.tryAcquire(idleUntil), "never more than the burst at once");
+        assertThrows(IllegalArgumentException.class, () -> new MirrorRateLimiter(10.0, 0, start));
+    }
+
+    @Test
+    void fractionalRatesSpaceMirrorsOverSeconds() {
+        var limiter = new MirrorRateLimiter(0.5, start);
+
+        assertTrue(limiter.tryAcquire(start));
+        assertFalse(limiter.tryAcquire(start + SECOND));
+        assertTrue(limiter.tryAcquire(start + 2 * SECOND));
+        assertThrows(IllegalArgumentException.class, () -> new MirrorRateLimiter(0.0, start));
+    }
+
+    @Test
+    void concurrentCallersShareOneSlot() throws InterruptedException {
+        var limiter = new MirrorRateLimiter(1.0, start);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < 1_000; j++) {
+                    if (limiter.tryAcquire(start)) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, admitted.get());
+    }
+}
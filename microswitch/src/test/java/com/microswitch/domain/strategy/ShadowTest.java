@@ -0,0 +1,738 @@
+package com.microswitch.domain.strategy;
+
+import com.microswitch.application.metric.DeploymentMetrics;
+import com.microswitch.domain.InitializerConfiguration;
+import com.microswitch.domain.capture.ReplayReport;
+import com.microswitch.domain.capture.ShadowReplayRunner;
+import com.microswitch.domain.value.MethodType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowTest {
+
+    private InitializerConfiguration properties;
+    private Shadow shadowStrategy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InitializerConfiguration();
+        Map<String, InitializerConfiguration.DeployableServices> services = new HashMap<>();
+        properties.setServices(services);
+        shadowStrategy = new Shadow(properties);
+    }
+
+    @Test
+    void testExecuteWithDisabledService_returnsPrimary() {
+        String serviceKey = "disabled-service";
+        Supplier<String> primary = () -> "primary";
+        Supplier<String> secondary = () -> "secondary";
+
+        String result = shadowStrategy.execute(primary, secondary, serviceKey);
+        assertEquals("primary", result);
+    }
+
+    @Test
+    void testServiceKeyNull_throwsIllegalArgument() {
+        Supplier<String> primary = () -> "primary";
+        Supplier<String> secondary = () -> "secondary";
+        assertThrows(IllegalArgumentException.class, () -> shadowStrategy.execute(primary, secondary, null));
+        assertThrows(IllegalArgumentException.class, () -> shadowStrategy.execute(primary, secondary, " "));
+    }
+
+    @Test
+    void testEnabledServiceButNoShadowConfig_returnsPrimary() {
+        String serviceKey = "no-shadow";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        properties.getServices().put(serviceKey, deployable);
+
+        Supplier<String> primary = () -> "primary";
+        Supplier<String> secondary = () -> "secondary";
+
+        assertEquals("primary", shadowStrategy.execute(primary, secondary, serviceKey));
+    }
+
+    @Test
+    void testMirrorPercentageNullOrZero_returnsPrimary() {
+        String serviceKey = "zero-mirror";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 0);
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+
+        Supplier<String> primary = () -> "primary";
+        Supplier<String> secondary = () -> "secondary";
+
+        assertEquals("primary", shadowStrategy.execute(primary, secondary, serviceKey));
+    }
+
+    @Test
+    void testStableMethodPrimary_nonMirrorPath_returnsPrimary() {
+        String serviceKey = "stable-primary-nonmirror";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 50); // interval = 2, first call won't mirror
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+
+        Supplier<String> primary = () -> "primary";
+        Supplier<String> secondary = () -> "secondary";
+
+        assertEquals("primary", shadowStrategy.execute(primary, secondary, serviceKey));
+    }
+
+    @Test
+    void testStableMethodSecondary_nonMirrorPath_returnsSecondary() {
+        String serviceKey = "stable-secondary-nonmirror";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.SECONDARY);
+        shadow.setMirror(MethodType.PRIMARY);
+        shadow.setMirrorPercentage((short) 50); // interval = 2, first call won't mirror
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+
+        Supplier<String> primary = () -> "primary";
+        Supplier<String> secondary = () -> "secondary";
+
+        assertEquals("secondary", shadowStrategy.execute(primary, secondary, serviceKey));
+    }
+
+    @Test
+    void testMirrorTriggered_returnsStableEvenIfMirrorThrows() {
+        String serviceKey = "mirror-triggered";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 100); // interval = 1, always mirror
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+
+        Supplier<String> primary = () -> "stable";
+        Supplier<String> secondary = () -> { throw new RuntimeException("mirror failed"); };
+
+        // Should not throw; mirror failure is handled, stable result returned
+        assertEquals("stable", shadowStrategy.execute(primary, secondary, serviceKey));
+    }
+
+    @Test
+    void testMirrorTriggered_returnsStableWhenResultsDiffer() {
+        String serviceKey = "mirror-diff";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 100); // interval = 1, always mirror
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+
+        Supplier<String> primary = () -> "A";
+        Supplier<String> secondary = () -> "B";
+
+        assertEquals("A", shadowStrategy.execute(primary, secondary, serviceKey));
+    }
+
+    @Test
+    void testAsyncMode_returnsStableWithoutWaitingForMirror() throws InterruptedException {
+        String serviceKey = "async-mirror";
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 100);
+        shadow.setMode("async");
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+
+        Thread caller = Thread.currentThread();
+        CountDownLatch mirrorStarted = new CountDownLatch(1);
+        CountDownLatch releaseMirror = new CountDownLatch(1);
+        CountDownLatch mirrorFinished = new CountDownLatch(1);
+        Supplier<String> primary = () -> {
+            assertSame(caller, Thread.currentThread(), "stable must run on the calling thread in async mode");
+            return "stable";
+        };
+        Supplier<String> secondary = () -> {
+            mirrorStarted.countDown();
+            try {
+                releaseMirror.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            mirrorFinished.countDown();
+            return "mirror";
+        };
+
+        // Mirror is still blocked when the stable result comes back
+        assertEquals("stable", shadowStrategy.execute(primary, secondary, serviceKey));
+        assertTrue(mirrorStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, mirrorFinished.getCount());
+
+        releaseMirror.countDown();
+        assertTrue(mirrorFinished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFractionalPercentage_mirrorsExactShareOfCalls() {
+        String serviceKey = "fractional-service";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        properties.getServices().get(serviceKey).getShadow().setPercentage(12.5);
+        AtomicInteger mirrorCalls = new AtomicInteger();
+
+        for (int i = 0; i < 80; i++) {
+            shadowStrategy.execute(() -> "primary", () -> "secondary-" + mirrorCalls.incrementAndGet(), serviceKey);
+        }
+
+        assertEquals(10, mirrorCalls.get(), "12.5% of 80 calls must mirror exactly 10 times");
+    }
+
+    @Test
+    void testSamplingIsIndependentPerService() {
+        registerMirroredService("sampled-a", "blocking", 1_000);
+        registerMirroredService("sampled-b", "blocking", 1_000);
+        properties.getServices().get("sampled-a").getShadow().setPercentage(50.0);
+        properties.getServices().get("sampled-b").getShadow().setPercentage(50.0);
+        AtomicInteger mirrorsA = new AtomicInteger();
+        AtomicInteger mirrorsB = new AtomicInteger();
+
+        // Interleaved traffic must not shift either service's sampling sequence.
+        for (int i = 0; i < 10; i++) {
+            shadowStrategy.execute(() -> "primary", () -> "a-" + mirrorsA.incrementAndGet(), "sampled-a");
+            shadowStrategy.execute(() -> "primary", () -> "b-" + mirrorsB.incrementAndGet(), "sampled-b");
+        }
+
+        assertEquals(5, mirrorsA.get());
+        assertEquals(5, mirrorsB.get());
+    }
+
+    @Test
+    void testServiceMirrorCap_dropsExcessMirrorsWithoutAffectingStable() throws InterruptedException {
+        String serviceKey = "capped-service";
+        registerMirroredService(serviceKey, "async", 10_000);
+        properties.getServices().get(serviceKey).getShadow().setMaxConcurrentMirrors(1);
+        var registry = new SimpleMeterRegistry();
+        var cappedShadow = new Shadow(properties, new DeploymentMetrics(registry));
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstMirrorStarted = new CountDownLatch(1);
+        AtomicInteger mirrorCalls = new AtomicInteger();
+        Supplier<String> blockingMirror = () -> {
+            mirrorCalls.incrementAndGet();
+            firstMirrorStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "mirror";
+        };
+
+        assertEquals("stable", cappedShadow.execute(() -> "stable", blockingMirror, serviceKey));
+        assertTrue(firstMirrorStarted.await(5, TimeUnit.SECONDS));
+        assertEquals("stable", cappedShadow.execute(() -> "stable", blockingMirror, serviceKey));
+        assertEquals("stable", cappedShadow.execute(() -> "stable", blockingMirror, serviceKey));
+
+        assertEquals(1, mirrorCalls.get(), "mirrors beyond the cap must be dropped, not queued");
+        assertEquals(2.0, registry.get("microswitch.shadow.dropped")
+                .tag("service", serviceKey).tag("reason", "service_limit").counter().count());
+
+        release.countDown();
+    }
+
+    @Test
+    void testServiceMirrorCap_holdsPermitUntilCancelledMirrorReturns() throws InterruptedException {
+        String serviceKey = "stubborn-service";
+        registerMirroredService(serviceKey, "async", 100);
+        properties.getServices().get(serviceKey).getShadow().setMaxConcurrentMirrors(1);
+        var registry = new SimpleMeterRegistry();
+        var cappedShadow = new Shadow(properties, new DeploymentMetrics(registry));
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger mirrorCalls = new AtomicInteger();
+        // Like blocking socket I/O: notices the interrupt but keeps its thread until the backend answers.
+        Supplier<String> stubbornMirror = () -> {
+            mirrorCalls.incrementAndGet();
+            while (true) {
+                try {
+                    if (release.await(5, TimeUnit.SECONDS)) {
+                        return "mirror";
+                    }
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        };
+
+        assertEquals("stable", cappedShadow.execute(() -> "stable", stubbornMirror, serviceKey));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "mirror should be cancelled at its deadline");
+        assertEquals("stable", cappedShadow.execute(() -> "stable", stubbornMirror, serviceKey));
+
+        assertEquals(1, mirrorCalls.get(), "a cancelled mirror still running must keep its permit");
+        assertEquals(1.0, registry.get("microswitch.shadow.dropped")
+                .tag("service", serviceKey).tag("reason", "service_limit").counter().count());
+
+        release.countDown();
+    }
+
+    @Test
+    void testGlobalMirrorCap_appliesAcrossServices() throws InterruptedException {
+        properties.getShadow().setMaxConcurrentMirrors(1);
+        registerMirroredService("global-a", "async", 10_000);
+        registerMirroredService("global-b", "async", 10_000);
+        var registry = new SimpleMeterRegistry();
+        var cappedShadow = new Shadow(properties, new DeploymentMetrics(registry));
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch mirrorStarted = new CountDownLatch(1);
+        AtomicInteger mirrorCalls = new AtomicInteger();
+        Supplier<String> blockingMirror = () -> {
+            mirrorCalls.incrementAndGet();
+            mirrorStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "mirror";
+        };
+
+        assertEquals("stable", cappedShadow.execute(() -> "stable", blockingMirror, "global-a"));
+        assertTrue(mirrorStarted.await(5, TimeUnit.SECONDS));
+        assertEquals("stable", cappedShadow.execute(() -> "stable", blockingMirror, "global-b"));
+
+        assertEquals(1, mirrorCalls.get());
+        assertEquals(1.0, registry.get("microswitch.shadow.dropped")
+                .tag("service", "global-b").tag("reason", "global_limit").counter().count());
+
+        release.countDown();
+    }
+
+    @Test
+    void testBlockingMode_runsStableOnCallerThread() {
+        String serviceKey = "blocking-caller-thread";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        var stableThread = new AtomicReference<Thread>();
+        var mirrorThread = new AtomicReference<Thread>();
+
+        String result = shadowStrategy.execute(
+                () -> {
+                    stableThread.set(Thread.currentThread());
+                    return "stable";
+                },
+                () -> {
+                    mirrorThread.set(Thread.currentThread());
+                    return "mirror";
+                },
+                serviceKey);
+
+        assertEquals("stable", result);
+        assertSame(Thread.currentThread(), stableThread.get(), "stable must run on the caller thread");
+        assertNotSame(Thread.currentThread(), mirrorThread.get(), "mirror must be dispatched");
+    }
+
+    @Test
+    void testCaptureMode_recordsStableCallsForReplay() throws Exception {
+        String serviceKey = "capture-service";
+        registerMirroredService(serviceKey, "capture", 1_000);
+        Path captureRoot = Files.createTempDirectory("shadow-capture");
+        properties.getServices().get(serviceKey).getShadow().getCapture().setDirectory(captureRoot.toString());
+        var mirrorCalls = new AtomicInteger();
+
+        for (int i = 1; i <= 3; i++) {
+            int result = shadowStrategy.execute((Integer x) -> x * 2, x -> mirrorCalls.incrementAndGet(), i, serviceKey);
+            assertEquals(i * 2, result);
+        }
+        assertEquals(0, mirrorCalls.get(), "capture mode never runs the mirror live");
+
+        ReplayReport report = ShadowReplayRunner.builder().parallelism(2).build()
+                .replay(captureRoot.resolve(serviceKey), Integer.class, Integer.class, x -> x == 3 ? 0 : x * 2);
+        assertEquals(3, report.replayed());
+        assertEquals(2, report.matched());
+        assertEquals(1, report.mismatched());
+    }
+
+    public static class Quote {
+        public final long id;
+        public final double price;
+
+        Quote(long id, double price) {
+            this.id = id;
+            this.price = price;
+        }
+    }
+
+    @Test
+    void testComparatorsAreBuiltPerServiceFromTheirOwnConfig() {
+        registerMirroredService("ignores-price", "blocking", 1_000);
+        registerMirroredService("strict", "blocking", 1_000);
+        registerMirroredService("no-compare", "blocking", 1_000);
+        var ignoringConfig = properties.getServices().get("ignores-price").getShadow();
+        ignoringConfig.getComparator().setMode("enable");
+        ignoringConfig.getComparator().setIgnoreFields(List.of("price"));
+        var strictConfig = properties.getServices().get("strict").getShadow();
+        strictConfig.getComparator().setMode("enable");
+        var disabledConfig = properties.getServices().get("no-compare").getShadow();
+
+        var ignoring = shadowStrategy.comparatorFor("ignores-price", ignoringConfig);
+        var strict = shadowStrategy.comparatorFor("strict", strictConfig);
+
+        assertNotNull(ignoring);
+        assertNotNull(strict);
+        assertNotSame(ignoring, strict);
+        assertSame(ignoring, shadowStrategy.comparatorFor("ignores-price", ignoringConfig), "comparator must be built once");
+        assertNull(shadowStrategy.comparatorFor("no-compare", disabledConfig));
+
+        assertTrue(ignoring.areEqual(new Quote(1, 10.0), new Quote(1, 11.0)));
+        assertFalse(strict.areEqual(new Quote(1, 10.0), new Quote(1, 11.0)));
+    }
+
+    @Test
+    void testExhaustedBudgetWithoutDifferences_isInconclusiveNotMismatch() throws InterruptedException {
+        String serviceKey = "budget-exhausted";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        var comparatorConfig = properties.getServices().get(serviceKey).getShadow().getComparator();
+        comparatorConfig.setMode("enable");
+        comparatorConfig.setMaxNodesVisited(5L);
+        var registry = new SimpleMeterRegistry();
+        var budgetedShadow = new Shadow(properties, new DeploymentMetrics(registry));
+
+        List<Integer> stable = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            stable.add(i);
+        }
+        List<Integer> mirror = new ArrayList<>(stable);
+        mirror.set(49, -1);
+        budgetedShadow.execute(() -> stable, () -> mirror, serviceKey);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        var inconclusive = registry.find("microswitch.shadow.comparison.inconclusive");
+        while ((inconclusive.counter() == null || inconclusive.counter().count() < 1.0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1.0, registry.get("microswitch.shadow.comparison.inconclusive")
+                .tag("service", serviceKey).tag("budget", "NODES").counter().count());
+        assertTrue(budgetedShadow.recentMismatches(serviceKey).isEmpty());
+        assertTrue(budgetedShadow.topMismatchSignatures(serviceKey, 10).isEmpty());
+        assertNull(registry.find("microswitch.shadow.mismatch").counter());
+    }
+
+    @Test
+    void testMismatchHistory_keepsLatestMismatchesWithPaths() throws InterruptedException {
+        String serviceKey = "mismatch-history";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        var comparatorConfig = properties.getServices().get(serviceKey).getShadow().getComparator();
+        comparatorConfig.setMode("enable");
+        comparatorConfig.setMismatchHistorySize(2);
+
+        for (int i = 1; i <= 3; i++) {
+            int price = i;
+            shadowStrategy.execute(() -> Map.of("price", 0), () -> Map.of("price", price), serviceKey);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<ShadowMismatch> mismatches = shadowStrategy.recentMismatches(serviceKey);
+        while ((mismatches.isEmpty() || !"3".equals(mismatches.get(0).differences().get(0).mirror()))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            mismatches = shadowStrategy.recentMismatches(serviceKey);
+        }
+
+        assertEquals(2, mismatches.size(), "history is bounded by mismatchHistorySize");
+        assertEquals("price", mismatches.get(0).differences().get(0).path());
+        assertEquals("3", mismatches.get(0).differences().get(0).mirror());
+        assertEquals("2", mismatches.get(1).differences().get(0).mirror());
+        assertTrue(shadowStrategy.recentMismatches("unknown-service").isEmpty());
+    }
+
+    public static class Line {
+        public final int price;
+
+        Line(int price) {
+            this.price = price;
+        }
+    }
+
+    public static class Basket {
+        public final List<Line> items;
+        public final String currency;
+        public final Map<String, Integer> taxes;
+
+        Basket(List<Line> items, String currency, Map<String, Integer> taxes) {
+            this.items = items;
+            this.currency = currency;
+            this.taxes = taxes;
+        }
+    }
+
+    @Test
+    void testMismatchSignatures_aggregateNormalizedPaths() throws InterruptedException {
+        String serviceKey = "mismatch-signatures";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        var comparatorConfig = properties.getServices().get(serviceKey).getShadow().getComparator();
+        comparatorConfig.setMode("enable");
+        comparatorConfig.setMaxMismatchSignatures(1);
+
+        for (int i = 1; i <= 3; i++) {
+            int price = i;
+            shadowStrategy.execute(
+                    () -> new Basket(List.of(new Line(0), new Line(0)), "EUR", Map.of("vat", 0)),
+                    () -> new Basket(List.of(new Line(price), new Line(price)), price == 3 ? "USD" : "EUR",
+                            Map.of("vat", price == 3 ? 1 : 0)),
+                    serviceKey);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<MismatchSignature> signatures = shadowStrategy.topMismatchSignatures(serviceKey, 10);
+        while (signatures.stream().mapToLong(MismatchSignature::count).sum() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            signatures = shadowStrategy.topMismatchSignatures(serviceKey, 10);
+        }
+
+        assertEquals(List.of(new MismatchSignature("items[*].price", 3), new MismatchSignature(MismatchSignatures.OTHER, 1)),
+                signatures, "signatures beyond the limit are folded into <other>, once per mismatch");
+        assertEquals(1, shadowStrategy.topMismatchSignatures(serviceKey, 1).size());
+        assertTrue(shadowStrategy.topMismatchSignatures("unknown-service", 10).isEmpty());
+    }
+
+    @Test
+    void testAdaptiveMode_exportsEffectiveMirrorRate() {
+        String serviceKey = "adaptive-service";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        var shadowConfig = properties.getServices().get(serviceKey).getShadow();
+        shadowConfig.setPercentage(25.0);
+        shadowConfig.getAdaptive().setEnabled(true);
+        shadowConfig.getAdaptive().setCpuThresholdPercent(100.0);
+        var registry = new SimpleMeterRegistry();
+        var adaptiveShadow = new Shadow(properties, new DeploymentMetrics(registry));
+
+        assertEquals("stable", adaptiveShadow.execute(() -> "stable", () -> "mirror", serviceKey));
+
+        assertEquals(25.0, registry.get("microswitch.shadow.mirror.rate").tag("service", serviceKey).gauge().value());
+    }
+
+    @Test
+    void testPlatformExecutor_isolatesServiceMirrorsAndDrainsOnShutdown() throws InterruptedException {
+        String serviceKey = "platform-executor";
+        registerMirroredService(serviceKey, "async", 1_000);
+        var executorConfig = properties.getServices().get(serviceKey).getShadow().getExecutor();
+        executorConfig.setType("platform");
+        executorConfig.setPoolSize(1);
+        executorConfig.setQueueCapacity(1);
+        executorConfig.setPriority(Thread.MIN_PRIORITY);
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> mirrorThread = new AtomicReference<>();
+        AtomicInteger mirrors = new AtomicInteger();
+        Supplier<String> mirror = () -> {
+            mirrorThread.set(Thread.currentThread());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            mirrors.incrementAndGet();
+            return "mirror";
+        };
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("stable", shadowStrategy.execute(() -> "stable", mirror, serviceKey));
+        }
+        release.countDown();
+        shadowStrategy.shutdown();
+
+        assertTrue(mirrorThread.get().getName().startsWith("shadow-" + serviceKey + "-"));
+        assertEquals(Thread.MIN_PRIORITY, mirrorThread.get().getPriority());
+        assertEquals(2, mirrors.get(), "one running and one queued mirror drain, the third was rejected");
+        assertEquals("stable", shadowStrategy.execute(() -> "stable", mirror, serviceKey), "stable only after shutdown");
+        assertEquals(2, mirrors.get());
+    }
+
+    @Test
+    void testClose_stopsMirroringForServicesSeenAfterShutdown() {
+        registerMirroredService("before-close", "async", 1_000);
+        registerMirroredService("after-close", "async", 1_000);
+        AtomicInteger mirrors = new AtomicInteger();
+        Supplier<String> mirror = () -> {
+            mirrors.incrementAndGet();
+            return "mirror";
+        };
+
+        try (Shadow closeable = new Shadow(properties)) {
+            assertEquals("stable", closeable.execute(() -> "stable", mirror, "before-close"));
+            closeable.close();
+            assertEquals("stable", closeable.execute(() -> "stable", mirror, "after-close"));
+        }
+
+        assertEquals(1, mirrors.get(), "no executor may be started for a service after shutdown");
+    }
+
+    @Test
+    void testShutdown_startsNoComparisonWorkersForCallInFlight() throws InterruptedException {
+        String serviceKey = "in-flight-at-shutdown";
+        registerMirroredService(serviceKey, "blocking", 10_000);
+        properties.getServices().get(serviceKey).getShadow().getComparator().setMode("enable");
+        var draining = new Shadow(properties);
+        CountDownLatch mirrored = new CountDownLatch(1);
+        CountDownLatch shutDown = new CountDownLatch(1);
+        Set<Thread> workersBefore = comparisonWorkers();
+
+        // The stable side outlasts shutdown, so the call reaches the comparison only after the drain.
+        Thread caller = new Thread(() -> draining.execute(() -> {
+            try {
+                shutDown.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "stable";
+        }, () -> {
+            mirrored.countDown();
+            return "mirror";
+        }, serviceKey));
+        caller.start();
+        assertTrue(mirrored.await(5, TimeUnit.SECONDS));
+        Thread stopper = new Thread(draining::shutdown);
+        Thread secondStopper = new Thread(draining::close);
+        stopper.start();
+        secondStopper.start();
+        stopper.join(5_000);
+        secondStopper.join(5_000);
+        shutDown.countDown();
+        caller.join(5_000);
+
+        Set<Thread> started = comparisonWorkers();
+        started.removeAll(workersBefore);
+        assertTrue(started.isEmpty(), "comparison workers started after shutdown: " + started);
+    }
+
+    private static Set<Thread> comparisonWorkers() {
+        Set<Thread> workers = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("shadow-compare-")) {
+                workers.add(thread);
+            }
+        }
+        return workers;
+    }
+
+    @Test
+    void testMaxMirrorsPerSecond_capsMirrorsRegardlessOfTraffic() {
+        String serviceKey = "rate-capped";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+        properties.getServices().get(serviceKey).getShadow().setMaxMirrorsPerSecond(1.0);
+
+        AtomicInteger mirrors = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            assertEquals("stable", shadowStrategy.execute(() -> "stable", () -> {
+                mirrors.incrementAndGet();
+                return "mirror";
+            }, serviceKey));
+        }
+
+        assertTrue(mirrors.get() >= 1 && mirrors.get() <= 2, "mirrors: " + mirrors.get());
+    }
+
+    private void registerMirroredService(String serviceKey, String mode, long mirrorTimeoutMillis) {
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 100);
+        shadow.setMode(mode);
+        shadow.setMirrorTimeoutMillis(mirrorTimeoutMillis);
+        deployable.setShadow(shadow);
+        properties.getServices().put(serviceKey, deployable);
+    }
+
+    private static Supplier<String> interruptibleSlowMirror(CountDownLatch interrupted) {
+        return () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return "mirror";
+        };
+    }
+
+    @Test
+    void testBlockingMode_mirrorDeadline_returnsStableOnceAndInterruptsMirror() throws InterruptedException {
+        String serviceKey = "blocking-deadline";
+        registerMirroredService(serviceKey, "blocking", 200);
+
+        AtomicInteger stableCalls = new AtomicInteger();
+        CountDownLatch mirrorInterrupted = new CountDownLatch(1);
+        Supplier<String> primary = () -> {
+            stableCalls.incrementAndGet();
+            return "stable";
+        };
+
+        long startedAt = System.nanoTime();
+        assertEquals("stable", shadowStrategy.execute(primary, interruptibleSlowMirror(mirrorInterrupted), serviceKey));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals(1, stableCalls.get(), "stable must not be re-executed when the mirror times out");
+        assertTrue(elapsedMillis < 5_000, "caller waited " + elapsedMillis + " ms");
+        assertTrue(mirrorInterrupted.await(5, TimeUnit.SECONDS), "mirror thread should be interrupted");
+    }
+
+    @Test
+    void testAsyncMode_mirrorDeadline_interruptsMirror() throws InterruptedException {
+        String serviceKey = "async-deadline";
+        registerMirroredService(serviceKey, "async", 200);
+
+        CountDownLatch mirrorInterrupted = new CountDownLatch(1);
+        assertEquals("stable", shadowStrategy.execute(() -> "stable", interruptibleSlowMirror(mirrorInterrupted), serviceKey));
+        assertTrue(mirrorInterrupted.await(5, TimeUnit.SECONDS), "mirror thread should be interrupted");
+    }
+
+    @Test
+    void testBlockingMode_stableThrows_propagatesOriginalException() {
+        String serviceKey = "blocking-stable-throws";
+        registerMirroredService(serviceKey, "blocking", 1_000);
+
+        AtomicInteger stableCalls = new AtomicInteger();
+        Supplier<String> primary = () -> {
+            stableCalls.incrementAndGet();
+            throw new IllegalStateException("stable down");
+        };
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> shadowStrategy.execute(primary, () -> "mirror", serviceKey));
+        assertEquals("stable down", ex.getMessage());
+        assertEquals(1, stableCalls.get());
+    }
+}
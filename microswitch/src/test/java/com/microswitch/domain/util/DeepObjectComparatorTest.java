@@ -0,0 +1,786 @@
+package com.microswitch.domain.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeepObjectComparator Tests")
+class DeepObjectComparatorTest {
+
+    private ObjectMapper objectMapper;
+    private DeepObjectComparator defaultComparator;
+    private DeepObjectComparator hybridComparator;
+    private DeepObjectComparator jsonComparator;
+    private DeepObjectComparator reflectionComparator;
+
+    // Use Map instead of custom classes to avoid Jackson module issues
+    private Map<String, Object> createSampleApiResponse() {
+        return Map.of(
+                "data", List.of(
+                        Map.of("_id", "26645811", "itemId_", "46768576453", "contentId_", "5818237330", "productId_", 760250794),
+                        Map.of("_id", "26638850", "itemId_", "46760576453", "contentId_", "5813237950", "productId_", 267259995),
+                        Map.of("_id", "26521750", "itemId_", "46730576453", "contentId_", "5818437950", "productId_", 43822946)
+                ),
+                "statusCode", 200
+        );
+    }
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        
+        defaultComparator = DeepObjectComparator.defaultComparator();
+        
+        hybridComparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.HYBRID)
+                .withMaxDepth(10)
+                .compareNullsAsEqual(false)
+                .ignoreFields("timestamp", "requestId", "traceId")
+                .build();
+                
+        jsonComparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.JSON_BASED)
+                .build();
+                
+        reflectionComparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should detect identical JSON responses as equal")
+    void shouldDetectIdenticalJsonResponsesAsEqual() throws Exception {
+        // Given: Identical JSON strings
+        String testJson = """
+            {
+              "data": [
+                {
+                  "_id": "26645811",
+                  "itemId_": "46768576453",
+                  "contentId_": "5818237330",
+                  "productId_": 760250794
+                },
+                {
+                  "_id": "26638850",
+                  "itemId_": "46760576453",
+                  "contentId_": "5813237950",
+                  "productId_": 267259995
+                }
+              ],
+              "statusCode": 200
+            }""";
+
+        // When: Parse JSON to Maps
+        @SuppressWarnings("unchecked")
+        Map<String, Object> apiResponse1 = objectMapper.readValue(testJson, Map.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> apiResponse2 = objectMapper.readValue(testJson, Map.class);
+
+        // Then: All comparison strategies should detect them as equal
+        assertTrue(defaultComparator.areEqual(apiResponse1, apiResponse2),
+                "Default comparator should detect identical responses as equal");
+        assertTrue(hybridComparator.areEqual(apiResponse1, apiResponse2),
+                "Hybrid comparator should detect identical responses as equal");
+        assertTrue(jsonComparator.areEqual(apiResponse1, apiResponse2),
+                "JSON comparator should detect identical responses as equal");
+        assertTrue(reflectionComparator.areEqual(apiResponse1, apiResponse2),
+                "Reflection comparator should detect identical responses as equal");
+    }
+
+    @ParameterizedTest
+    @EnumSource(DeepObjectComparator.ComparisonStrategy.class)
+    @DisplayName("Should detect identical objects as equal across all strategies")
+    void shouldDetectIdenticalObjectsAsEqualAcrossAllStrategies(DeepObjectComparator.ComparisonStrategy strategy) {
+        // Given: Identical objects
+        Map<String, Object> response1 = createSampleApiResponse();
+        Map<String, Object> response2 = createSampleApiResponse();
+
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(strategy)
+                .build();
+
+        // When & Then
+        assertTrue(comparator.areEqual(response1, response2),
+                "Strategy " + strategy + " should detect identical objects as equal");
+    }
+
+    @Test
+    @DisplayName("Should detect differences in data content")
+    void shouldDetectDifferencesInDataContent() {
+        // Given: Responses with different data
+        Map<String, Object> response1 = createSampleApiResponse();
+        Map<String, Object> response2 = Map.of(
+                "data", List.of(
+                        Map.of("_id", "26645811", "itemId_", "46768576453", "contentId_", "5818237330", "productId_", 999999), // Different product ID
+                        Map.of("_id", "26638850", "itemId_", "46760576453", "contentId_", "5813237950", "productId_", 267259995),
+                        Map.of("_id", "26521750", "itemId_", "46730576453", "contentId_", "5818437950", "productId_", 43822946)
+                ),
+                "statusCode", 200
+        );
+
+        // When & Then
+        assertFalse(defaultComparator.areEqual(response1, response2),
+                "Should detect difference in product ID");
+    }
+
+    @Test
+    @DisplayName("Should detect differences in status fields")
+    void shouldDetectDifferencesInStatusFields() {
+        // Given: Responses with different status
+        Map<String, Object> response1 = createSampleApiResponse();
+        Map<String, Object> response2 = Map.of(
+                "data", List.of(
+                        Map.of("_id", "26645811", "itemId_", "46768576453", "contentId_", "5818237330", "productId_", 760250794),
+                        Map.of("_id", "26638850", "itemId_", "46760576453", "contentId_", "5813237950", "productId_", 267259995),
+                        Map.of("_id", "26521750", "itemId_", "46730576453", "contentId_", "5818437950", "productId_", 43822946)
+                ),
+                "statusCode", 500 // Different status code
+        );
+
+        // When & Then
+        assertFalse(defaultComparator.areEqual(response1, response2),
+                "Should detect differences in status fields");
+    }
+
+    @Test
+    @DisplayName("Should handle null values correctly")
+    void shouldHandleNullValuesCorrectly() {
+        // Given: One null, one non-null
+        Map<String, Object> response1 = createSampleApiResponse();
+        Map<String, Object> response2 = null;
+
+        // When & Then
+        assertFalse(defaultComparator.areEqual(response1, response2),
+                "Should detect null vs non-null as different");
+        assertFalse(defaultComparator.areEqual(response2, response1),
+                "Should detect null vs non-null as different (reversed)");
+        assertTrue(defaultComparator.areEqual(response2, response2),
+                "Should detect null vs null as equal");
+    }
+
+    @Test
+    @DisplayName("Should handle empty data lists")
+    void shouldHandleEmptyDataLists() {
+        // Given: Responses with empty data
+        Map<String, Object> response1 = Map.of(
+                "data", List.of(),
+                "statusCode", 200
+        );
+        Map<String, Object> response2 = Map.of(
+                "data", List.of(),
+                "statusCode", 200
+        );
+
+        // When & Then
+        assertTrue(defaultComparator.areEqual(response1, response2),
+                "Should detect empty lists as equal");
+    }
+
+    @Test
+    @DisplayName("Should detect order differences in lists")
+    void shouldDetectOrderDifferencesInLists() {
+        // Given: Same data but different order
+        Map<String, Object> response1 = Map.of(
+                "data", List.of(
+                        Map.of("_id", "1", "itemId_", "content1", "productId_", 100),
+                        Map.of("_id", "2", "itemId_", "content2", "productId_", 200)
+                ),
+                "statusCode", 200
+        );
+        Map<String, Object> response2 = Map.of(
+                "data", List.of(
+                        Map.of("_id", "2", "itemId_", "content2", "productId_", 200),
+                        Map.of("_id", "1", "itemId_", "content1", "productId_", 100)
+                ),
+                "statusCode", 200
+        );
+
+        // When & Then
+        assertFalse(defaultComparator.areEqual(response1, response2),
+                "Should detect order differences in lists");
+    }
+
+    @Test
+    @DisplayName("Should ignore specified fields")
+    void shouldIgnoreSpecifiedFields() {
+        // Given: Comparator that ignores 'statusCode' field
+        DeepObjectComparator ignoringComparator = DeepObjectComparator.builder()
+                .ignoreFields("statusCode")
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.JSON_BASED)
+                .build();
+
+        Map<String, Object> response1 = createSampleApiResponse(); // statusCode: 200
+        Map<String, Object> response2 = Map.of(
+                "data", List.of(
+                        Map.of("_id", "26645811", "itemId_", "46768576453", "contentId_", "5818237330", "productId_", 760250794),
+                        Map.of("_id", "26638850", "itemId_", "46760576453", "contentId_", "5813237950", "productId_", 267259995),
+                        Map.of("_id", "26521750", "itemId_", "46730576453", "contentId_", "5818437950", "productId_", 43822946)
+                ),
+                "statusCode", 500 // Different status code - should be ignored
+        );
+
+        // When & Then
+        assertTrue(ignoringComparator.areEqual(response1, response2),
+                "Should ignore differences in 'statusCode' field");
+        assertFalse(defaultComparator.areEqual(response1, response2),
+                "Default comparator should detect differences in 'statusCode' field");
+    }
+
+    @Test
+    @DisplayName("Should handle Map-like objects correctly")
+    void shouldHandleMapLikeObjectsCorrectly() {
+        // Given: Map representations of the same data
+        Map<String, Object> map1 = Map.of(
+                "success", true,
+                "message", "Success",
+                "statusCode", 200
+        );
+        Map<String, Object> map2 = Map.of(
+                "success", true,
+                "message", "Success",
+                "statusCode", 200
+        );
+
+        // When & Then
+        assertTrue(defaultComparator.areEqual(map1, map2),
+                "Should detect identical maps as equal");
+    }
+
+    @Test
+    @DisplayName("Should detect subtle differences in nested objects")
+    void shouldDetectSubtleDifferencesInNestedObjects() throws Exception {
+        // Given: JSON with subtle differences (extra whitespace, different formatting)
+        String json1 = """
+            {
+              "data": [
+                {
+                  "id": "26638251",
+                  "contentId": "5818237950",
+                  "productId": 260250994
+                }
+              ],
+              "success": true,
+              "message": "Success",
+              "statusCode": 200
+            }""";
+
+        String json2 = """
+            {"data":[{"id":"26638251","contentId":"5818237950","productId":260250994}],"success":true,"message":"Success","statusCode":200}""";
+
+        Map response1 = objectMapper.readValue(json1, Map.class);
+        Map response2 = objectMapper.readValue(json2, Map.class);
+
+        // When & Then: Should be equal despite formatting differences
+        assertTrue(defaultComparator.areEqual(response1, response2),
+                "Should ignore JSON formatting differences");
+    }
+
+    @Test
+    @DisplayName("Should handle numeric type differences")
+    void shouldHandleNumericTypeDifferences() {
+        // Given: Simple numeric values with different types
+        Long longValue = 100L;
+        Integer intValue = 100;
+        
+        // Test direct numeric comparison first
+        assertTrue(defaultComparator.areEqual(longValue, intValue),
+                "Should handle Long vs Integer correctly");
+        
+        // Test in Map context
+        Map<String, Object> item1 = Map.of("productId_", 100L);
+        Map<String, Object> item2 = Map.of("productId_", 100);
+        
+        assertTrue(defaultComparator.areEqual(item1, item2),
+                "Should handle same numeric values in Maps correctly");
+    }
+
+    @Test
+    @DisplayName("Should provide detailed debugging information")
+    void shouldProvideDetailedDebuggingInformation() {
+        // Given: Objects that might have subtle differences
+        Map<String, Object> response1 = createSampleApiResponse();
+        Map<String, Object> response2 = Map.of(
+                "data", List.of(
+                        Map.of("_id", "26645811 ", "itemId_", "46768576453", "contentId_", "5818237330", "productId_", 760250794), // Extra space in _id
+                        Map.of("_id", "26638850", "itemId_", "46760576453", "contentId_", "5813237950", "productId_", 267259995),
+                        Map.of("_id", "26521750", "itemId_", "46730576453", "contentId_", "5818437950", "productId_", 43822946)
+                ),
+                "statusCode", 200
+        );
+
+        // When & Then
+        assertFalse(defaultComparator.areEqual(response1, response2),
+                "Should detect subtle string differences (extra whitespace)");
+    }
+
+    @Test
+    @DisplayName("Should report the first differing paths with truncated values")
+    void shouldReportFirstDifferingPaths() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withMaxDifferences(2)
+                .withMaxValueLength(10)
+                .build();
+        Map<String, Object> stable = Map.of(
+                "items", List.of(Map.of("price", 10, "name", "a"), Map.of("price", 20, "name", "b")),
+                "note", "short");
+        Map<String, Object> mirror = Map.of(
+                "items", List.of(Map.of("price", 11, "name", "a"), Map.of("price", 21, "name", "b")),
+                "note", "a much longer note");
+
+        ComparisonResult result = comparator.compare(stable, mirror);
+
+        assertFalse(result.equal());
+        assertEquals(2, result.differences().size());
+        assertTrue(result.truncated(), "three differences exist but only two may be reported");
+        assertTrue(result.differences().stream().allMatch(d -> d.stable().length() <= 10 && d.mirror().length() <= 10));
+        assertTrue(result.differences().stream().map(ComparisonResult.Difference::path)
+                .allMatch(path -> path.equals("note") || path.matches("items\\[[01]]\\.price")));
+    }
+
+    @Test
+    @DisplayName("Should report equal results without differences")
+    void shouldReportEqualResultWithoutDifferences() {
+        ComparisonResult result = defaultComparator.compare(createSampleApiResponse(), createSampleApiResponse());
+
+        assertTrue(result.equal());
+        assertTrue(result.differences().isEmpty());
+        assertFalse(result.truncated());
+    }
+
+    public static class Invoice {
+        public final long id;
+        public final double amount;
+        public final boolean paid;
+        public final char currencyCode;
+        public final String customer;
+        public transient long timestamp;
+        private final String note;
+
+        Invoice(long id, double amount, boolean paid, char currencyCode, String customer, long timestamp, String note) {
+            this.id = id;
+            this.amount = amount;
+            this.paid = paid;
+            this.currencyCode = currencyCode;
+            this.customer = customer;
+            this.timestamp = timestamp;
+            this.note = note;
+        }
+    }
+
+    public static class Customer {
+        public final Map<String, List<String>> orders;
+
+        Customer(Map<String, List<String>> orders) {
+            this.orders = orders;
+        }
+    }
+
+    @Test
+    @DisplayName("Should report key-free signatures next to the paths")
+    void shouldReportSignaturesWithoutMapKeys() {
+        Customer stable = new Customer(Map.of("jane.doe@example.com[1]", List.of("A", "B")));
+        Customer mirror = new Customer(Map.of("jane.doe@example.com[1]", List.of("A", "C")));
+
+        ComparisonResult.Difference difference = hybridComparator.compare(stable, mirror).differences().get(0);
+
+        assertEquals("orders.jane.doe@example.com[1][1]", difference.path());
+        assertEquals("orders[*][*]", difference.signature(), "map keys never reach the signature");
+        assertEquals("$", hybridComparator.compare(1, 2).differences().get(0).signature());
+    }
+
+    @Test
+    @DisplayName("Should compare accessible fields through the class plan and skip private ones")
+    void shouldCompareAccessibleFieldsThroughClassPlan() {
+        Invoice stable = new Invoice(1L, 9.5, true, 'E', "acme", 1L, "first");
+
+        assertTrue(reflectionComparator.areEqual(stable, new Invoice(1L, 9.5, true, 'E', "acme", 2L, "first")),
+                "transient fields are skipped");
+        assertTrue(reflectionComparator.areEqual(stable, new Invoice(1L, 9.5, true, 'E', "acme", 1L, "second")),
+                "private fields are not accessible and are skipped");
+
+        ComparisonResult result = hybridComparator.compare(stable, new Invoice(2L, 9.75, true, 'E', "acme", 1L, "first"));
+        assertFalse(result.equal());
+        assertEquals(List.of("id", "amount"), result.differences().stream().map(ComparisonResult.Difference::path).toList());
+        assertEquals("9.5", result.differences().get(1).stable());
+
+        assertFalse(reflectionComparator.areEqual(stable, new Invoice(1L, 9.5, false, 'E', "acme", 1L, "first")));
+        assertFalse(reflectionComparator.areEqual(stable, new Invoice(1L, 9.5, true, 'U', "acme", 1L, "first")));
+        assertFalse(reflectionComparator.areEqual(stable, new Invoice(1L, 9.5, true, 'E', null, 1L, "first")));
+        assertFalse(reflectionComparator.areEqual(stable, new Invoice(1L, 0.0, true, 'E', "acme", 1L, "first")));
+    }
+
+    public static class Node {
+        public final String name;
+        public Node next;
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    private static Node ring(String first, String second) {
+        Node head = new Node(first);
+        head.next = new Node(second);
+        head.next.next = head;
+        return head;
+    }
+
+    @Test
+    @DisplayName("Should terminate on cycles and still report differences inside them")
+    void shouldCompareCyclicGraphsByIdentityPairs() {
+        assertTrue(reflectionComparator.areEqual(ring("a", "b"), ring("a", "b")));
+
+        ComparisonResult result = reflectionComparator.compare(ring("a", "b"), ring("a", "c"));
+        assertFalse(result.equal());
+        assertEquals(List.of("next.name"), result.differences().stream().map(ComparisonResult.Difference::path).toList());
+
+        // The same comparator and thread reuse the cycle-tracking set; nothing from the previous run leaks in.
+        assertFalse(reflectionComparator.areEqual(ring("a", "b"), ring("x", "b")));
+    }
+
+    private record CountingKey(String id, AtomicInteger renders) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CountingKey key && key.id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            renders.incrementAndGet();
+            return id;
+        }
+    }
+
+    @Test
+    @DisplayName("Should render map keys and paths only when a difference is reported")
+    void shouldBuildPathsOnlyForReportedDifferences() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .enableSamplingOnHuge(false)
+                .build();
+        AtomicInteger renders = new AtomicInteger();
+        CountingKey first = new CountingKey("first", renders);
+        CountingKey second = new CountingKey("second", renders);
+
+        Map<CountingKey, List<Integer>> stable = Map.of(first, List.of(1, 2, 3), second, List.of(4));
+        assertTrue(comparator.compare(stable, Map.of(first, List.of(1, 2, 3), second, List.of(4))).equal());
+        assertEquals(0, renders.get(), "matching comparisons render no path");
+
+        ComparisonResult result = comparator.compare(stable, Map.of(first, List.of(1, 2, 9), second, List.of(4)));
+        assertEquals(List.of("first[2]"), result.differences().stream().map(ComparisonResult.Difference::path).toList());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should compare JSON token by token and ignore fields at any depth")
+    void shouldCompareJsonTokensIgnoringNestedFields() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.JSON_BASED)
+                .withFingerprintPreCheck(false)
+                .ignoreFields("updatedAt")
+                .build();
+        Map<String, Object> stable = Map.of("updatedAt", 1, "items", List.of(
+                Map.of("sku", "a", "price", 10, "updatedAt", "t1"),
+                Map.of("sku", "b", "price", 20L, "updatedAt", "t1")));
+
+        assertTrue(comparator.compare(stable, Map.of("updatedAt", 2, "items", List.of(
+                Map.of("sku", "a", "price", 10L, "updatedAt", "t2"),
+                Map.of("sku", "b", "price", 20, "updatedAt", "t3")))).equal());
+
+        ComparisonResult result = comparator.compare(stable, Map.of("updatedAt", 1, "items", List.of(
+                Map.of("sku", "a", "price", 10, "updatedAt", "t1"),
+                Map.of("sku", "c", "price", 21, "updatedAt", "t1"))));
+        assertEquals(List.of("items[1].price", "items[1].sku"),
+                result.differences().stream().map(ComparisonResult.Difference::path).toList());
+        assertEquals("21", result.differences().get(0).mirror());
+
+        ComparisonResult structural = comparator.compare(stable, Map.of("updatedAt", 3, "items", List.of(
+                Map.of("sku", "a", "price", 10, "updatedAt", "t1"))));
+        assertEquals(List.of("items[1]"), structural.differences().stream().map(ComparisonResult.Difference::path).toList());
+    }
+
+    public static class Tag {
+        public final String name;
+        public final Number weight;
+        public final String requestId;
+
+        Tag(String name, Number weight, String requestId) {
+            this.name = name;
+            this.weight = weight;
+            this.requestId = requestId;
+        }
+    }
+
+    private static Set<Tag> tags(Tag... tags) {
+        return new LinkedHashSet<>(List.of(tags));
+    }
+
+    @Test
+    @DisplayName("Should compare sets of non-comparable elements as multisets")
+    void shouldCompareSetsByHashBuckets() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .ignoreFields("requestId")
+                .build();
+        Set<Tag> stable = tags(new Tag("a", 1, "r-1"), new Tag("b", 2, "r-1"), new Tag("c", 3, "r-1"));
+
+        // Different order, numerically equivalent weights and ignored request ids still pair up.
+        assertTrue(comparator.compare(stable, tags(new Tag("c", 3L, "r-2"), new Tag("a", 1.0, "r-2"), new Tag("b", 2L, "r-2"))).equal());
+
+        ComparisonResult result = comparator.compare(stable, tags(new Tag("c", 3, "r-1"), new Tag("x", 2, "r-1"), new Tag("a", 1, "r-1")));
+        assertFalse(result.equal());
+        assertEquals(List.of("[1].name"), result.differences().stream().map(ComparisonResult.Difference::path).toList());
+
+        DeepObjectComparator fingerprinting = DeepObjectComparator.builder().ignoreFields("requestId").build();
+        assertEquals(fingerprinting.fingerprint(stable),
+                fingerprinting.fingerprint(tags(new Tag("b", 2, "r-3"), new Tag("c", 3, "r-3"), new Tag("a", 1, "r-3"))));
+    }
+
+    @Test
+    @DisplayName("Should compare lists as multisets only when unordered lists are enabled")
+    void shouldCompareUnorderedListsWhenEnabled() {
+        List<Map<String, Object>> stable = List.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 2));
+        List<Map<String, Object>> reordered = List.of(Map.of("id", 2), Map.of("id", 1L), Map.of("id", 2));
+        DeepObjectComparator unordered = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withUnorderedLists(true)
+                .build();
+
+        assertFalse(reflectionComparator.areEqual(stable, reordered));
+        assertTrue(unordered.areEqual(stable, reordered));
+        assertEquals(unordered.fingerprint(stable), unordered.fingerprint(reordered));
+        assertFalse(unordered.areEqual(stable, List.of(Map.of("id", 1), Map.of("id", 1), Map.of("id", 2))),
+                "duplicates are counted");
+    }
+
+    public static class Row {
+        public final long id;
+        public final String name;
+
+        Row(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row row && row.id == id && row.name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compare huge lists and arrays in full on the fork/join pool")
+    void shouldCompareHugeCollectionsInParallel() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .withMaxCompareTimeMillis(0)
+                .withParallelOnHuge(10_000, 1_000)
+                .build();
+        List<Row> stable = new ArrayList<>();
+        List<Row> mirror = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            stable.add(new Row(i, "row-" + i));
+            mirror.add(new Row(i, "row-" + i));
+        }
+        assertTrue(comparator.compare(stable, mirror).equal());
+
+        // A single changed row among 100,000 would most likely escape sampling; the exhaustive scan sees it.
+        mirror.set(73_457, new Row(73_457, "changed"));
+        ComparisonResult result = comparator.compare(stable, mirror);
+        assertFalse(result.equal());
+        assertEquals(List.of("[73457].name"), result.differences().stream().map(ComparisonResult.Difference::path).toList());
+        assertFalse(comparator.areEqual(stable.toArray(), mirror.toArray()));
+
+        long[] values = new long[1_000_000];
+        long[] changed = values.clone();
+        assertTrue(comparator.areEqual(values, changed));
+        changed[654_321] = 1;
+        assertFalse(comparator.areEqual(values, changed));
+    }
+
+    @Test
+    @DisplayName("Should give up deterministically once the node budget is spent")
+    void shouldReportExhaustedNodeBudget() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            rows.add(new Row(i, "row-" + i));
+        }
+        List<Row> copy = new ArrayList<>(rows);
+        DeepObjectComparator.Builder builder = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .enableSamplingOnHuge(false)
+                .withMaxCompareTimeMillis(0);
+
+        // The root list costs two nodes (entered, then as a collection) and each row one more.
+        ComparisonResult exhausted = builder.withMaxNodesVisited(300).build().compare(rows.subList(0, 400), copy.subList(0, 400));
+        assertFalse(exhausted.equal());
+        assertEquals(ComparisonResult.Budget.NODES, exhausted.exhaustedBudget());
+        assertTrue(exhausted.differences().isEmpty());
+        assertSame(ComparisonResult.EQUAL, builder.withMaxNodesVisited(402).build().compare(rows.subList(0, 400), copy.subList(0, 400)));
+
+        // Parallel chunks share the budget.
+        builder.withParallelOnHuge(10_000, 1_000);
+        assertEquals(ComparisonResult.Budget.NODES, builder.withMaxNodesVisited(10_000).build().compare(rows, copy).exhaustedBudget());
+        assertSame(ComparisonResult.EQUAL, builder.withMaxNodesVisited(20_002).build().compare(rows, copy));
+    }
+
+    @Test
+    @DisplayName("Should sample huge lists and maps at reproducible stratified positions")
+    void shouldSampleHugeCollectionsReproducibly() {
+        long seed = 42L;
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .withMaxCompareTimeMillis(0)
+                .withMaxCollectionElements(1_000)
+                .withSamplingSeed(seed)
+                .build();
+        int size = 100_000;
+        int[] positions = StratifiedSample.positions(size, StratifiedSample.sampleSize(0.99, 0.001),
+                StratifiedSample.streamSeed(seed, 0));
+        int sampled = positions[1_000];
+        int skipped = sampled + 1 == positions[1_001] ? sampled - 1 : sampled + 1;
+
+        List<Row> stable = new ArrayList<>();
+        Map<Integer, Row> stableMap = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            stable.add(new Row(i, "row-" + i));
+            stableMap.put(i, new Row(i, "row-" + i));
+        }
+        List<Row> mirror = new ArrayList<>(stable);
+        Map<Integer, Row> mirrorMap = new LinkedHashMap<>(stableMap);
+        mirror.set(skipped, new Row(skipped, "changed"));
+        mirrorMap.put(skipped, new Row(skipped, "changed"));
+        assertTrue(comparator.compare(stable, mirror).equal());
+        assertTrue(comparator.compare(stableMap, mirrorMap).equal());
+
+        mirror.set(sampled, new Row(sampled, "changed"));
+        mirrorMap.put(sampled, new Row(sampled, "changed"));
+        ComparisonResult listResult = comparator.compare(stable, mirror);
+        assertEquals(List.of("[" + sampled + "].name"), listResult.differences().stream().map(ComparisonResult.Difference::path).toList());
+        assertEquals(seed, listResult.samplingSeed());
+        ComparisonResult mapResult = comparator.compare(stableMap, mirrorMap);
+        assertEquals(List.of(sampled + ".name"), mapResult.differences().stream().map(ComparisonResult.Difference::path).toList());
+
+        // Collections below maxCollectionElements are compared in full and report no seed.
+        List<Row> small = new ArrayList<>(stable.subList(0, 999));
+        List<Row> smallMirror = new ArrayList<>(small);
+        smallMirror.set(997, new Row(997, "changed"));
+        ComparisonResult smallResult = comparator.compare(small, smallMirror);
+        assertFalse(smallResult.equal());
+        assertEquals(0L, smallResult.samplingSeed());
+    }
+
+    @Test
+    @DisplayName("Should catch periodic differences that a fixed stride would miss")
+    void shouldCatchPeriodicDifferencesWhenSampling() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .withMaxCompareTimeMillis(0)
+                .withMaxCollectionElements(1_000)
+                .withSampling(0.999, 0.01)
+                .build();
+        List<Row> stable = new ArrayList<>();
+        List<Row> mirror = new ArrayList<>();
+        Set<Row> stableSet = new HashSet<>();
+        Set<Row> mirrorSet = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            Row row = new Row(i, "row-" + i);
+            // Every 50th row differs, always away from multiples of 10.
+            Row mirrored = i % 50 == 25 ? new Row(i, "changed") : row;
+            stable.add(row);
+            mirror.add(mirrored);
+            stableSet.add(row);
+            mirrorSet.add(mirrored);
+        }
+        for (int run = 0; run < 5; run++) {
+            ComparisonResult result = comparator.compare(stable, mirror);
+            assertFalse(result.equal());
+            assertNotEquals(0L, result.samplingSeed());
+            assertFalse(comparator.compare(stableSet, mirrorSet).equal());
+        }
+    }
+
+    public static class Wide {
+        public final String first;
+        public final String second;
+        public final String third;
+
+        Wide(String first, String second, String third) {
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply each comparator's own field cap to a shared class")
+    void shouldCapFieldsPerComparator() {
+        DeepObjectComparator narrow = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withMaxFieldsPerClass(1)
+                .build();
+        DeepObjectComparator wide = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .build();
+        Wide stable = new Wide("a", "b", "c");
+        Wide mirror = new Wide("a", "b", "changed");
+
+        assertTrue(narrow.areEqual(stable, mirror));
+        assertFalse(wide.areEqual(stable, mirror));
+        assertTrue(narrow.areEqual(stable, mirror));
+    }
+
+    @Test
+    @DisplayName("Should charge hashing of a sampled huge set to the node budget")
+    void shouldBoundSampledSetsByNodeBudget() {
+        Set<Row> stable = new HashSet<>();
+        Set<Row> mirror = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            stable.add(new Row(i, "row-" + i));
+            mirror.add(new Row(i, "row-" + i));
+        }
+        DeepObjectComparator.Builder builder = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+                .withFingerprintPreCheck(false)
+                .withMaxCompareTimeMillis(0)
+                .withMaxCollectionElements(1_000)
+                .withSampling(0.999, 0.01);
+
+        // Sampling compares 688 rows, but all 20,000 mirror rows are hashed to find their partners.
+        ComparisonResult exhausted = builder.withMaxNodesVisited(5_000).build().compare(stable, mirror);
+        assertFalse(exhausted.equal());
+        assertEquals(ComparisonResult.Budget.NODES, exhausted.exhaustedBudget());
+        assertSame(ComparisonResult.EQUAL, builder.withMaxNodesVisited(1_000_000).build().compare(stable, mirror));
+    }
+}
@@ -0,0 +1,36 @@
+package com.microswitch.domain.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashBucketsTest {
+
+    @Test
+    void chainsIndicesOfEqualHashesInAscendingOrder() {
+        // 1L and 1L << 32 land in the same slot, so their buckets share a probe sequence.
+        var buckets = new HashBuckets(new long[]{7L, 1L, StructuralFingerprint.NONE, 7L, 1L << 32, 7L});
+
+        assertEquals(List.of(0, 3, 5), indices(buckets, 7L));
+        assertEquals(List.of(1), indices(buckets, 1L));
+        assertEquals(List.of(4), indices(buckets, 1L << 32));
+        assertEquals(List.of(), indices(buckets, 42L));
+        assertEquals(List.of(), indices(buckets, StructuralFingerprint.NONE), "unhashed elements have no bucket");
+    }
+
+    @Test
+    void handlesEmptyInput() {
+        assertEquals(-1, new HashBuckets(new long[0]).first(7L));
+    }
+
+    private static List<Integer> indices(HashBuckets buckets, long hash) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = buckets.first(hash); i >= 0; i = buckets.next(i)) {
+            indices.add(i);
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,42 @@
+package com.microswitch.domain.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityPairSetTest {
+
+    @Test
+    void comparesPairsByIdentityNotEquality() {
+        var set = new IdentityPairSet();
+        String left = new String("same");
+        String right = new String("same");
+
+        assertTrue(set.add(left, right));
+        assertFalse(set.add(left, right));
+        assertTrue(set.add(right, left), "pairs are ordered");
+        assertTrue(set.add(new String("same"), right), "an equal but distinct object is a different pair");
+    }
+
+    @Test
+    void keepsEveryPairWhenGrowingAndForgetsThemOnClear() {
+        var set = new IdentityPairSet();
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            objects.add(new Object());
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            assertTrue(set.add(objects.get(i), objects.get(objects.size() - 1 - i)));
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            assertFalse(set.add(objects.get(i), objects.get(objects.size() - 1 - i)));
+        }
+        assertTrue(set.isRetainable());
+
+        set.clear();
+        assertTrue(set.add(objects.get(0), objects.get(objects.size() - 1)));
+    }
+}
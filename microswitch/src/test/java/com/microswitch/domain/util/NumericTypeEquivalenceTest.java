@@ -3,6 +3,8 @@ package com.microswitch.domain.util;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -131,4 +133,24 @@ class NumericTypeEquivalenceTest {
 
         assertTrue(areEqual, "data1 and data2 responses should be considered equal despite numeric type differences");
     }
+
+    @Test
+    @DisplayName("Should compare integral and floating point values exactly")
+    void shouldCompareIntegralAndFloatingPointValuesExactly() {
+        DeepObjectComparator comparator = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.HYBRID)
+                .build();
+
+        assertTrue(comparator.areEqual(1L << 60, (double) (1L << 60)), "2^60 is exactly representable");
+        assertFalse(comparator.areEqual((1L << 53) + 1, (double) (1L << 53)), "2^53 + 1 only rounds to 2^53");
+        assertFalse(comparator.areEqual(Long.MAX_VALUE, 0x1p63), "2^63 does not fit a long");
+        assertTrue(comparator.areEqual((short) 0, -0.0f));
+        assertTrue(comparator.areEqual(Float.NaN, Double.NaN));
+        assertFalse(comparator.areEqual(1, Double.NaN));
+        assertFalse(comparator.areEqual(0.1f, 0.1), "0.1f widens to 0.10000000149011612");
+
+        assertTrue(comparator.areEqual(new BigDecimal("0.10"), 0.1));
+        assertTrue(comparator.areEqual(BigInteger.TEN, 10));
+        assertFalse(comparator.areEqual(new BigDecimal("1"), Double.POSITIVE_INFINITY));
+    }
 }
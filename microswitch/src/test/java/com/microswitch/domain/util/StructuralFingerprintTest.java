@@ -0,0 +1,114 @@
+package com.microswitch.domain.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Structural fingerprint pre-check Tests")
+class StructuralFingerprintTest {
+
+    private final DeepObjectComparator comparator = DeepObjectComparator.builder()
+            .withStrategy(DeepObjectComparator.ComparisonStrategy.REFLECTION_BASED)
+            .ignoreFields("timestamp")
+            .build();
+
+    public static class Order {
+        public String id;
+        public Number total;
+        public long timestamp;
+        public List<Object> lines;
+        public Map<String, Object> attributes;
+
+        Order(String id, Number total, long timestamp, List<Object> lines, Map<String, Object> attributes) {
+            this.id = id;
+            this.total = total;
+            this.timestamp = timestamp;
+            this.lines = lines;
+            this.attributes = attributes;
+        }
+    }
+
+    public static class Opaque {
+        public final String value;
+
+        Opaque(String value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    @DisplayName("Equal graphs share a fingerprint despite ignored fields, numeric types and map order")
+    void equalGraphsShareFingerprint() {
+        Order stable = new Order("o-1", 42, 1L, List.of(1, 2.5, "x"), Map.of("a", 1, "b", List.of(true)));
+        Order mirror = new Order("o-1", 42L, 2L, List.of(1L, 2.5, "x"), Map.of("b", List.of(true), "a", 1.0));
+
+        long fingerprint = comparator.fingerprint(stable);
+
+        assertNotEquals(DeepObjectComparator.NO_FINGERPRINT, fingerprint);
+        assertEquals(fingerprint, comparator.fingerprint(mirror));
+        assertTrue(comparator.areEqual(stable, mirror));
+    }
+
+    @Test
+    @DisplayName("Any relevant difference changes the fingerprint")
+    void differencesChangeFingerprint() {
+        Order base = new Order("o-1", 42, 1L, List.of(-1.5, -2.5), Map.of("a", 1));
+
+        assertNotEquals(comparator.fingerprint(base),
+                comparator.fingerprint(new Order("o-2", 42, 1L, List.of(-1.5, -2.5), Map.of("a", 1))));
+        assertNotEquals(comparator.fingerprint(base),
+                comparator.fingerprint(new Order("o-1", 42, 1L, List.of(1.5, 2.5), Map.of("a", 1))),
+                "sign flips must not cancel out");
+        assertNotEquals(comparator.fingerprint(base),
+                comparator.fingerprint(new Order("o-1", 42, 1L, List.of(-2.5, -1.5), Map.of("a", 1))),
+                "lists are ordered");
+        assertNotEquals(comparator.fingerprint(base),
+                comparator.fingerprint(new Order("o-1", 42, 1L, List.of(-1.5, -2.5), Map.of("a", "1"))));
+        assertNotEquals(comparator.fingerprint(0.0), comparator.fingerprint(-0.0));
+    }
+
+    @Test
+    @DisplayName("Matching precomputed fingerprints short-circuit, differing ones fall back to the full diff")
+    void precomputedFingerprintsDecideWhetherToWalk() {
+        Order stable = new Order("o-1", 42, 1L, List.of(1), Map.of());
+        Order mirror = new Order("o-1", 43, 1L, List.of(1), Map.of());
+
+        assertSame(ComparisonResult.EQUAL, comparator.compare(stable, stable, 7L, 7L));
+
+        ComparisonResult result = comparator.compare(stable, mirror, comparator.fingerprint(stable), comparator.fingerprint(mirror));
+        assertFalse(result.equal());
+        assertEquals("total", result.differences().get(0).path());
+
+        ComparisonResult unknown = comparator.compare(stable, mirror,
+                DeepObjectComparator.NO_FINGERPRINT, DeepObjectComparator.NO_FINGERPRINT);
+        assertFalse(unknown.equal(), "NO_FINGERPRINT never counts as a match");
+    }
+
+    @Test
+    @DisplayName("Constructs compared with equals() are not fingerprinted")
+    void equalsBasedConstructsAreNotFingerprinted() {
+        Queue<Opaque> opaqueQueue = new ArrayDeque<>(List.of(new Opaque("a")));
+
+        assertEquals(DeepObjectComparator.NO_FINGERPRINT, comparator.fingerprint(List.of(opaqueQueue)));
+        assertEquals(DeepObjectComparator.NO_FINGERPRINT, comparator.fingerprint(Map.of(new Opaque("k"), 1)));
+        assertEquals(DeepObjectComparator.NO_FINGERPRINT,
+                DeepObjectComparator.builder().withFingerprintPreCheck(false).build().fingerprint("x"));
+    }
+
+    @Test
+    @DisplayName("JSON-based fingerprints hash the serialized form")
+    void jsonFingerprintFollowsSerializedForm() {
+        DeepObjectComparator json = DeepObjectComparator.builder()
+                .withStrategy(DeepObjectComparator.ComparisonStrategy.JSON_BASED)
+                .build();
+
+        assertEquals(json.fingerprint(Map.of("a", 1, "b", 2)), json.fingerprint(Map.of("b", 2, "a", 1)));
+        assertNotEquals(json.fingerprint(Map.of("a", 1)), json.fingerprint(Map.of("a", 2)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.microswitch.infrastructure.external;
+
+import com.microswitch.application.executor.MicroswitchDeploymentStrategyExecutor;
+import com.microswitch.domain.InitializerConfiguration;
+import com.microswitch.domain.strategy.MismatchSignature;
+import com.microswitch.domain.strategy.ShadowMismatch;
+import com.microswitch.domain.util.ComparisonResult;
+import com.microswitch.domain.value.MethodType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointTest {
+
+    private static final String SERVICE_KEY = "customer-service";
+
+    private InitializerConfiguration properties;
+    private MicroswitchDeploymentStrategyExecutor executor;
+    private Endpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InitializerConfiguration();
+        properties.setServices(new HashMap<>());
+        var deployable = new InitializerConfiguration.DeployableServices();
+        deployable.setEnabled(true);
+        var shadow = new InitializerConfiguration.Shadow();
+        shadow.setStable(MethodType.PRIMARY);
+        shadow.setMirror(MethodType.SECONDARY);
+        shadow.setMirrorPercentage((short) 100);
+        shadow.setMode("blocking");
+        shadow.getComparator().setMode("enable");
+        deployable.setShadow(shadow);
+        properties.getServices().put(SERVICE_KEY, deployable);
+        executor = new MicroswitchDeploymentStrategyExecutor(properties, null);
+        endpoint = new Endpoint(properties, executor);
+    }
+
+    @Test
+    void shadowMismatches_masksValuesAndKeysByDefault() throws InterruptedException {
+        recordMismatch();
+
+        List<ShadowMismatch> mismatches = awaitMismatches();
+
+        assertEquals(List.of(new ComparisonResult.Difference("balances[*]", "balances[*]", "<masked>", "<masked>")),
+                mismatches.get(0).differences());
+    }
+
+    @Test
+    void shadowMismatches_servesValuesWhenExposed() throws InterruptedException {
+        properties.getServices().get(SERVICE_KEY).getShadow().getComparator().setExposeValues(true);
+        recordMismatch();
+
+        List<ShadowMismatch> mismatches = awaitMismatches();
+
+        assertEquals(List.of(new ComparisonResult.Difference("balances.jane@example.com", "balances[*]", "10", "12")),
+                mismatches.get(0).differences());
+    }
+
+    @Test
+    void mismatchSignatures_servesKeyFreeSignatures() throws InterruptedException {
+        recordMismatch();
+        awaitMismatches();
+
+        assertEquals(List.of(new MismatchSignature("balances[*]", 1)),
+                endpoint.mismatchSignatures(SERVICE_KEY, "signatures"));
+    }
+
+    @Test
+    void mismatchSignatures_rejectsUnknownView() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.mismatchSignatures(SERVICE_KEY, "values"));
+    }
+
+    @Test
+    void withoutExecutor_servesNothing() {
+        var bare = new Endpoint(properties);
+
+        assertTrue(bare.shadowMismatches(SERVICE_KEY).isEmpty());
+        assertTrue(bare.mismatchSignatures(SERVICE_KEY, "signatures").isEmpty());
+    }
+
+    public static class Account {
+        public final Map<String, Integer> balances;
+
+        Account(Map<String, Integer> balances) {
+            this.balances = balances;
+        }
+    }
+
+    private void recordMismatch() {
+        executor.executeShadow(() -> new Account(Map.of("jane@example.com", 10)),
+                () -> new Account(Map.of("jane@example.com", 12)), SERVICE_KEY);
+    }
+
+    private List<ShadowMismatch> awaitMismatches() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<ShadowMismatch> mismatches = endpoint.shadowMismatches(SERVICE_KEY);
+        while (mismatches.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            mismatches = endpoint.shadowMismatches(SERVICE_KEY);
+        }
+        assertFalse(mismatches.isEmpty(), "no mismatch recorded");
+        return mismatches;
+    }
+}
@@ -2,6 +2,7 @@ package com.microswitch.infrastructure.manager;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +22,9 @@ class DeploymentManagerTest {
         public <R> R executeBlueGreen(Supplier<R> stable, Supplier<R> experimental, String serviceKey) {
             return experimental.get();
         }
+        public <T, R> R executeByActiveStrategy(Function<T, R> stable, Function<T, R> experimental, T input, String serviceKey) {
+            return stable.apply(input);
+        }
     }
 
     @Test
@@ -56,6 +60,15 @@ class DeploymentManagerTest {
         assertEquals("green", result);
     }
 
+    @Test
+    void execute_withInput_delegatesToActiveStrategy() {
+        DeploymentManager manager = DeploymentManager.createWithExecutor(new TestDeploymentStrategyExecutor());
+
+        String result = manager.execute((String name) -> "stable-" + name, name -> "green-" + name, "order", "svc");
+
+        assertEquals("stable-order", result);
+    }
+
     @Test
     void createWithExecutor_null_throwsNpe() {
         assertThrows(NullPointerException.class, () -> DeploymentManager.createWithExecutor(null));